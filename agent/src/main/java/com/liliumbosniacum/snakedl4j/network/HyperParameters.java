@@ -0,0 +1,126 @@
+package com.liliumbosniacum.snakedl4j.network;
+
+import java.util.Objects;
+
+/**
+ * Class representing hyperparameters of a training session.
+ *
+ * @author mirza
+ */
+public final class HyperParameters {
+    // region Member
+    /**
+     * Hyperparameters used by all training modes except the sweep.
+     */
+    public static final HyperParameters DEFAULT = new HyperParameters(0.001, 0.001, 150, 0.9, 0.9, 0.001, 3);
+
+    private final double learningRate;
+    private final double l2;
+    private final int hiddenLayerCount;
+    private final double discountFactor;
+    private final double epsilonStart;
+    private final double epsilonDecay;
+    private final int viewDistance;
+    // endregion
+
+    // region Constructor
+    /**
+     * @param learningRate Learning rate of the Adam updater.
+     * @param l2 L2 regularization applied on all layers.
+     * @param hiddenLayerCount Number of neurons in each hidden layer.
+     * @param discountFactor Factor by which future scores are discounted.
+     * @param epsilonStart Probability of a random action at the start of the training.
+     * @param epsilonDecay Value by which epsilon is decreased after every move.
+     * @param viewDistance Number of cells the snake can see in each direction.
+     */
+    public HyperParameters(final double learningRate,
+                           final double l2,
+                           final int hiddenLayerCount,
+                           final double discountFactor,
+                           final double epsilonStart,
+                           final double epsilonDecay,
+                           final int viewDistance) {
+        this.learningRate = learningRate;
+        this.l2 = l2;
+        this.hiddenLayerCount = hiddenLayerCount;
+        this.discountFactor = discountFactor;
+        this.epsilonStart = epsilonStart;
+        this.epsilonDecay = epsilonDecay;
+        this.viewDistance = viewDistance;
+    }
+    // endregion
+
+    // region Implementation
+    public double getLearningRate() {
+        return learningRate;
+    }
+
+    public double getL2() {
+        return l2;
+    }
+
+    public int getHiddenLayerCount() {
+        return hiddenLayerCount;
+    }
+
+    public double getDiscountFactor() {
+        return discountFactor;
+    }
+
+    public double getEpsilonStart() {
+        return epsilonStart;
+    }
+
+    public double getEpsilonDecay() {
+        return epsilonDecay;
+    }
+
+    public int getViewDistance() {
+        return viewDistance;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+
+        final HyperParameters that = (HyperParameters) o;
+        return Double.compare(that.learningRate, learningRate) == 0
+                && Double.compare(that.l2, l2) == 0
+                && hiddenLayerCount == that.hiddenLayerCount
+                && Double.compare(that.discountFactor, discountFactor) == 0
+                && Double.compare(that.epsilonStart, epsilonStart) == 0
+                && Double.compare(that.epsilonDecay, epsilonDecay) == 0
+                && viewDistance == that.viewDistance;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(
+                learningRate,
+                l2,
+                hiddenLayerCount,
+                discountFactor,
+                epsilonStart,
+                epsilonDecay,
+                viewDistance
+        );
+    }
+
+    @Override
+    public String toString() {
+        return "HyperParameters{learningRate=" + learningRate
+                + ", l2=" + l2
+                + ", hiddenLayerCount=" + hiddenLayerCount
+                + ", discountFactor=" + discountFactor
+                + ", epsilonStart=" + epsilonStart
+                + ", epsilonDecay=" + epsilonDecay
+                + ", viewDistance=" + viewDistance
+                + '}';
+    }
+    // endregion
+}
@@ -0,0 +1,136 @@
+package com.liliumbosniacum.snakedl4j.network;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+/**
+ * Class representing values which are tried out for each hyperparameter during a sweep. Hyperparameters can either be
+ * combined into a full grid or sampled randomly.
+ *
+ * @author mirza
+ */
+public final class SearchSpace {
+    // region Member
+    /**
+     * Search space used by the sweep, centered around {@link HyperParameters#DEFAULT}.
+     */
+    public static final SearchSpace DEFAULT = new SearchSpace(
+            new double[]{0.0003, 0.001, 0.003},
+            new double[]{0, 0.001},
+            new int[]{64, 150, 256},
+            new double[]{0.9, 0.95, 0.99},
+            new double[]{0.9, 1.0},
+            new double[]{0.001, 0.0001},
+            new int[]{2, 3, 4}
+    );
+
+    private final double[] learningRates;
+    private final double[] l2s;
+    private final int[] hiddenLayerCounts;
+    private final double[] discountFactors;
+    private final double[] epsilonStarts;
+    private final double[] epsilonDecays;
+    private final int[] viewDistances;
+    // endregion
+
+    // region Constructor
+    public SearchSpace(final double[] learningRates,
+                       final double[] l2s,
+                       final int[] hiddenLayerCounts,
+                       final double[] discountFactors,
+                       final double[] epsilonStarts,
+                       final double[] epsilonDecays,
+                       final int[] viewDistances) {
+        this.learningRates = learningRates.clone();
+        this.l2s = l2s.clone();
+        this.hiddenLayerCounts = hiddenLayerCounts.clone();
+        this.discountFactors = discountFactors.clone();
+        this.epsilonStarts = epsilonStarts.clone();
+        this.epsilonDecays = epsilonDecays.clone();
+        this.viewDistances = viewDistances.clone();
+    }
+    // endregion
+
+    // region Implementation
+    /**
+     * Get number of all possible combinations of hyperparameters.
+     *
+     * @return Returns size of the full grid.
+     */
+    public int getGridSize() {
+        return learningRates.length
+                * l2s.length
+                * hiddenLayerCounts.length
+                * discountFactors.length
+                * epsilonStarts.length
+                * epsilonDecays.length
+                * viewDistances.length;
+    }
+
+    /**
+     * Get all possible combinations of hyperparameters.
+     *
+     * @return Returns every combination of hyperparameters exactly once.
+     */
+    public List<HyperParameters> getGrid() {
+        final List<HyperParameters> grid = new ArrayList<>(getGridSize());
+        for (int i = 0; i < getGridSize(); i++) {
+            grid.add(getCombination(i));
+        }
+
+        return grid;
+    }
+
+    /**
+     * Get random combinations of hyperparameters (random search). Each combination is picked at most once.
+     *
+     * @param count Number of combinations to pick, it is capped at the size of the grid.
+     * @param random Random number generator used for picking.
+     * @return Returns picked combinations.
+     */
+    public List<HyperParameters> sample(final int count, final SplittableRandom random) {
+        final int gridSize = getGridSize();
+        final Set<HyperParameters> samples = new LinkedHashSet<>();
+
+        while (samples.size() < Math.min(count, gridSize)) {
+            samples.add(getCombination(random.nextInt(gridSize)));
+        }
+
+        return new ArrayList<>(samples);
+    }
+    // endregion
+
+    // region Helper
+    // Combination index is decoded like a number where each hyperparameter is one digit
+    private HyperParameters getCombination(final int index) {
+        int rest = index;
+
+        final double learningRate = learningRates[rest % learningRates.length];
+        rest /= learningRates.length;
+        final double l2 = l2s[rest % l2s.length];
+        rest /= l2s.length;
+        final int hiddenLayerCount = hiddenLayerCounts[rest % hiddenLayerCounts.length];
+        rest /= hiddenLayerCounts.length;
+        final double discountFactor = discountFactors[rest % discountFactors.length];
+        rest /= discountFactors.length;
+        final double epsilonStart = epsilonStarts[rest % epsilonStarts.length];
+        rest /= epsilonStarts.length;
+        final double epsilonDecay = epsilonDecays[rest % epsilonDecays.length];
+        rest /= epsilonDecays.length;
+        final int viewDistance = viewDistances[rest % viewDistances.length];
+
+        return new HyperParameters(
+                learningRate,
+                l2,
+                hiddenLayerCount,
+                discountFactor,
+                epsilonStart,
+                epsilonDecay,
+                viewDistance
+        );
+    }
+    // endregion
+}
@@ -0,0 +1,100 @@
+package com.liliumbosniacum.snakedl4j.network.distributed;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.Socket;
+
+/**
+ * Connection of a training worker to the {@link ParameterServer}. Not thread-safe.
+ *
+ * @author mirza
+ */
+public final class ParameterClient implements Closeable {
+    // region Member
+    private final Socket socket;
+    private final DataInputStream in;
+    private final DataOutputStream out;
+    private final byte[] buffer;
+    private long version;
+    // endregion
+
+    // region Constructor
+    /**
+     * Connects to the parameter server running on this machine.
+     *
+     * @param port Port of the server.
+     * @param parameterCount Number of parameters of the worker network, it has to match the server.
+     * @throws IOException If connection failed or server has a different number of parameters.
+     */
+    public ParameterClient(final int port, final int parameterCount) throws IOException {
+        this.socket = new Socket(InetAddress.getLoopbackAddress(), port);
+        this.socket.setTcpNoDelay(true);
+        this.in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+        this.out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+        this.buffer = new byte[parameterCount * Float.BYTES];
+
+        out.writeInt(ParameterProtocol.MAGIC);
+        out.writeInt(parameterCount);
+        out.flush();
+
+        final int serverParameterCount = in.readInt();
+        if (serverParameterCount != parameterCount) {
+            socket.close();
+            throw new IOException("Server has " + serverParameterCount + " parameters instead of " + parameterCount);
+        }
+    }
+    // endregion
+
+    // region Implementation
+    /**
+     * Pulls current parameters of the server.
+     *
+     * @param parameters Array which is filled with the parameters.
+     * @return Returns version of the pulled parameters.
+     * @throws IOException If connection failed.
+     */
+    public long pull(final float[] parameters) throws IOException {
+        out.writeByte(ParameterProtocol.PULL);
+        out.flush();
+
+        version = in.readLong();
+        ParameterProtocol.readFloats(in, parameters, buffer);
+        return version;
+    }
+
+    /**
+     * Pushes change of parameters made since the last pull.
+     *
+     * @param delta Difference between current parameters of the worker and the last pulled parameters.
+     * @return Returns true if delta was applied, false if it was based on too old parameters.
+     * @throws IOException If connection failed.
+     */
+    public boolean push(final float[] delta) throws IOException {
+        out.writeByte(ParameterProtocol.PUSH);
+        out.writeLong(version);
+        ParameterProtocol.writeFloats(out, delta, buffer);
+        out.flush();
+
+        return in.readBoolean();
+    }
+
+    /**
+     * Get version of the last pulled parameters.
+     *
+     * @return Returns version the next push is based on.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    @Override
+    public void close() throws IOException {
+        socket.close();
+    }
+    // endregion
+}
@@ -0,0 +1,42 @@
+package com.liliumbosniacum.snakedl4j.network.distributed;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Wire format shared by the parameter server and its clients. Client starts with {@link #MAGIC} and its number of
+ * parameters, server answers with its number of parameters. After that the client sends requests:
+ * <ul>
+ *     <li>{@link #PULL} - server answers with its version (long) followed by all parameters.</li>
+ *     <li>{@link #PUSH} - followed by the version the delta is based on (long) and the delta of all parameters, server
+ *     answers whether the delta was applied (boolean).</li>
+ * </ul>
+ * Floats are sent big endian, in bulk.
+ *
+ * @author mirza
+ */
+final class ParameterProtocol {
+    // region Member
+    static final int MAGIC = 0x534E5053; // "SNPS"
+    static final byte PULL = 1;
+    static final byte PUSH = 2;
+    // endregion
+
+    // region Constructor
+    private ParameterProtocol() {}
+    // endregion
+
+    // region Implementation
+    static void writeFloats(final DataOutputStream out, final float[] values, final byte[] buffer) throws IOException {
+        ByteBuffer.wrap(buffer).asFloatBuffer().put(values);
+        out.write(buffer, 0, values.length * Float.BYTES);
+    }
+
+    static void readFloats(final DataInputStream in, final float[] values, final byte[] buffer) throws IOException {
+        in.readFully(buffer, 0, values.length * Float.BYTES);
+        ByteBuffer.wrap(buffer).asFloatBuffer().get(values);
+    }
+    // endregion
+}
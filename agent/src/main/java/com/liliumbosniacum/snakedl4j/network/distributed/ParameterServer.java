@@ -0,0 +1,208 @@
+package com.liliumbosniacum.snakedl4j.network.distributed;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Owns the master copy of network parameters shared by training processes on the same machine. Workers push deltas of
+ * their parameters since the last pull and pull fresh parameters over a loopback socket. Every applied delta increases
+ * the version of the parameters. Delta whose base version is more than the maximum staleness behind the current version
+ * is rejected, so that workers which fell behind can not undo progress of the others.
+ *
+ * @author mirza
+ */
+public final class ParameterServer implements Closeable {
+    // region Member
+    private static final Logger LOG = LoggerFactory.getLogger(ParameterServer.class);
+
+    private final float[] parameters;
+    private final int maxStaleness;
+    private final ServerSocket serverSocket;
+    private long version;
+
+    // Statistics
+    private final AtomicLong pullCount = new AtomicLong();
+    private final AtomicLong pushCount = new AtomicLong();
+    private final AtomicLong rejectedCount = new AtomicLong();
+    private final AtomicLong stalenessSum = new AtomicLong();
+    private final AtomicLong maxObservedStaleness = new AtomicLong();
+    private long lastLogNanos = System.nanoTime();
+    private long lastPullCount;
+    private long lastPushCount;
+    // endregion
+
+    // region Constructor
+    /**
+     * Binds the server to the loopback address and starts accepting workers.
+     *
+     * @param parameters Initial parameters, they are copied.
+     * @param maxStaleness Largest number of versions a pushed delta may be behind.
+     * @param port Port to listen on, 0 picks any free port.
+     * @throws IOException If port could not be bound.
+     */
+    public ParameterServer(final float[] parameters, final int maxStaleness, final int port) throws IOException {
+        this.parameters = parameters.clone();
+        this.maxStaleness = maxStaleness;
+        this.serverSocket = new ServerSocket(port, 50, InetAddress.getLoopbackAddress());
+
+        final Thread acceptor = new Thread(this::accept, "parameter-server");
+        acceptor.setDaemon(true);
+        acceptor.start();
+
+        LOG.info("Parameter server with '{}' parameters listening on port '{}'", parameters.length, getPort());
+    }
+    // endregion
+
+    // region Implementation
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Copies current parameters.
+     *
+     * @param destination Array of the same length as parameters.
+     * @return Returns version of the copied parameters.
+     */
+    public synchronized long getParameters(final float[] destination) {
+        System.arraycopy(parameters, 0, destination, 0, parameters.length);
+        return version;
+    }
+
+    public synchronized long getVersion() {
+        return version;
+    }
+
+    public long getRejectedCount() {
+        return rejectedCount.get();
+    }
+
+    /**
+     * Logs pulls and pushes per second since the last call, together with staleness of pushed deltas.
+     */
+    public void logStatistics() {
+        final long now = System.nanoTime();
+        final double seconds = (now - lastLogNanos) / 1e9;
+        final long pulls = pullCount.get();
+        final long pushes = pushCount.get();
+        final long megabytes = (pulls - lastPullCount + pushes - lastPushCount) * parameters.length * Float.BYTES;
+
+        LOG.info("Version '{}': '{}' pulls/s, '{}' pushes/s, '{}' MB/s, '{}' rejected, staleness mean '{}' max '{}'",
+                getVersion(),
+                String.format(Locale.ROOT, "%.1f", (pulls - lastPullCount) / seconds),
+                String.format(Locale.ROOT, "%.1f", (pushes - lastPushCount) / seconds),
+                String.format(Locale.ROOT, "%.1f", megabytes / seconds / 1e6),
+                rejectedCount.get(),
+                String.format(Locale.ROOT, "%.2f", pushes == 0 ? 0 : (double) stalenessSum.get() / pushes),
+                maxObservedStaleness.get()
+        );
+
+        lastLogNanos = now;
+        lastPullCount = pulls;
+        lastPushCount = pushes;
+    }
+
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+    }
+    // endregion
+
+    // region Helper
+    private void accept() {
+        while (!serverSocket.isClosed()) {
+            try {
+                final Socket socket = serverSocket.accept();
+                socket.setTcpNoDelay(true);
+
+                final Thread connection = new Thread(() -> serve(socket), "parameter-worker-" + socket.getPort());
+                connection.setDaemon(true);
+                connection.start();
+            } catch (final SocketException e) {
+                // Server socket was closed
+                return;
+            } catch (final IOException e) {
+                LOG.error("Failed to accept worker: '{}'", e.getMessage(), e);
+            }
+        }
+    }
+
+    private void serve(final Socket socket) {
+        try (final Socket closeable = socket;
+             final DataInputStream in = new DataInputStream(new BufferedInputStream(closeable.getInputStream()));
+             final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(closeable.getOutputStream()))) {
+
+            if (in.readInt() != ParameterProtocol.MAGIC) {
+                LOG.error("Unknown client connected from port '{}'", socket.getPort());
+                return;
+            }
+            final int clientParameterCount = in.readInt();
+            out.writeInt(parameters.length);
+            out.flush();
+            if (clientParameterCount != parameters.length) {
+                LOG.error("Worker has '{}' parameters instead of '{}'", clientParameterCount, parameters.length);
+                return;
+            }
+
+            final float[] values = new float[parameters.length];
+            final byte[] buffer = new byte[parameters.length * Float.BYTES];
+            while (true) {
+                final byte request = in.readByte();
+
+                if (request == ParameterProtocol.PULL) {
+                    out.writeLong(getParameters(values));
+                    ParameterProtocol.writeFloats(out, values, buffer);
+                    pullCount.incrementAndGet();
+                } else if (request == ParameterProtocol.PUSH) {
+                    final long baseVersion = in.readLong();
+                    ParameterProtocol.readFloats(in, values, buffer);
+                    out.writeBoolean(apply(baseVersion, values));
+                } else {
+                    LOG.error("Unknown request '{}' from worker", request);
+                    return;
+                }
+                out.flush();
+            }
+        } catch (final EOFException e) {
+            // Worker disconnected
+        } catch (final IOException e) {
+            LOG.error("Worker connection failed: '{}'", e.getMessage(), e);
+        }
+    }
+
+    private boolean apply(final long baseVersion, final float[] delta) {
+        final long staleness;
+        synchronized (this) {
+            staleness = version - baseVersion;
+            if (staleness > maxStaleness) {
+                rejectedCount.incrementAndGet();
+                return false;
+            }
+
+            for (int i = 0; i < parameters.length; i++) {
+                parameters[i] += delta[i];
+            }
+            version++;
+        }
+
+        pushCount.incrementAndGet();
+        stalenessSum.addAndGet(staleness);
+        maxObservedStaleness.accumulateAndGet(staleness, Math::max);
+        return true;
+    }
+    // endregion
+}
@@ -0,0 +1,217 @@
+package com.liliumbosniacum.snakedl4j.network.evolution;
+
+import com.liliumbosniacum.snakedl4j.network.inference.DenseNetwork;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+/**
+ * Trains parameters of a fully connected network with evolution strategies instead of gradients.
+ * https://arxiv.org/abs/1703.03864
+ * Every generation the parameters are perturbed with Gaussian noise in both directions (antithetic pairs), every
+ * perturbation is evaluated on headless games and parameters are moved along the noise weighted by the rank of the
+ * achieved score. Evaluations are spread over worker threads, each holding its own copy of the parameters, and only
+ * seeds of the noise and scores are shared between them. Every worker regenerates the noise from the seeds and
+ * applies the same update, so that the copies never diverge.
+ *
+ * @author mirza
+ */
+public final class EvolutionStrategy implements Closeable {
+    // region Member
+    private final int pairCount;
+    private final float sigma;
+    private final double learningRate;
+
+    private final List<EvolutionWorker> workers;
+    private final ExecutorService executor;
+
+    private final long[] noiseSeeds;
+    private final double[] scores; // Score of the positive and the negative perturbation of every pair
+    private final float[] coefficients;
+    private final AtomicInteger nextPair = new AtomicInteger();
+
+    private double meanScore;
+    private double bestScore;
+    // endregion
+
+    // region Constructor
+    /**
+     * @param layerSizes Number of neurons of each layer, starting with the number of inputs.
+     * @param parameters Initial parameters in the layout of {@link DenseNetwork}, they are copied.
+     * @param pairCount Number of antithetic pairs of perturbations evaluated in every generation.
+     * @param sigma Standard deviation of the noise.
+     * @param learningRate Step size of the update.
+     * @param gameCount Number of games every perturbation is evaluated on.
+     * @param maxMoves Largest number of moves of a game.
+     * @param threadCount Number of worker threads.
+     */
+    public EvolutionStrategy(final int[] layerSizes,
+                             final float[] parameters,
+                             final int pairCount,
+                             final double sigma,
+                             final double learningRate,
+                             final int gameCount,
+                             final int maxMoves,
+                             final int threadCount) {
+        this.pairCount = pairCount;
+        this.sigma = (float) sigma;
+        this.learningRate = learningRate;
+
+        this.workers = new ArrayList<>(threadCount);
+        for (int i = 0; i < threadCount; i++) {
+            workers.add(new EvolutionWorker(layerSizes, parameters, gameCount, maxMoves));
+        }
+
+        final AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(threadCount, runnable -> {
+            final Thread thread = new Thread(runnable, "evolution-worker-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.noiseSeeds = new long[pairCount];
+        this.scores = new double[2 * pairCount];
+        this.coefficients = new float[pairCount];
+    }
+    // endregion
+
+    // region Implementation
+    /**
+     * Evaluates one generation of perturbations and updates the parameters.
+     *
+     * @param random Random number generator from which seeds of the noise and of the games are drawn.
+     * @throws InterruptedException If the thread is interrupted while waiting for the workers.
+     */
+    public void runGeneration(final SplittableRandom random) throws InterruptedException {
+        for (int k = 0; k < pairCount; k++) {
+            noiseSeeds[k] = random.nextLong();
+        }
+        // All perturbations are evaluated on the same games, so that they differ only by their parameters
+        final long gameSeed = random.nextLong();
+
+        // Workers take pairs until there are none left, so a slow evaluation does not hold up the others
+        nextPair.set(0);
+        runOnAllWorkers(worker -> {
+            for (int k = nextPair.getAndIncrement(); k < pairCount; k = nextPair.getAndIncrement()) {
+                scores[2 * k] = worker.evaluate(noiseSeeds[k], sigma, gameSeed);
+                scores[2 * k + 1] = worker.evaluate(noiseSeeds[k], -sigma, gameSeed);
+            }
+        });
+
+        meanScore = Arrays.stream(scores).average().orElse(0);
+        bestScore = Arrays.stream(scores).max().orElse(0);
+
+        // Ranks instead of scores, so that a single lucky game does not dominate the update
+        final float[] ranks = getCenteredRanks(scores);
+        final double scale = learningRate / (2 * pairCount * sigma);
+        for (int k = 0; k < pairCount; k++) {
+            coefficients[k] = (float) (scale * (ranks[2 * k] - ranks[2 * k + 1]));
+        }
+
+        runOnAllWorkers(worker -> worker.update(noiseSeeds, coefficients));
+    }
+
+    /**
+     * Get parameters after the last generation.
+     *
+     * @return Returns copy of the parameters.
+     */
+    public float[] getParameters() {
+        return workers.get(0).getParameters().clone();
+    }
+
+    /**
+     * Get mean score of all perturbations of the last generation.
+     *
+     * @return Returns mean score per game.
+     */
+    public double getMeanScore() {
+        return meanScore;
+    }
+
+    /**
+     * Get score of the best perturbation of the last generation.
+     *
+     * @return Returns mean score per game of the best perturbation.
+     */
+    public double getBestScore() {
+        return bestScore;
+    }
+
+    /**
+     * Get length of the longest snake in any evaluated game so far.
+     *
+     * @return Returns length of the longest snake.
+     */
+    public int getLongestSnake() {
+        return workers.stream().mapToInt(EvolutionWorker::getLongestSnake).max().orElse(0);
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+    // endregion
+
+    // region Helper
+    private void runOnAllWorkers(final WorkerTask task) throws InterruptedException {
+        final List<Callable<Void>> jobs = new ArrayList<>(workers.size());
+        for (final EvolutionWorker worker : workers) {
+            jobs.add(() -> {
+                task.run(worker);
+                return null;
+            });
+        }
+
+        for (final Future<Void> result : executor.invokeAll(jobs)) {
+            try {
+                result.get();
+            } catch (final ExecutionException e) {
+                throw new IllegalStateException("Evolution worker failed: " + e.getCause().getMessage(), e.getCause());
+            }
+        }
+    }
+
+    /*
+    Ranks scaled to [-0.5, 0.5]. Equal scores get the mean of their ranks, otherwise both perturbations of a pair with
+    equal scores (e.g. both died right away) would move the parameters.
+     */
+    static float[] getCenteredRanks(final double[] values) {
+        final Integer[] order = IntStream.range(0, values.length).boxed().toArray(Integer[]::new);
+        Arrays.sort(order, Comparator.comparingDouble(i -> values[i]));
+
+        final float[] ranks = new float[values.length];
+        final float maxRank = Math.max(order.length - 1, 1);
+        for (int first = 0; first < order.length; ) {
+            int last = first;
+            while (last + 1 < order.length && values[order[last + 1]] == values[order[first]]) {
+                last++;
+            }
+
+            final float rank = (first + last) / 2f / maxRank - 0.5f;
+            for (int i = first; i <= last; i++) {
+                ranks[order[i]] = rank;
+            }
+            first = last + 1;
+        }
+
+        return ranks;
+    }
+
+    @FunctionalInterface
+    private interface WorkerTask {
+        void run(EvolutionWorker worker);
+    }
+    // endregion
+}
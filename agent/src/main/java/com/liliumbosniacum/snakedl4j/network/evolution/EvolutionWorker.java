@@ -0,0 +1,164 @@
+package com.liliumbosniacum.snakedl4j.network.evolution;
+
+import com.liliumbosniacum.snakedl4j.game.BulkSimulator;
+import com.liliumbosniacum.snakedl4j.game.helper.Direction;
+import com.liliumbosniacum.snakedl4j.network.inference.DenseNetwork;
+import com.liliumbosniacum.snakedl4j.network.util.GameStateHelper;
+
+import java.util.SplittableRandom;
+
+/**
+ * Evaluates perturbed parameters on its own games. Every worker keeps its own copy of the parameters and applies
+ * the same updates as all other workers, so that only seeds and fitness values have to be shared between them.
+ * Instances are not thread safe, every worker is used by one thread at a time.
+ *
+ * @author mirza
+ */
+final class EvolutionWorker {
+    // region Member
+    private static final int START_DIRECTION = Direction.RIGHT.ordinal();
+
+    private final float[] parameters;
+    private final float[] candidate;
+    private final float[] noise;
+    private final DenseNetwork network;
+
+    private final BulkSimulator simulator;
+    private final int[] actions;
+    private final boolean[] active;
+    private final int maxMoves;
+
+    private int longestSnake;
+    // endregion
+
+    // region Constructor
+    /**
+     * @param layerSizes Number of neurons of each layer, starting with the number of inputs.
+     * @param parameters Initial parameters, they are copied.
+     * @param gameCount Number of games every candidate is evaluated on.
+     * @param maxMoves Largest number of moves of a game, so that a snake running in circles ends at some point.
+     */
+    EvolutionWorker(final int[] layerSizes, final float[] parameters, final int gameCount, final int maxMoves) {
+        this.parameters = parameters.clone();
+        this.candidate = new float[parameters.length];
+        this.noise = new float[parameters.length];
+        this.network = new DenseNetwork(layerSizes, candidate);
+
+        // Games are reset with the seeds of each generation, so the seed of the simulator itself is not used
+        this.simulator = new BulkSimulator(
+                gameCount,
+                GameStateHelper.getViewDistance(layerSizes[0]),
+                new SplittableRandom(0)
+        );
+        this.actions = new int[gameCount];
+        this.active = new boolean[gameCount];
+        this.maxMoves = maxMoves;
+    }
+    // endregion
+
+    // region Implementation
+    /**
+     * Evaluates parameters moved along the noise generated from the seed.
+     *
+     * @param noiseSeed Seed of the noise.
+     * @param scale Standard deviation of the noise, negative to move in the opposite direction.
+     * @param gameSeed Seed from which seeds of all games are drawn, same for all candidates of a generation.
+     * @return Returns mean score of all games, calculated with the same rewards as used by the DQN training.
+     */
+    double evaluate(final long noiseSeed, final float scale, final long gameSeed) {
+        fillNoise(noiseSeed, noise);
+        for (int i = 0; i < parameters.length; i++) {
+            candidate[i] = parameters[i] + scale * noise[i];
+        }
+
+        final int gameCount = simulator.getGameCount();
+        final SplittableRandom gameSeeds = new SplittableRandom(gameSeed);
+        for (int game = 0; game < gameCount; game++) {
+            // Every evaluation starts facing the same way, so that the score depends only on the parameters and seeds
+            simulator.reset(game, gameSeeds.nextLong(), START_DIRECTION);
+        }
+
+        final int[] stateBits = simulator.getStateBits();
+        final int[] actionMasks = simulator.getActionMasks();
+        final double[] rewards = simulator.getRewards();
+
+        double score = 0;
+        int activeCount = gameCount;
+        for (int move = 0; move < maxMoves && activeCount > 0; move++) {
+            activeCount = 0;
+            for (int game = 0; game < gameCount; game++) {
+                active[game] = simulator.isOngoing(game);
+                if (active[game]) {
+                    actions[game] = network.getActionIndex(stateBits[game], actionMasks[game]);
+                    activeCount++;
+                }
+            }
+
+            simulator.step(actions);
+
+            // Finished games are not stepped, so their rewards are left over from their last move
+            for (int game = 0; game < gameCount; game++) {
+                if (active[game]) {
+                    score += rewards[game];
+                }
+            }
+        }
+
+        for (int game = 0; game < gameCount; game++) {
+            longestSnake = Math.max(longestSnake, simulator.getSnakeLength(game));
+        }
+
+        return score / gameCount;
+    }
+
+    /**
+     * Moves parameters along the noise of every seed.
+     *
+     * @param noiseSeeds Seeds of the noise.
+     * @param coefficients Step along the noise of every seed.
+     */
+    void update(final long[] noiseSeeds, final float[] coefficients) {
+        for (int k = 0; k < noiseSeeds.length; k++) {
+            fillNoise(noiseSeeds[k], noise);
+
+            final float coefficient = coefficients[k];
+            for (int i = 0; i < parameters.length; i++) {
+                parameters[i] += coefficient * noise[i];
+            }
+        }
+    }
+
+    float[] getParameters() {
+        return parameters;
+    }
+
+    /**
+     * Get length of the longest snake in any game evaluated by this worker.
+     *
+     * @return Returns length of the longest snake.
+     */
+    int getLongestSnake() {
+        return longestSnake;
+    }
+    // endregion
+
+    // region Helper
+    /*
+    Standard normal noise generated with the Box-Muller transform. StrictMath is used, since results of Math may differ
+    between interpreted and compiled code, and every worker must get exactly the same noise from the same seed.
+     */
+    static void fillNoise(final long seed, final float[] noise) {
+        final SplittableRandom random = new SplittableRandom(seed);
+
+        for (int i = 0; i < noise.length; i += 2) {
+            final double radius = StrictMath.sqrt(-2 * StrictMath.log(1 - random.nextDouble()));
+            final double angle = 2 * Math.PI * random.nextDouble();
+
+            noise[i] = (float) (radius * StrictMath.cos(angle));
+            if (i + 1 < noise.length) {
+                noise[i + 1] = (float) (radius * StrictMath.sin(angle));
+            }
+        }
+    }
+    // endregion
+}
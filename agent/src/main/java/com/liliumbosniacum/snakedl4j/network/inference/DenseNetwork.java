@@ -0,0 +1,251 @@
+package com.liliumbosniacum.snakedl4j.network.inference;
+
+import org.deeplearning4j.nn.multilayer.MultiLayerNetwork;
+import org.nd4j.linalg.factory.Nd4j;
+
+/**
+ * Plain java implementation of a fully connected network with ReLU hidden layers and an identity output layer, which
+ * is what {@code NetworkUtil} builds. All parameters are kept in one float array, for every layer weights (row by row,
+ * one row per input) are followed by biases. Inputs are binary, so the first layer only sums up rows of inputs which
+ * are set instead of multiplying.
+ * Instances are not thread safe, as they reuse buffers between calls.
+ *
+ * @author mirza
+ */
+public final class DenseNetwork implements Policy {
+    // region Member
+    private final int[] layerSizes;
+    private final float[] parameters;
+    private final int[] weightOffsets;
+
+    private final float[] activations;
+    private final float[] nextActivations;
+    private final float[] singleScores;
+    // endregion
+
+    // region Constructor
+    /**
+     * @param layerSizes Number of neurons of each layer, starting with the number of inputs.
+     * @param parameters Parameters of all layers, they are used as they are and not copied.
+     */
+    public DenseNetwork(final int[] layerSizes, final float[] parameters) {
+        if (parameters.length != getParameterCount(layerSizes)) {
+            throw new IllegalArgumentException("Expected " + getParameterCount(layerSizes)
+                    + " parameters but got " + parameters.length);
+        }
+
+        this.layerSizes = layerSizes.clone();
+        this.parameters = parameters;
+        this.weightOffsets = new int[layerSizes.length - 1];
+
+        int offset = 0;
+        int maxLayerSize = 0;
+        for (int layer = 0; layer < weightOffsets.length; layer++) {
+            weightOffsets[layer] = offset;
+            offset += (layerSizes[layer] + 1) * layerSizes[layer + 1];
+            maxLayerSize = Math.max(maxLayerSize, layerSizes[layer + 1]);
+        }
+
+        this.activations = new float[maxLayerSize];
+        this.nextActivations = new float[maxLayerSize];
+        this.singleScores = new float[getActionCount()];
+    }
+    // endregion
+
+    // region Implementation
+    /**
+     * Copies parameters of a trained network.
+     *
+     * @param network Network built by {@code NetworkUtil}, in full precision.
+     * @return Returns network with the same parameters.
+     */
+    public static DenseNetwork fromNetwork(final MultiLayerNetwork network) {
+        final int layerCount = network.getLayers().length;
+
+        final int[] layerSizes = new int[layerCount + 1];
+        final float[][][] weights = new float[layerCount][][];
+        final float[][] biases = new float[layerCount][];
+        for (int layer = 0; layer < layerCount; layer++) {
+            weights[layer] = network.getParam(layer + "_W").toFloatMatrix(); // nIn x nOut
+            biases[layer] = network.getParam(layer + "_b").toFloatVector();
+            layerSizes[layer] = weights[layer].length;
+            layerSizes[layer + 1] = biases[layer].length;
+        }
+
+        final float[] parameters = new float[getParameterCount(layerSizes)];
+        int offset = 0;
+        for (int layer = 0; layer < layerCount; layer++) {
+            for (final float[] row : weights[layer]) {
+                System.arraycopy(row, 0, parameters, offset, row.length);
+                offset += row.length;
+            }
+
+            System.arraycopy(biases[layer], 0, parameters, offset, biases[layer].length);
+            offset += biases[layer].length;
+        }
+
+        return new DenseNetwork(layerSizes, parameters);
+    }
+
+    /**
+     * Copies parameters into a network built by {@code NetworkUtil}, inverse of {@link #fromNetwork}.
+     *
+     * @param network Network with the same layer sizes.
+     */
+    public void copyTo(final MultiLayerNetwork network) {
+        for (int layer = 0; layer < weightOffsets.length; layer++) {
+            final int inputCount = layerSizes[layer];
+            final int outputCount = layerSizes[layer + 1];
+
+            final float[][] weights = new float[inputCount][outputCount];
+            for (int input = 0; input < inputCount; input++) {
+                final int rowOffset = weightOffsets[layer] + input * outputCount;
+                System.arraycopy(parameters, rowOffset, weights[input], 0, outputCount);
+            }
+            final float[] biases = new float[outputCount];
+            System.arraycopy(parameters, weightOffsets[layer] + inputCount * outputCount, biases, 0, outputCount);
+
+            network.getParam(layer + "_W").assign(Nd4j.create(weights));
+            network.getParam(layer + "_b").assign(Nd4j.create(biases, new int[]{1, outputCount}));
+        }
+    }
+
+    /**
+     * Get number of parameters of a network with the given layer sizes.
+     *
+     * @param layerSizes Number of neurons of each layer, starting with the number of inputs.
+     * @return Returns number of weights and biases of all layers.
+     */
+    public static int getParameterCount(final int[] layerSizes) {
+        int count = 0;
+        for (int layer = 0; layer < layerSizes.length - 1; layer++) {
+            count += (layerSizes[layer] + 1) * layerSizes[layer + 1];
+        }
+
+        return count;
+    }
+
+    /**
+     * Get layer sizes.
+     *
+     * @return Returns number of neurons of each layer, starting with the number of inputs.
+     */
+    public int[] getLayerSizes() {
+        return layerSizes.clone();
+    }
+
+    /**
+     * Get parameters. Returned array is the one used by the network, so changes to it change the network.
+     *
+     * @return Returns parameters of all layers.
+     */
+    public float[] getParameters() {
+        return parameters;
+    }
+
+    /**
+     * Get weight of a connection.
+     *
+     * @param layer Index of the layer.
+     * @param input Index of the input neuron.
+     * @param output Index of the output neuron.
+     * @return Returns weight of the connection.
+     */
+    public float getWeight(final int layer, final int input, final int output) {
+        return parameters[weightOffsets[layer] + input * layerSizes[layer + 1] + output];
+    }
+
+    /**
+     * Get bias of a neuron.
+     *
+     * @param layer Index of the layer.
+     * @param output Index of the neuron within the layer.
+     * @return Returns bias of the neuron.
+     */
+    public float getBias(final int layer, final int output) {
+        return parameters[weightOffsets[layer] + layerSizes[layer] * layerSizes[layer + 1] + output];
+    }
+
+    /**
+     * Calculates scores of all actions for a single state.
+     *
+     * @param stateBits State packed into bits, bit i is input i.
+     * @param scores Array into which scores are written.
+     * @param offset Index at which the first score is written.
+     */
+    public void output(final int stateBits, final float[] scores, final int offset) {
+        final int lastLayer = weightOffsets.length - 1;
+
+        // First layer, inputs are either 0 or 1 so only rows of set inputs are added to the biases
+        int outputCount = layerSizes[1];
+        final int firstBiasOffset = layerSizes[0] * outputCount;
+        System.arraycopy(parameters, firstBiasOffset, activations, 0, outputCount);
+        for (int bits = stateBits; bits != 0; bits &= bits - 1) {
+            final int rowOffset = Integer.numberOfTrailingZeros(bits) * outputCount;
+            for (int output = 0; output < outputCount; output++) {
+                activations[output] += parameters[rowOffset + output];
+            }
+        }
+        if (lastLayer > 0) {
+            relu(activations, outputCount);
+        }
+
+        float[] input = activations;
+        float[] output = nextActivations;
+        for (int layer = 1; layer <= lastLayer; layer++) {
+            final int inputCount = layerSizes[layer];
+            outputCount = layerSizes[layer + 1];
+            final int weightOffset = weightOffsets[layer];
+
+            System.arraycopy(parameters, weightOffset + inputCount * outputCount, output, 0, outputCount);
+            for (int i = 0; i < inputCount; i++) {
+                final float value = input[i];
+                if (value == 0) {
+                    continue; // Quite common after ReLU
+                }
+
+                final int rowOffset = weightOffset + i * outputCount;
+                for (int o = 0; o < outputCount; o++) {
+                    output[o] += value * parameters[rowOffset + o];
+                }
+            }
+            if (layer < lastLayer) {
+                relu(output, outputCount);
+            }
+
+            final float[] swap = input;
+            input = output;
+            output = swap;
+        }
+
+        System.arraycopy(input, 0, scores, offset, outputCount);
+    }
+
+    @Override
+    public int getActionCount() {
+        return layerSizes[layerSizes.length - 1];
+    }
+
+    @Override
+    public void getScores(final int[] stateBits, final int count, final float[] scores) {
+        final int actionCount = getActionCount();
+        for (int i = 0; i < count; i++) {
+            output(stateBits[i], scores, i * actionCount);
+        }
+    }
+
+    @Override
+    public int getActionIndex(final int stateBits, final int actionMask) {
+        output(stateBits, singleScores, 0);
+        return Policy.getMaxScoreIndex(singleScores, 0, singleScores.length, actionMask);
+    }
+    // endregion
+
+    // region Helper
+    private static void relu(final float[] values, final int count) {
+        for (int i = 0; i < count; i++) {
+            values[i] = Math.max(values[i], 0);
+        }
+    }
+    // endregion
+}
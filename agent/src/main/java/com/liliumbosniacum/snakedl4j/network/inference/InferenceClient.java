@@ -0,0 +1,59 @@
+package com.liliumbosniacum.snakedl4j.network.inference;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.Socket;
+
+/**
+ * Client of the {@link InferenceServer}, used by games running in a different JVM than the model. Not thread-safe,
+ * every game thread opens its own client.
+ *
+ * @author mirza
+ */
+public final class InferenceClient implements Closeable {
+    // region Member
+    private final Socket socket;
+    private final DataInputStream in;
+    private final DataOutputStream out;
+    // endregion
+
+    // region Constructor
+    public InferenceClient(final int port) throws IOException {
+        this.socket = new Socket(InetAddress.getLoopbackAddress(), port);
+        this.socket.setTcpNoDelay(true);
+        this.in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+        this.out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+    }
+    // endregion
+
+    // region Implementation
+    /**
+     * Get action which the model picks for the given state.
+     *
+     * @param stateBits State packed into bits, bit i is input i.
+     * @return Returns index of the best action.
+     * @throws IOException If connection failed or the server could not score the state.
+     */
+    public int getActionIndex(final int stateBits) throws IOException {
+        out.writeInt(stateBits);
+        out.flush();
+
+        final int actionIndex = in.readInt();
+        if (actionIndex < 0) {
+            throw new IOException("Server failed to score state '" + stateBits + "'");
+        }
+
+        return actionIndex;
+    }
+
+    @Override
+    public void close() throws IOException {
+        socket.close();
+    }
+    // endregion
+}
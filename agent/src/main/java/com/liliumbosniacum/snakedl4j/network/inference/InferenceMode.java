@@ -0,0 +1,50 @@
+package com.liliumbosniacum.snakedl4j.network.inference;
+
+import org.deeplearning4j.nn.multilayer.MultiLayerNetwork;
+import org.nd4j.linalg.api.buffer.DataType;
+
+/**
+ * Precision in which a trained network is run.
+ *
+ * @author mirza
+ */
+public enum InferenceMode {
+    /**
+     * Network is run as it is, in full precision.
+     */
+    FP32,
+    /**
+     * Network is converted to half precision and run by ND4J.
+     */
+    FP16,
+    /**
+     * Network is quantized to int8 and run in plain java.
+     */
+    INT8;
+
+    /**
+     * Creates policy which runs the network in this mode.
+     *
+     * @param network Trained full precision network.
+     * @param actionCount Number of actions scored by the network.
+     * @return Returns created policy.
+     */
+    public Policy createPolicy(final MultiLayerNetwork network, final int actionCount) {
+        switch (this) {
+            case FP16:
+                return new NetworkPolicy(network.convertDataType(DataType.HALF), actionCount);
+            case INT8:
+                return QuantizedNetwork.quantize(DenseNetwork.fromNetwork(network));
+            default:
+                return new NetworkPolicy(network, actionCount);
+        }
+    }
+
+    public static InferenceMode create(final String mode) {
+        try {
+            return InferenceMode.valueOf(mode);
+        } catch (final Exception e) {
+            return InferenceMode.FP32;
+        }
+    }
+}
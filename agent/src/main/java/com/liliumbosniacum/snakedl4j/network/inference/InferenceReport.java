@@ -0,0 +1,133 @@
+package com.liliumbosniacum.snakedl4j.network.inference;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares a policy with a reference policy on every possible state. Reports how often both pick the same action,
+ * how far apart their scores are and how long each of them needed.
+ *
+ * @author mirza
+ */
+public final class InferenceReport {
+    // region Member
+    private static final Logger LOG = LoggerFactory.getLogger(InferenceReport.class);
+    private static final int BATCH_SIZE = 4_096;
+
+    private final long stateCount;
+    private final long agreementCount;
+    private final double maxScoreError;
+    private final long referenceNanos;
+    private final long candidateNanos;
+    // endregion
+
+    // region Constructor
+    private InferenceReport(final long stateCount,
+                            final long agreementCount,
+                            final double maxScoreError,
+                            final long referenceNanos,
+                            final long candidateNanos) {
+        this.stateCount = stateCount;
+        this.agreementCount = agreementCount;
+        this.maxScoreError = maxScoreError;
+        this.referenceNanos = referenceNanos;
+        this.candidateNanos = candidateNanos;
+    }
+    // endregion
+
+    // region Implementation
+    /**
+     * Runs both policies on all 2^inputCount states.
+     *
+     * @param reference Policy which is considered correct, usually the full precision network.
+     * @param candidate Policy which is checked.
+     * @param inputCount Number of inputs, all combinations of them are checked.
+     * @return Returns report of the comparison.
+     */
+    public static InferenceReport compare(final Policy reference, final Policy candidate, final int inputCount) {
+        final long stateCount = 1L << inputCount;
+        final int actionCount = reference.getActionCount();
+
+        final int[] states = new int[BATCH_SIZE];
+        final float[] referenceScores = new float[BATCH_SIZE * actionCount];
+        final float[] candidateScores = new float[BATCH_SIZE * actionCount];
+
+        long agreementCount = 0;
+        double maxScoreError = 0;
+        long referenceNanos = 0;
+        long candidateNanos = 0;
+        for (long first = 0; first < stateCount; first += BATCH_SIZE) {
+            final int count = (int) Math.min(BATCH_SIZE, stateCount - first);
+            for (int i = 0; i < count; i++) {
+                states[i] = (int) (first + i);
+            }
+
+            final long start = System.nanoTime();
+            reference.getScores(states, count, referenceScores);
+            final long referenceEnd = System.nanoTime();
+            candidate.getScores(states, count, candidateScores);
+            referenceNanos += referenceEnd - start;
+            candidateNanos += System.nanoTime() - referenceEnd;
+
+            for (int i = 0; i < count; i++) {
+                final int offset = i * actionCount;
+                if (Policy.getMaxScoreIndex(referenceScores, offset, actionCount)
+                        == Policy.getMaxScoreIndex(candidateScores, offset, actionCount)) {
+                    agreementCount++;
+                }
+
+                for (int action = 0; action < actionCount; action++) {
+                    maxScoreError = Math.max(maxScoreError,
+                            Math.abs(referenceScores[offset + action] - candidateScores[offset + action]));
+                }
+            }
+        }
+
+        return new InferenceReport(stateCount, agreementCount, maxScoreError, referenceNanos, candidateNanos);
+    }
+
+    /**
+     * Logs the report.
+     *
+     * @param name Name of the checked policy.
+     */
+    public void log(final String name) {
+        LOG.info("{}: actions agree with full precision in '{}' of '{}' states ('{}'%), largest score error is '{}'",
+                name,
+                agreementCount,
+                stateCount,
+                String.format(Locale.ROOT, "%.3f", getAgreementRatio() * 100),
+                maxScoreError
+        );
+        LOG.info("{}: scored all states in '{}'ms, full precision needed '{}'ms",
+                name,
+                TimeUnit.NANOSECONDS.toMillis(candidateNanos),
+                TimeUnit.NANOSECONDS.toMillis(referenceNanos)
+        );
+    }
+
+    public long getStateCount() {
+        return stateCount;
+    }
+
+    public long getAgreementCount() {
+        return agreementCount;
+    }
+
+    /**
+     * Get ratio of states for which both policies pick the same action.
+     *
+     * @return Returns value between 0 and 1.
+     */
+    public double getAgreementRatio() {
+        return (double) agreementCount / stateCount;
+    }
+
+    public double getMaxScoreError() {
+        return maxScoreError;
+    }
+    // endregion
+}
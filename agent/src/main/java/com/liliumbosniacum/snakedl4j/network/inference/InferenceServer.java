@@ -0,0 +1,116 @@
+package com.liliumbosniacum.snakedl4j.network.inference;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Loopback socket front-end of the inference service, so that games running in other JVMs on the same machine can
+ * share one model. Every request is the state bits as a single int, answered with the action index as a single int
+ * ({@code -1} if the state could not be scored). Client may send several states before reading the answers, they are
+ * answered in the same order.
+ *
+ * @author mirza
+ */
+public final class InferenceServer implements Closeable {
+    // region Member
+    private static final Logger LOG = LoggerFactory.getLogger(InferenceServer.class);
+
+    private final InferenceService service;
+    private final ServerSocket serverSocket;
+    // endregion
+
+    // region Constructor
+    /**
+     * Binds the server to the loopback address and starts accepting connections.
+     *
+     * @param service Service which scores the received states.
+     * @param port Port to listen on, 0 picks any free port.
+     * @throws IOException If port could not be bound.
+     */
+    public InferenceServer(final InferenceService service, final int port) throws IOException {
+        this.service = service;
+        this.serverSocket = new ServerSocket(port, 50, InetAddress.getLoopbackAddress());
+
+        final Thread acceptor = new Thread(this::accept, "inference-server");
+        acceptor.setDaemon(true);
+        acceptor.start();
+
+        LOG.info("Inference server listening on port '{}'", getPort());
+    }
+    // endregion
+
+    // region Implementation
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+    }
+    // endregion
+
+    // region Helper
+    private void accept() {
+        while (!serverSocket.isClosed()) {
+            try {
+                final Socket socket = serverSocket.accept();
+                socket.setTcpNoDelay(true);
+
+                final Thread connection = new Thread(() -> serve(socket), "inference-connection-" + socket.getPort());
+                connection.setDaemon(true);
+                connection.start();
+            } catch (final SocketException e) {
+                // Server socket was closed
+                return;
+            } catch (final IOException e) {
+                LOG.error("Failed to accept connection: '{}'", e.getMessage(), e);
+            }
+        }
+    }
+
+    private void serve(final Socket socket) {
+        try (final Socket closeable = socket;
+             final DataInputStream in = new DataInputStream(new BufferedInputStream(closeable.getInputStream()));
+             final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(closeable.getOutputStream()))) {
+
+            while (true) {
+                out.writeInt(getActionIndex(in.readInt()));
+
+                // Answers are sent together once the client stops sending states
+                if (in.available() == 0) {
+                    out.flush();
+                }
+            }
+        } catch (final EOFException e) {
+            // Client disconnected
+        } catch (final IOException e) {
+            LOG.error("Inference connection failed: '{}'", e.getMessage(), e);
+        }
+    }
+
+    private int getActionIndex(final int stateBits) throws IOException {
+        try {
+            return service.submit(stateBits).get();
+        } catch (final ExecutionException e) {
+            return -1;
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for inference", e);
+        }
+    }
+    // endregion
+}
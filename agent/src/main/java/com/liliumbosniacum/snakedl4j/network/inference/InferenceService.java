@@ -0,0 +1,291 @@
+package com.liliumbosniacum.snakedl4j.network.inference;
+
+import com.liliumbosniacum.snakedl4j.network.util.GameStateHelper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Runs a policy for many games at once. Games submit their states and get a future of the action, while a single
+ * worker thread collects waiting states into one batch and scores them with one call to the policy. Batch is run as
+ * soon as it is full or once its oldest state has waited for the maximum wait time, which trades a bit of latency for
+ * far fewer (and far cheaper per state) network calls. Games submit only state bits, which do not hold the body, so
+ * only moves into the neck or into a wall are excluded, see {@link GameStateHelper#getActionMask(int, int)}.
+ *
+ * @author mirza
+ */
+public final class InferenceService implements Closeable {
+    // region Member
+    private static final Logger LOG = LoggerFactory.getLogger(InferenceService.class);
+    private static final long IDLE_POLL_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final int LATENCY_BUCKET_COUNT = 64; // Bucket i counts latencies from 2^i up to 2^(i+1) nanoseconds
+
+    private final Policy policy;
+    private final int viewDistance;
+    private final int maxBatchSize;
+    private final long maxWaitNanos;
+    private final BlockingQueue<Request> requests;
+    private final Thread worker;
+    private volatile boolean running = true;
+
+    // Statistics, written by the worker only
+    private final AtomicLongArray batchSizeCounts;
+    private final AtomicLongArray queueLatencyCounts = new AtomicLongArray(LATENCY_BUCKET_COUNT);
+    private volatile long requestCount;
+    private volatile long batchCount;
+    private volatile long totalQueueNanos;
+    private volatile long maxQueueNanos;
+    // endregion
+
+    // region Constructor
+    /**
+     * @param policy Policy used to score states, it is only ever called from the worker thread.
+     * @param inputCount Number of inputs of the policy, needed to tell which actions are safe in a state.
+     * @param maxBatchSize Largest number of states scored at once.
+     * @param maxWaitNanos Longest time a state waits for other states to join its batch.
+     * @param queueCapacity Largest number of states waiting to be scored, further states are rejected.
+     */
+    public InferenceService(final Policy policy,
+                            final int inputCount,
+                            final int maxBatchSize,
+                            final long maxWaitNanos,
+                            final int queueCapacity) {
+        this.policy = policy;
+        this.viewDistance = GameStateHelper.getViewDistance(inputCount);
+        this.maxBatchSize = maxBatchSize;
+        this.maxWaitNanos = maxWaitNanos;
+        this.requests = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSizeCounts = new AtomicLongArray(maxBatchSize + 1);
+
+        this.worker = new Thread(this::run, "inference");
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+    // endregion
+
+    // region Implementation
+    /**
+     * Submits a state to be scored. Can be called from any thread.
+     *
+     * @param stateBits State packed into bits, bit i is input i.
+     * @return Returns future which is completed with the index of the best safe action.
+     */
+    public CompletableFuture<Integer> submit(final int stateBits) {
+        final Request request = new Request(stateBits, System.nanoTime());
+
+        if (!running) {
+            request.future.completeExceptionally(new RejectedExecutionException("Inference service is closed"));
+        } else if (!requests.offer(request)) {
+            request.future.completeExceptionally(new RejectedExecutionException("Inference queue is full"));
+        } else if (!running && requests.remove(request)) {
+            // Service was closed in the meantime and the worker may have already stopped, so nothing would score it
+            request.future.completeExceptionally(new RejectedExecutionException("Inference service is closed"));
+        }
+
+        return request.future;
+    }
+
+    /**
+     * Stops the worker once all submitted states are scored.
+     */
+    @Override
+    public void close() {
+        running = false;
+
+        try {
+            worker.join();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        rejectRemaining();
+    }
+
+    /**
+     * Logs distribution of batch sizes and how long states waited before they were scored.
+     */
+    public void logStatistics() {
+        final long requests = requestCount;
+        final long batches = batchCount;
+        if (batches == 0) {
+            LOG.info("No states were scored yet");
+            return;
+        }
+
+        final StringBuilder histogram = new StringBuilder();
+        for (int size = 1; size <= maxBatchSize; size++) {
+            final long count = batchSizeCounts.get(size);
+            if (count > 0) {
+                histogram.append(histogram.length() > 0 ? ", " : "").append(size).append('x').append(count);
+            }
+        }
+
+        LOG.info("Scored '{}' states in '{}' batches, mean batch size '{}', batch sizes (size x count): {}",
+                requests,
+                batches,
+                String.format(Locale.ROOT, "%.1f", (double) requests / batches),
+                histogram
+        );
+        LOG.info("Queueing latency: mean '{}'us, p50 below '{}'us, p99 below '{}'us, max '{}'us",
+                TimeUnit.NANOSECONDS.toMicros(totalQueueNanos / requests),
+                TimeUnit.NANOSECONDS.toMicros(getQueueLatencyPercentile(0.5)),
+                TimeUnit.NANOSECONDS.toMicros(getQueueLatencyPercentile(0.99)),
+                TimeUnit.NANOSECONDS.toMicros(maxQueueNanos)
+        );
+    }
+
+    public long getRequestCount() {
+        return requestCount;
+    }
+
+    public long getBatchCount() {
+        return batchCount;
+    }
+
+    /**
+     * Get number of batches of the given size.
+     *
+     * @param size Batch size.
+     * @return Returns how many batches of exactly this size were scored.
+     */
+    public long getBatchSizeCount(final int size) {
+        return batchSizeCounts.get(size);
+    }
+
+    /**
+     * Get upper bound of the given percentile of queueing latency, which is the time from submitting a state until
+     * its batch is run.
+     *
+     * @param percentile Percentile between 0 and 1.
+     * @return Returns latency in nanoseconds which was not exceeded by the given part of states.
+     */
+    public long getQueueLatencyPercentile(final double percentile) {
+        final long threshold = (long) Math.ceil(requestCount * percentile);
+
+        long count = 0;
+        for (int bucket = 0; bucket < LATENCY_BUCKET_COUNT; bucket++) {
+            count += queueLatencyCounts.get(bucket);
+            if (count >= threshold) {
+                return bucket >= 62 ? Long.MAX_VALUE : 1L << (bucket + 1);
+            }
+        }
+
+        return maxQueueNanos;
+    }
+    // endregion
+
+    // region Helper
+    private void run() {
+        final Request[] batch = new Request[maxBatchSize];
+        final int[] states = new int[maxBatchSize];
+        final float[] scores = new float[maxBatchSize * policy.getActionCount()];
+
+        try {
+            while (running || !requests.isEmpty()) {
+                final Request first = requests.poll(IDLE_POLL_NANOS, TimeUnit.NANOSECONDS);
+                if (first == null) {
+                    continue;
+                }
+
+                final int size = fillBatch(batch, first);
+                score(batch, size, states, scores);
+                Arrays.fill(batch, 0, size, null);
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        rejectRemaining();
+    }
+
+    // Nothing is going to score whatever is left
+    private void rejectRemaining() {
+        for (Request request = requests.poll(); request != null; request = requests.poll()) {
+            request.future.completeExceptionally(new RejectedExecutionException("Inference service is closed"));
+        }
+    }
+
+    // Collects states until the batch is full or the first state has waited long enough
+    private int fillBatch(final Request[] batch, final Request first) throws InterruptedException {
+        final long deadline = first.submitNanos + maxWaitNanos;
+        batch[0] = first;
+
+        int size = 1;
+        while (size < maxBatchSize) {
+            Request next = requests.poll();
+            if (next == null) {
+                final long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    break;
+                }
+
+                next = requests.poll(remaining, TimeUnit.NANOSECONDS);
+                if (next == null) {
+                    break;
+                }
+            }
+
+            batch[size++] = next;
+        }
+
+        return size;
+    }
+
+    private void score(final Request[] batch, final int size, final int[] states, final float[] scores) {
+        final long start = System.nanoTime();
+        long queueNanos = 0;
+        for (int i = 0; i < size; i++) {
+            states[i] = batch[i].stateBits;
+
+            final long waited = Math.max(1, start - batch[i].submitNanos);
+            queueLatencyCounts.incrementAndGet(63 - Long.numberOfLeadingZeros(waited));
+            queueNanos += waited;
+            maxQueueNanos = Math.max(maxQueueNanos, waited);
+        }
+
+        // Statistics are updated before any future completes, so that callers see their own states counted
+        batchSizeCounts.incrementAndGet(size);
+        totalQueueNanos += queueNanos;
+        requestCount += size;
+        batchCount++;
+
+        try {
+            policy.getScores(states, size, scores);
+
+            final int actionCount = policy.getActionCount();
+            for (int i = 0; i < size; i++) {
+                final int actionMask = GameStateHelper.getActionMask(states[i], viewDistance);
+                batch[i].future.complete(Policy.getMaxScoreIndex(scores, i * actionCount, actionCount, actionMask));
+            }
+        } catch (final RuntimeException e) {
+            LOG.error("Failed to score batch of '{}' states: '{}'", size, e.getMessage(), e);
+            for (int i = 0; i < size; i++) {
+                batch[i].future.completeExceptionally(e);
+            }
+        }
+
+    }
+    // endregion
+
+    // region Request
+    private static final class Request {
+        private final int stateBits;
+        private final long submitNanos;
+        private final CompletableFuture<Integer> future = new CompletableFuture<>();
+
+        private Request(final int stateBits, final long submitNanos) {
+            this.stateBits = stateBits;
+            this.submitNanos = submitNanos;
+        }
+    }
+    // endregion
+}
@@ -0,0 +1,53 @@
+package com.liliumbosniacum.snakedl4j.network.inference;
+
+import com.liliumbosniacum.snakedl4j.network.util.NetworkUtil;
+import org.deeplearning4j.nn.multilayer.MultiLayerNetwork;
+import org.nd4j.linalg.api.ndarray.INDArray;
+
+/**
+ * Policy backed by a DL4J network, in whichever data type the network is.
+ *
+ * @author mirza
+ */
+public final class NetworkPolicy implements Policy {
+    // region Member
+    private final MultiLayerNetwork network;
+    private final int actionCount;
+    private final int[] singleState = new int[1];
+    private final float[] singleScores;
+    // endregion
+
+    // region Constructor
+    public NetworkPolicy(final MultiLayerNetwork network, final int actionCount) {
+        this.network = network;
+        this.actionCount = actionCount;
+        this.singleScores = new float[actionCount];
+    }
+    // endregion
+
+    // region Implementation
+    @Override
+    public int getActionCount() {
+        return actionCount;
+    }
+
+    @Override
+    public void getScores(final int[] stateBits, final int count, final float[] scores) {
+        final INDArray output = NetworkUtil.getScores(network, stateBits, count);
+
+        for (int row = 0; row < count; row++) {
+            for (int column = 0; column < actionCount; column++) {
+                scores[row * actionCount + column] = output.getFloat(row, column);
+            }
+        }
+    }
+
+    @Override
+    public int getActionIndex(final int stateBits, final int actionMask) {
+        singleState[0] = stateBits;
+        getScores(singleState, 1, singleScores);
+
+        return Policy.getMaxScoreIndex(singleScores, 0, actionCount, actionMask);
+    }
+    // endregion
+}
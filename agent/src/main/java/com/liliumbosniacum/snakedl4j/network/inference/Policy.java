@@ -0,0 +1,91 @@
+package com.liliumbosniacum.snakedl4j.network.inference;
+
+import com.liliumbosniacum.snakedl4j.network.util.GameStateHelper;
+
+/**
+ * Interface representing anything that can score actions for a game state, so that the same evaluation can be run with
+ * the full precision network or with one of its cheaper approximations.
+ *
+ * @author mirza
+ */
+public interface Policy {
+    /**
+     * Get number of actions which are scored for every state.
+     *
+     * @return Returns number of scores per state.
+     */
+    int getActionCount();
+
+    /**
+     * Scores all actions for a batch of states.
+     *
+     * @param stateBits States packed into bits, bit i is input i.
+     * @param count Number of states to score.
+     * @param scores Array into which scores are written, state after state.
+     */
+    void getScores(int[] stateBits, int count, float[] scores);
+
+    /**
+     * Get index of the action with the highest score.
+     *
+     * @param stateBits State packed into bits, bit i is input i.
+     * @return Returns index of the best action.
+     */
+    default int getActionIndex(final int stateBits) {
+        return getActionIndex(stateBits, GameStateHelper.ALL_ACTIONS_MASK);
+    }
+
+    /**
+     * Get index of the action with the highest score among the allowed ones.
+     *
+     * @param stateBits State packed into bits, bit i is input i.
+     * @param actionMask Mask where bit i is set if action with index i is allowed, see
+     * {@link com.liliumbosniacum.snakedl4j.network.GameState#getActionMask()}.
+     * @return Returns index of the best allowed action.
+     */
+    int getActionIndex(int stateBits, int actionMask);
+
+    /**
+     * Get index of the highest score of one state. On equal scores the first one wins.
+     *
+     * @param scores Scores of many states.
+     * @param offset Index of the first score of the state.
+     * @param count Number of scores of a state.
+     * @return Returns index of the highest score, relative to the offset.
+     */
+    static int getMaxScoreIndex(final float[] scores, final int offset, final int count) {
+        int maxAt = 0;
+
+        for (int i = 1; i < count; i++) {
+            maxAt = scores[offset + i] > scores[offset + maxAt] ? i : maxAt;
+        }
+
+        return maxAt;
+    }
+
+    /**
+     * Get index of the highest score of one state among the allowed actions. When no action is allowed all of them
+     * are considered.
+     *
+     * @param scores Scores of many states.
+     * @param offset Index of the first score of the state.
+     * @param count Number of scores of a state.
+     * @param actionMask Mask where bit i is set if action with index i is allowed.
+     * @return Returns index of the highest allowed score, relative to the offset.
+     */
+    static int getMaxScoreIndex(final float[] scores, final int offset, final int count, final int actionMask) {
+        final int mask = actionMask & ((1 << count) - 1);
+        if (mask == 0) {
+            return getMaxScoreIndex(scores, offset, count);
+        }
+
+        int maxAt = Integer.numberOfTrailingZeros(mask);
+        for (int i = maxAt + 1; i < count; i++) {
+            if ((mask & (1 << i)) != 0 && scores[offset + i] > scores[offset + maxAt]) {
+                maxAt = i;
+            }
+        }
+
+        return maxAt;
+    }
+}
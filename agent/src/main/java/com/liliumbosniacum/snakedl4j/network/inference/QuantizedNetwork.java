@@ -0,0 +1,190 @@
+package com.liliumbosniacum.snakedl4j.network.inference;
+
+import java.util.Arrays;
+
+/**
+ * Int8 version of a {@link DenseNetwork}. Weights are quantized symmetrically with one scale per output neuron, while
+ * activations between layers are quantized with one scale per layer which is calculated for every state (ReLU outputs
+ * are never negative, so they are mapped onto 0 to 127). Products are accumulated in ints and turned back into floats
+ * only once per neuron, where the bias (kept as float) is added.
+ * Instances are not thread safe, as they reuse buffers between calls.
+ *
+ * @author mirza
+ */
+public final class QuantizedNetwork implements Policy {
+    // region Member
+    private static final int MAX_QUANTIZED = 127;
+
+    private final int[] layerSizes;
+    private final byte[][] weights; // Per layer, row by row with one row per input
+    private final float[][] weightScales; // Per layer, one scale per output neuron
+    private final float[][] biases;
+
+    private final int[] accumulators;
+    private final float[] activations;
+    private final byte[] quantizedActivations;
+    private final float[] singleScores;
+    // endregion
+
+    // region Constructor
+    private QuantizedNetwork(final int[] layerSizes,
+                             final byte[][] weights,
+                             final float[][] weightScales,
+                             final float[][] biases) {
+        this.layerSizes = layerSizes;
+        this.weights = weights;
+        this.weightScales = weightScales;
+        this.biases = biases;
+
+        int maxLayerSize = 0;
+        for (int layer = 1; layer < layerSizes.length; layer++) {
+            maxLayerSize = Math.max(maxLayerSize, layerSizes[layer]);
+        }
+        this.accumulators = new int[maxLayerSize];
+        this.activations = new float[maxLayerSize];
+        this.quantizedActivations = new byte[maxLayerSize];
+        this.singleScores = new float[getActionCount()];
+    }
+    // endregion
+
+    // region Implementation
+    /**
+     * Quantizes weights of the given network.
+     *
+     * @param network Full precision network.
+     * @return Returns int8 version of the network.
+     */
+    public static QuantizedNetwork quantize(final DenseNetwork network) {
+        final int[] layerSizes = network.getLayerSizes();
+        final int layerCount = layerSizes.length - 1;
+
+        final byte[][] weights = new byte[layerCount][];
+        final float[][] weightScales = new float[layerCount][];
+        final float[][] biases = new float[layerCount][];
+        for (int layer = 0; layer < layerCount; layer++) {
+            final int inputCount = layerSizes[layer];
+            final int outputCount = layerSizes[layer + 1];
+
+            weights[layer] = new byte[inputCount * outputCount];
+            weightScales[layer] = new float[outputCount];
+            biases[layer] = new float[outputCount];
+
+            for (int output = 0; output < outputCount; output++) {
+                float maxWeight = 0;
+                for (int input = 0; input < inputCount; input++) {
+                    maxWeight = Math.max(maxWeight, Math.abs(network.getWeight(layer, input, output)));
+                }
+
+                final float scale = maxWeight == 0 ? 1 : maxWeight / MAX_QUANTIZED;
+                for (int input = 0; input < inputCount; input++) {
+                    weights[layer][input * outputCount + output] =
+                            (byte) Math.round(network.getWeight(layer, input, output) / scale);
+                }
+
+                weightScales[layer][output] = scale;
+                biases[layer][output] = network.getBias(layer, output);
+            }
+        }
+
+        return new QuantizedNetwork(layerSizes, weights, weightScales, biases);
+    }
+
+    /**
+     * Calculates scores of all actions for a single state.
+     *
+     * @param stateBits State packed into bits, bit i is input i.
+     * @param scores Array into which scores are written.
+     * @param offset Index at which the first score is written.
+     */
+    public void output(final int stateBits, final float[] scores, final int offset) {
+        final int lastLayer = weights.length - 1;
+
+        // First layer, inputs are either 0 or 1 so quantized weights of set inputs are simply added up
+        int outputCount = layerSizes[1];
+        Arrays.fill(accumulators, 0, outputCount, 0);
+        for (int bits = stateBits; bits != 0; bits &= bits - 1) {
+            final int rowOffset = Integer.numberOfTrailingZeros(bits) * outputCount;
+            for (int output = 0; output < outputCount; output++) {
+                accumulators[output] += weights[0][rowOffset + output];
+            }
+        }
+        dequantize(0, outputCount, 1, lastLayer > 0);
+
+        for (int layer = 1; layer <= lastLayer; layer++) {
+            final int inputCount = layerSizes[layer];
+            outputCount = layerSizes[layer + 1];
+
+            final float activationScale = quantizeActivations(inputCount);
+            final byte[] layerWeights = weights[layer];
+
+            Arrays.fill(accumulators, 0, outputCount, 0);
+            for (int input = 0; input < inputCount; input++) {
+                final int value = quantizedActivations[input];
+                if (value == 0) {
+                    continue;
+                }
+
+                final int rowOffset = input * outputCount;
+                for (int output = 0; output < outputCount; output++) {
+                    accumulators[output] += value * layerWeights[rowOffset + output];
+                }
+            }
+            dequantize(layer, outputCount, activationScale, layer < lastLayer);
+        }
+
+        System.arraycopy(activations, 0, scores, offset, outputCount);
+    }
+
+    @Override
+    public int getActionCount() {
+        return layerSizes[layerSizes.length - 1];
+    }
+
+    @Override
+    public void getScores(final int[] stateBits, final int count, final float[] scores) {
+        final int actionCount = getActionCount();
+        for (int i = 0; i < count; i++) {
+            output(stateBits[i], scores, i * actionCount);
+        }
+    }
+
+    @Override
+    public int getActionIndex(final int stateBits, final int actionMask) {
+        output(stateBits, singleScores, 0);
+        return Policy.getMaxScoreIndex(singleScores, 0, singleScores.length, actionMask);
+    }
+    // endregion
+
+    // region Helper
+    // Turns accumulated ints of a layer into float activations
+    private void dequantize(final int layer, final int outputCount, final float inputScale, final boolean relu) {
+        final float[] scales = weightScales[layer];
+        final float[] layerBiases = biases[layer];
+
+        for (int output = 0; output < outputCount; output++) {
+            final float value = accumulators[output] * scales[output] * inputScale + layerBiases[output];
+            activations[output] = relu ? Math.max(value, 0) : value;
+        }
+    }
+
+    // Quantizes activations of the previous layer and returns the scale they were quantized with
+    private float quantizeActivations(final int count) {
+        float maxActivation = 0;
+        for (int i = 0; i < count; i++) {
+            maxActivation = Math.max(maxActivation, activations[i]);
+        }
+
+        if (maxActivation == 0) {
+            Arrays.fill(quantizedActivations, 0, count, (byte) 0);
+            return 1;
+        }
+
+        final float scale = maxActivation / MAX_QUANTIZED;
+        for (int i = 0; i < count; i++) {
+            quantizedActivations[i] = (byte) Math.round(activations[i] / scale);
+        }
+
+        return scale;
+    }
+    // endregion
+}
@@ -0,0 +1,175 @@
+package com.liliumbosniacum.snakedl4j.network.model;
+
+import com.liliumbosniacum.snakedl4j.network.HyperParameters;
+import com.liliumbosniacum.snakedl4j.network.util.GameStateHelper;
+import com.liliumbosniacum.snakedl4j.network.util.NetworkUtil;
+import org.deeplearning4j.nn.multilayer.MultiLayerNetwork;
+import org.nd4j.linalg.api.buffer.DataType;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.factory.Nd4j;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Flat binary model file holding only what is needed to run a network: hyperparameters it was built with and its
+ * parameters, without the updater state. Parameters are stored exactly as the flattened parameter view of the network,
+ * so they are copied from the mapped file into the network in one go, without being parsed.
+ *
+ * <pre>
+ * Header:     int magic | short version | short header size | int number of parameters | int hidden layer count
+ *             | int view distance | int unused | double learning rate | double l2 | double discount factor
+ *             | double epsilon start | double epsilon decay
+ * Parameters: float parameters in the order of {@link MultiLayerNetwork#params()}
+ * </pre>
+ *
+ * @author mirza
+ */
+public final class ModelFile {
+    // region Member
+    /**
+     * Default name of the model file, written next to the zipped network.
+     */
+    public static final String MODEL_NAME = "trained_network.bin";
+
+    static final int MAGIC = 0x534E4B4D; // SNKM
+    static final short VERSION = 1;
+    static final int HEADER_SIZE = 64;
+    static final ByteOrder BYTE_ORDER = ByteOrder.LITTLE_ENDIAN;
+    private static final int ACTION_COUNT = 4;
+    // endregion
+
+    // region Constructor
+    private ModelFile() {}
+    // endregion
+
+    // region Implementation
+    /**
+     * Writes parameters of the network. File is first written next to the destination and then moved over it, so that
+     * readers never see a partially written model.
+     *
+     * @param network Network to write, in full precision.
+     * @param hyperParameters Hyperparameters the network was built with.
+     * @param file Destination file.
+     * @throws IOException If file could not be written.
+     */
+    public static void write(final MultiLayerNetwork network,
+                             final HyperParameters hyperParameters,
+                             final File file) throws IOException {
+        final float[] parameters = network.params().toFloatVector();
+
+        final ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + parameters.length * Float.BYTES).order(BYTE_ORDER);
+        buffer.putInt(MAGIC)
+                .putShort(VERSION)
+                .putShort((short) HEADER_SIZE)
+                .putInt(parameters.length)
+                .putInt(hyperParameters.getHiddenLayerCount())
+                .putInt(hyperParameters.getViewDistance())
+                .putInt(0)
+                .putDouble(hyperParameters.getLearningRate())
+                .putDouble(hyperParameters.getL2())
+                .putDouble(hyperParameters.getDiscountFactor())
+                .putDouble(hyperParameters.getEpsilonStart())
+                .putDouble(hyperParameters.getEpsilonDecay());
+        buffer.asFloatBuffer().put(parameters);
+
+        final Path destination = file.toPath().toAbsolutePath();
+        final Path temporary = destination.resolveSibling(destination.getFileName() + ".tmp");
+        try (final FileChannel channel = FileChannel.open(
+                temporary,
+                StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+
+        Files.move(temporary, destination, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Reads network from a model file. File is mapped read only and its parameters are copied in one bulk copy into
+     * ND4J memory, which then backs the parameter view of the network. File is never written, so it can be read only.
+     *
+     * @param file Model file.
+     * @return Returns initialized network, without updater state.
+     * @throws IOException If file could not be read or is not a model file.
+     */
+    public static MultiLayerNetwork read(final File file) throws IOException {
+        try (final FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_SIZE) {
+                throw new IOException("File '" + file + "' is too short to be a model file");
+            }
+
+            final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            buffer.order(BYTE_ORDER);
+
+            if (buffer.getInt() != MAGIC) {
+                throw new IOException("File '" + file + "' is not a model file");
+            }
+            final short version = buffer.getShort();
+            final short headerSize = buffer.getShort();
+            if (version != VERSION || headerSize != HEADER_SIZE) {
+                throw new IOException("Unsupported model file version '" + version + "' of '" + file + "'");
+            }
+
+            final int parameterCount = buffer.getInt();
+            final int hiddenLayerCount = buffer.getInt();
+            final int viewDistance = buffer.getInt();
+            buffer.getInt(); // Unused
+            final HyperParameters hyperParameters = new HyperParameters(
+                    buffer.getDouble(),
+                    buffer.getDouble(),
+                    hiddenLayerCount,
+                    buffer.getDouble(),
+                    buffer.getDouble(),
+                    buffer.getDouble(),
+                    viewDistance
+            );
+
+            if (channel.size() != HEADER_SIZE + (long) parameterCount * Float.BYTES) {
+                throw new IOException("Model file '" + file + "' does not hold '" + parameterCount + "' parameters");
+            }
+            // Network refuses parameters of a different length with an unchecked exception, so header is checked first
+            if (hiddenLayerCount < 1 || viewDistance < 1 || getParameterCount(hyperParameters) != parameterCount) {
+                throw new IOException("Model file '" + file + "' does not match network built from its header");
+            }
+
+            buffer.position(HEADER_SIZE);
+            final ByteBuffer parameterBuffer = buffer.slice().order(BYTE_ORDER);
+            final INDArray parameters = Nd4j.create(
+                    Nd4j.createBuffer(parameterBuffer, DataType.FLOAT, parameterCount),
+                    1,
+                    parameterCount
+            );
+
+            final MultiLayerNetwork network = NetworkUtil.getNetwork(hyperParameters);
+            network.init(parameters, false);
+
+            return network;
+        }
+    }
+
+    /**
+     * Get number of parameters of the network built by {@link NetworkUtil#getNetwork(HyperParameters)}.
+     *
+     * @param hyperParameters Hyperparameters the network is built with.
+     * @return Returns number of weights and biases of all layers.
+     */
+    public static long getParameterCount(final HyperParameters hyperParameters) {
+        final long inputCount = GameStateHelper.getNumberOfPossibleStates(hyperParameters.getViewDistance());
+        final long hiddenCount = hyperParameters.getHiddenLayerCount();
+
+        return (inputCount + 1) * hiddenCount + (hiddenCount + 1) * hiddenCount + (hiddenCount + 1) * ACTION_COUNT;
+    }
+    // endregion
+}
@@ -0,0 +1,217 @@
+package com.liliumbosniacum.snakedl4j.network.model;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Watches a model file, or a directory of model files, and loads every new version on a background thread. Loaded
+ * model is published with a volatile write, so that a game loop picks it up between two moves with a single read and
+ * is never paused by loading. Every loaded model gets the next version number, which tells apart scores achieved by
+ * different checkpoints.
+ * <p>
+ * Only files with the {@link #MODEL_EXTENSION} extension are loaded when a directory is watched. {@link ModelFile}
+ * writes a temporary file and moves it over the old one, so a watched file is never seen partially written.
+ *
+ * @param <T> Type of the loaded model.
+ * @author mirza
+ */
+public final class ModelWatcher<T> implements Closeable {
+    // region Member
+    public static final String MODEL_EXTENSION = ".bin";
+
+    private static final Logger LOG = LoggerFactory.getLogger(ModelWatcher.class);
+    // One save can raise several events, they are collected until the directory is quiet for this long
+    private static final long SETTLE_MILLIS = 200;
+
+    private final Path directory;
+    private final String fileName; // Null when the whole directory is watched
+    private final ModelLoader<T> loader;
+    private final WatchService watchService; // Null when nothing is watched
+
+    private volatile Version<T> current;
+    // endregion
+
+    // region Constructor
+    /**
+     * Creates watcher which watches nothing and always returns the initial model.
+     *
+     * @param initial Model which is used.
+     */
+    public ModelWatcher(final T initial) {
+        this.directory = null;
+        this.fileName = null;
+        this.loader = null;
+        this.watchService = null;
+        this.current = new Version<>(initial, 0, "initial");
+    }
+
+    /**
+     * Starts watching. Model which is already there is not loaded again, it is given as the initial version.
+     *
+     * @param path Model file or directory of model files.
+     * @param initial Model used until the first new version is loaded.
+     * @param loader Loader used to create models from files, it is only called from the watcher thread.
+     * @throws IOException If the path can not be watched.
+     */
+    public ModelWatcher(final Path path, final T initial, final ModelLoader<T> loader) throws IOException {
+        final Path absolute = path.toAbsolutePath();
+        final boolean isDirectory = Files.isDirectory(absolute);
+        this.directory = isDirectory ? absolute : absolute.getParent();
+        this.fileName = isDirectory ? null : absolute.getFileName().toString();
+        this.loader = loader;
+        this.current = new Version<>(initial, 0, "initial");
+
+        this.watchService = directory.getFileSystem().newWatchService();
+        directory.register(
+                watchService,
+                StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY
+        );
+
+        final Thread watcher = new Thread(this::watch, "model-watcher");
+        watcher.setDaemon(true);
+        watcher.start();
+
+        LOG.info("Watching '{}' for new models", absolute);
+    }
+    // endregion
+
+    // region Implementation
+    /**
+     * Get the latest loaded model. Cheap enough to be called before every move.
+     *
+     * @return Returns the latest version.
+     */
+    public Version<T> getCurrent() {
+        return current;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (watchService != null) {
+            watchService.close();
+        }
+    }
+    // endregion
+
+    // region Helper
+    private void watch() {
+        try {
+            while (true) {
+                Path changed = collectChanged(watchService.take(), null);
+
+                // Wait until the save is over, keeping the most recently changed file
+                WatchKey key;
+                while ((key = watchService.poll(SETTLE_MILLIS, TimeUnit.MILLISECONDS)) != null) {
+                    changed = collectChanged(key, changed);
+                }
+
+                if (changed != null) {
+                    load(changed);
+                }
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (final ClosedWatchServiceException e) {
+            LOG.debug("Stopped watching '{}'", directory);
+        }
+    }
+
+    private Path collectChanged(final WatchKey key, final Path previous) {
+        Path changed = previous;
+        for (final WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                continue;
+            }
+
+            final Path name = (Path) event.context();
+            final boolean matches = fileName != null
+                    ? name.toString().equals(fileName)
+                    : name.toString().endsWith(MODEL_EXTENSION);
+            if (matches && Files.isRegularFile(directory.resolve(name))) {
+                final Path file = directory.resolve(name);
+                if (changed == null || file.toFile().lastModified() >= changed.toFile().lastModified()) {
+                    changed = file;
+                }
+            }
+        }
+        key.reset();
+
+        return changed;
+    }
+
+    private void load(final Path file) {
+        final long start = System.nanoTime();
+        try {
+            final T model = loader.load(file.toFile());
+            final Version<T> version = new Version<>(model, current.getNumber() + 1, file.getFileName().toString());
+            current = version;
+
+            LOG.info("Loaded model version '{}' from '{}' in '{}'ms",
+                    version.getNumber(),
+                    file,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)
+            );
+        } catch (final IOException | RuntimeException e) {
+            // Playing goes on with the current model
+            LOG.error("Failed to load model from '{}': '{}'", file, e.getMessage(), e);
+        }
+    }
+    // endregion
+
+    /**
+     * Creates a model from a file.
+     *
+     * @param <T> Type of the loaded model.
+     */
+    @FunctionalInterface
+    public interface ModelLoader<T> {
+        T load(File file) throws IOException;
+    }
+
+    /**
+     * Loaded model together with its version number and the name of the file it was loaded from.
+     *
+     * @param <T> Type of the loaded model.
+     */
+    public static final class Version<T> {
+        private final T model;
+        private final int number;
+        private final String name;
+
+        private Version(final T model, final int number, final String name) {
+            this.model = model;
+            this.number = number;
+            this.name = name;
+        }
+
+        public T getModel() {
+            return model;
+        }
+
+        public int getNumber() {
+            return number;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public String toString() {
+            return number + " (" + name + ")";
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.liliumbosniacum.snakedl4j.network.observation;
+
+import com.liliumbosniacum.snakedl4j.game.Game;
+import com.liliumbosniacum.snakedl4j.network.util.GridObservationHelper;
+import org.nd4j.linalg.api.buffer.DataType;
+import org.nd4j.linalg.api.concurrency.AffinityManager;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.factory.Nd4j;
+
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+
+/**
+ * Batch of whole world observations, one row per game, held in a single {@code [batch, channels, height, width]}
+ * array which is allocated once and then overwritten in place. Every observation is encoded into a reused java array
+ * and copied into the memory of the array in bulk, so encoding a step allocates nothing.
+ *
+ * @author mirza
+ */
+public final class GridObservationBatch {
+    // region Member
+    private final int batchSize;
+    private final INDArray observations;
+    private final FloatBuffer buffer;
+    private final float[] observation = new float[GridObservationHelper.INPUT_COUNT];
+    // endregion
+
+    // region Constructor
+    public GridObservationBatch(final int batchSize) {
+        this.batchSize = batchSize;
+        this.observations = Nd4j.create(
+                DataType.FLOAT,
+                batchSize,
+                GridObservationHelper.CHANNELS,
+                GridObservationHelper.SIZE,
+                GridObservationHelper.SIZE
+        );
+        this.buffer = observations.data().asNio().order(ByteOrder.nativeOrder()).asFloatBuffer();
+    }
+    // endregion
+
+    // region Implementation
+    /**
+     * Encodes current world of the game into the given row.
+     *
+     * @param row Row of the batch.
+     * @param game Game to encode.
+     */
+    public void encode(final int row, final Game game) {
+        GridObservationHelper.encode(game, observation, 0);
+
+        buffer.position(row * GridObservationHelper.INPUT_COUNT);
+        buffer.put(observation);
+    }
+
+    /**
+     * Get observations of all rows. Should be called once all rows are encoded, as it marks the host copy of the
+     * array as the current one (which matters only for the CUDA backend).
+     *
+     * @return Returns array of shape {@code [batch, channels, height, width]}.
+     */
+    public INDArray getObservations() {
+        Nd4j.getAffinityManager().tagLocation(observations, AffinityManager.Location.HOST);
+        return observations;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+    // endregion
+}
@@ -0,0 +1,266 @@
+package com.liliumbosniacum.snakedl4j.network.offline;
+
+import com.liliumbosniacum.snakedl4j.network.recording.TrajectoryReader;
+import com.liliumbosniacum.snakedl4j.network.replay.TransitionBatch;
+import com.liliumbosniacum.snakedl4j.network.util.NetworkUtil;
+import org.deeplearning4j.nn.multilayer.MultiLayerNetwork;
+import org.nd4j.linalg.dataset.DataSet;
+import org.nd4j.linalg.dataset.api.DataSetPreProcessor;
+import org.nd4j.linalg.dataset.api.iterator.DataSetIterator;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.SplittableRandom;
+
+/**
+ * Streams minibatches of recorded transitions straight from trajectory files. Files are split into windows of
+ * consecutive records, windows are visited in random order and transitions within a window are shuffled, so that
+ * batches are well mixed while only one window is held in memory. Labels are target scores calculated by the target
+ * network, which has to be set before iterating and must not be fitted while the iterator is in use.
+ *
+ * @author mirza
+ */
+public final class RecordedTransitionIterator implements DataSetIterator, Closeable {
+    // region Member
+    private static final long serialVersionUID = 1L;
+
+    private final transient List<TrajectoryReader> readers = new ArrayList<>();
+    private final int batchSize;
+    private final int inputCount;
+    private final transient SplittableRandom random;
+
+    // Windows of all files, each one is described by the index of its reader and its first record
+    private final int[] windowReaders;
+    private final long[] windowStarts;
+    private final int windowSize;
+    private int nextWindow;
+
+    // Shuffled content of the current window
+    private final int[] states;
+    private final int[] actions;
+    private final double[] rewards;
+    private final int[] nextStates;
+    private final boolean[] terminals;
+    private int windowLength;
+    private int windowPosition;
+
+    private final transient TransitionBatch batch;
+    private transient MultiLayerNetwork targetNetwork;
+    private transient DataSetPreProcessor preProcessor;
+    // endregion
+
+    // region Constructor
+    /**
+     * @param files Trajectory files to read.
+     * @param batchSize Number of transitions in one batch.
+     * @param windowSize Number of records which are shuffled together.
+     * @param random Random number generator used for shuffling.
+     * @throws IOException If any of the files can not be opened.
+     */
+    public RecordedTransitionIterator(final List<Path> files,
+                                      final int batchSize,
+                                      final int windowSize,
+                                      final SplittableRandom random) throws IOException {
+        this.batchSize = batchSize;
+        this.windowSize = windowSize;
+        this.random = random;
+        this.batch = new TransitionBatch(batchSize);
+
+        final List<long[]> windows = new ArrayList<>();
+        int detectedInputCount = -1;
+        for (final Path file : files) {
+            final TrajectoryReader reader = new TrajectoryReader(file);
+            if (detectedInputCount >= 0 && reader.getInputCount() != detectedInputCount) {
+                reader.close();
+                close();
+                throw new IOException("File '" + file + "' was recorded with a different number of inputs");
+            }
+            detectedInputCount = reader.getInputCount();
+
+            for (long start = 0; start < reader.getRecordCount(); start += windowSize) {
+                windows.add(new long[]{readers.size(), start});
+            }
+            readers.add(reader);
+        }
+        this.inputCount = detectedInputCount;
+
+        this.windowReaders = new int[windows.size()];
+        this.windowStarts = new long[windows.size()];
+        for (int i = 0; i < windows.size(); i++) {
+            windowReaders[i] = (int) windows.get(i)[0];
+            windowStarts[i] = windows.get(i)[1];
+        }
+
+        this.states = new int[windowSize];
+        this.actions = new int[windowSize];
+        this.rewards = new double[windowSize];
+        this.nextStates = new int[windowSize];
+        this.terminals = new boolean[windowSize];
+
+        reset();
+    }
+    // endregion
+
+    // region Implementation
+    /**
+     * Sets the network used to calculate target scores. It is typically a copy of the trained network made at the
+     * start of each epoch.
+     *
+     * @param targetNetwork Target network.
+     */
+    public void setTargetNetwork(final MultiLayerNetwork targetNetwork) {
+        this.targetNetwork = targetNetwork;
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (windowPosition == windowLength && nextWindow < windowReaders.length) {
+            loadWindow(nextWindow++);
+        }
+
+        return windowPosition < windowLength;
+    }
+
+    @Override
+    public DataSet next() {
+        return next(batchSize);
+    }
+
+    @Override
+    public DataSet next(final int num) {
+        if (!hasNext()) {
+            throw new NoSuchElementException("All recorded transitions have been read");
+        }
+
+        batch.clear();
+        while (batch.getSize() < Math.min(num, batchSize) && hasNext()) {
+            final int i = windowPosition++;
+            batch.add(states[i], actions[i], rewards[i], nextStates[i], terminals[i], 1, -1);
+        }
+
+        final DataSet dataSet = NetworkUtil.toTargetDataSet(targetNetwork, batch);
+        if (preProcessor != null) {
+            preProcessor.preProcess(dataSet);
+        }
+
+        return dataSet;
+    }
+
+    /**
+     * Starts a new epoch, windows are visited in a new random order.
+     */
+    @Override
+    public void reset() {
+        for (int i = windowReaders.length - 1; i > 0; i--) {
+            final int j = random.nextInt(i + 1);
+
+            final int reader = windowReaders[i];
+            windowReaders[i] = windowReaders[j];
+            windowReaders[j] = reader;
+
+            final long start = windowStarts[i];
+            windowStarts[i] = windowStarts[j];
+            windowStarts[j] = start;
+        }
+
+        nextWindow = 0;
+        windowLength = 0;
+        windowPosition = 0;
+    }
+
+    @Override
+    public int inputColumns() {
+        return inputCount;
+    }
+
+    @Override
+    public int totalOutcomes() {
+        return 4;
+    }
+
+    @Override
+    public boolean resetSupported() {
+        return true;
+    }
+
+    /**
+     * Prefetching is done by wrapping the iterator explicitly, so that the depth of prefetching can be chosen.
+     */
+    @Override
+    public boolean asyncSupported() {
+        return false;
+    }
+
+    @Override
+    public int batch() {
+        return batchSize;
+    }
+
+    @Override
+    public void setPreProcessor(final DataSetPreProcessor preProcessor) {
+        this.preProcessor = preProcessor;
+    }
+
+    @Override
+    public DataSetPreProcessor getPreProcessor() {
+        return preProcessor;
+    }
+
+    @Override
+    public List<String> getLabels() {
+        return Arrays.asList("MOVE_UP", "MOVE_RIGHT", "MOVE_DOWN", "MOVE_LEFT");
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (final TrajectoryReader reader : readers) {
+            reader.close();
+        }
+    }
+    // endregion
+
+    // region Helper
+    private void loadWindow(final int window) {
+        final TrajectoryReader reader = readers.get(windowReaders[window]);
+        final long start = windowStarts[window];
+        final long end = Math.min(start + windowSize, reader.getRecordCount());
+
+        windowLength = 0;
+        windowPosition = 0;
+        try {
+            for (long record = start; record < end; record++) {
+                reader.moveTo(record);
+                if (reader.isEpisodeStart()) {
+                    continue; // Only steps are transitions
+                }
+
+                // Inside out shuffle, every record is placed on a random position while being read
+                final int target = random.nextInt(windowLength + 1);
+                moveRecord(target, windowLength);
+                states[target] = reader.getStateBits();
+                actions[target] = reader.getAction();
+                rewards[target] = reader.getReward();
+                nextStates[target] = reader.getNextStateBits();
+                terminals[target] = reader.isTerminal();
+                windowLength++;
+            }
+        } catch (final IOException e) {
+            throw new UncheckedIOException("Failed to read recorded transitions", e);
+        }
+    }
+
+    private void moveRecord(final int from, final int to) {
+        states[to] = states[from];
+        actions[to] = actions[from];
+        rewards[to] = rewards[from];
+        nextStates[to] = nextStates[from];
+        terminals[to] = terminals[from];
+    }
+    // endregion
+}
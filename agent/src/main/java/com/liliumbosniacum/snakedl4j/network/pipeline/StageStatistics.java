@@ -0,0 +1,71 @@
+package com.liliumbosniacum.snakedl4j.network.pipeline;
+
+/**
+ * Keeps track of how much time one pipeline stage spends working and how much it spends waiting on the other stage.
+ * Values are written by the stage thread only and can be read from any thread.
+ *
+ * @author mirza
+ */
+public final class StageStatistics {
+    // region Member
+    private final String name;
+
+    private volatile long items;
+    private volatile long busyNanos;
+    private volatile long waitNanos;
+    // endregion
+
+    // region Constructor
+    public StageStatistics(final String name) {
+        this.name = name;
+    }
+    // endregion
+
+    // region Implementation
+    /**
+     * Records time spent doing actual work.
+     *
+     * @param nanos Time spent working.
+     * @param itemCount Number of transitions which were produced or consumed.
+     */
+    public void recordBusy(final long nanos, final int itemCount) {
+        busyNanos += nanos;
+        items += itemCount;
+    }
+
+    /**
+     * Records time spent waiting on the other stage.
+     *
+     * @param nanos Time spent waiting.
+     */
+    public void recordWait(final long nanos) {
+        waitNanos += nanos;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getItems() {
+        return items;
+    }
+
+    public long getBusyNanos() {
+        return busyNanos;
+    }
+
+    public long getWaitNanos() {
+        return waitNanos;
+    }
+
+    /**
+     * Get share of the time stage spent waiting.
+     *
+     * @return Returns value between 0 and 1, stage which waits less is the one limiting the throughput.
+     */
+    public double getWaitRatio() {
+        final long total = busyNanos + waitNanos;
+        return total == 0 ? 0 : (double) waitNanos / total;
+    }
+    // endregion
+}
@@ -0,0 +1,131 @@
+package com.liliumbosniacum.snakedl4j.network.pipeline;
+
+import com.liliumbosniacum.snakedl4j.network.replay.TransitionBatch;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded lock-free queue of transitions with a single producer (simulation) and a single consumer (learner).
+ * Transitions are stored in primitive ring buffers, so nothing is allocated while passing them between threads.
+ *
+ * @author mirza
+ */
+public final class TransitionQueue {
+    // region Member
+    private final int capacity;
+    private final int mask;
+
+    private final int[] states;
+    private final int[] actions;
+    private final double[] rewards;
+    private final int[] nextStates;
+    private final boolean[] terminals;
+
+    // Next slot to read, only written by the consumer
+    private final AtomicLong head = new AtomicLong();
+    // Next slot to write, only written by the producer
+    private final AtomicLong tail = new AtomicLong();
+
+    private volatile boolean closed;
+    // endregion
+
+    // region Constructor
+    /**
+     * @param capacity Maximal number of queued transitions. It is rounded up to the next power of two.
+     */
+    public TransitionQueue(final int capacity) {
+        this.capacity = capacity <= 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+        this.mask = this.capacity - 1;
+
+        this.states = new int[this.capacity];
+        this.actions = new int[this.capacity];
+        this.rewards = new double[this.capacity];
+        this.nextStates = new int[this.capacity];
+        this.terminals = new boolean[this.capacity];
+    }
+    // endregion
+
+    // region Implementation
+    /**
+     * Adds transition to the queue. Must only be called by the producer thread.
+     *
+     * @param state Packed bits of the state in which action was taken.
+     * @param action Index of the taken action.
+     * @param reward Reward received for the action.
+     * @param nextState Packed bits of the state reached by the action.
+     * @param terminal True if the game was over after the action.
+     * @return Returns false if the queue is full and transition was not added.
+     */
+    public boolean offer(final int state,
+                         final int action,
+                         final double reward,
+                         final int nextState,
+                         final boolean terminal) {
+        final long currentTail = tail.get();
+        if (currentTail - head.get() == capacity) {
+            return false;
+        }
+
+        final int slot = (int) (currentTail & mask);
+        states[slot] = state;
+        actions[slot] = action;
+        rewards[slot] = reward;
+        nextStates[slot] = nextState;
+        terminals[slot] = terminal;
+
+        // Ordered write makes the slot visible to the consumer only after it has been filled
+        tail.lazySet(currentTail + 1);
+        return true;
+    }
+
+    /**
+     * Moves queued transitions into the batch until it is full or the queue is empty. Must only be called by the
+     * consumer thread.
+     *
+     * @param batch Batch to fill.
+     * @return Returns number of moved transitions.
+     */
+    public int drainTo(final TransitionBatch batch) {
+        final long currentHead = head.get();
+        final int count = (int) Math.min(tail.get() - currentHead, batch.getCapacity() - batch.getSize());
+
+        for (int i = 0; i < count; i++) {
+            final int slot = (int) ((currentHead + i) & mask);
+            batch.add(states[slot], actions[slot], rewards[slot], nextStates[slot], terminals[slot], 1, -1);
+        }
+
+        // Ordered write makes the slots available to the producer only after they have been read
+        head.lazySet(currentHead + count);
+        return count;
+    }
+
+    /**
+     * Marks that the producer will not add any more transitions.
+     */
+    public void close() {
+        closed = true;
+    }
+
+    /**
+     * Checks if producer is done and all transitions have been consumed.
+     *
+     * @return Returns true if nothing more will come out of the queue.
+     */
+    public boolean isDrained() {
+        return closed && head.get() == tail.get();
+    }
+
+    /**
+     * Get number of transitions currently in the queue.
+     *
+     * @return Returns number of queued transitions.
+     */
+    public int getSize() {
+        return (int) (tail.get() - head.get());
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+    // endregion
+}
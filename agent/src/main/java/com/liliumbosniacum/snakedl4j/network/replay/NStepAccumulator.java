@@ -0,0 +1,120 @@
+package com.liliumbosniacum.snakedl4j.network.replay;
+
+/**
+ * Turns one step transitions of a single game into n-step transitions. Last n moves are kept in a small ring buffer of
+ * primitives and once it is full the oldest move is emitted with the discounted sum of the rewards of all n moves and
+ * the state reached after the last of them, so that the reward of eating the food reaches n moves back with one fit.
+ * When the game is over all moves in the window are emitted as terminal transitions with their shorter returns.
+ * One accumulator is needed for every game which is played at the same time.
+ *
+ * @author mirza
+ */
+public final class NStepAccumulator {
+    // region Member
+    private final int stepCount;
+    private final double discountFactor;
+
+    private final int[] states;
+    private final int[] actions;
+    private final double[] rewards;
+    private int first;
+    private int size;
+    // endregion
+
+    // region Constructor
+    /**
+     * @param stepCount Number of moves whose rewards are summed up, 1 emits every move as it is.
+     * @param discountFactor Factor by which every next reward is discounted.
+     */
+    public NStepAccumulator(final int stepCount, final double discountFactor) {
+        if (stepCount < 1) {
+            throw new IllegalArgumentException("Step count must be at least 1 but was " + stepCount);
+        }
+
+        this.stepCount = stepCount;
+        this.discountFactor = discountFactor;
+
+        this.states = new int[stepCount];
+        this.actions = new int[stepCount];
+        this.rewards = new double[stepCount];
+    }
+    // endregion
+
+    // region Implementation
+    /**
+     * Adds a move and emits every n-step transition which is complete after it.
+     *
+     * @param state Packed bits of the state in which action was taken.
+     * @param action Index of the taken action.
+     * @param reward Reward received for the action.
+     * @param nextState Packed bits of the state reached by the action.
+     * @param terminal True if the game was over after the action.
+     * @param consumer Receives emitted transitions, oldest first.
+     */
+    public void add(final int state,
+                    final int action,
+                    final double reward,
+                    final int nextState,
+                    final boolean terminal,
+                    final Consumer consumer) {
+        final int index = (first + size) % stepCount;
+        states[index] = state;
+        actions[index] = action;
+        rewards[index] = reward;
+        size++;
+
+        if (terminal) {
+            // There is nothing to expect after the game is over, so every move left gets the rest of the rewards
+            while (size > 0) {
+                emitFirst(nextState, true, consumer);
+            }
+        } else if (size == stepCount) {
+            emitFirst(nextState, false, consumer);
+        }
+    }
+
+    /**
+     * Drops all moves which were not emitted yet, e.g. when a game is abandoned without reaching its end.
+     */
+    public void clear() {
+        first = 0;
+        size = 0;
+    }
+
+    public int getStepCount() {
+        return stepCount;
+    }
+    // endregion
+
+    // region Helper
+    private void emitFirst(final int nextState, final boolean terminal, final Consumer consumer) {
+        double reward = 0;
+        double discount = 1;
+        for (int i = 0; i < size; i++) {
+            reward += discount * rewards[(first + i) % stepCount];
+            discount *= discountFactor;
+        }
+
+        consumer.accept(states[first], actions[first], reward, nextState, terminal, size);
+
+        first = (first + 1) % stepCount;
+        size--;
+    }
+    // endregion
+
+    /**
+     * Receives n-step transitions.
+     */
+    @FunctionalInterface
+    public interface Consumer {
+        /**
+         * @param state Packed bits of the state in which action was taken.
+         * @param action Index of the taken action.
+         * @param reward Discounted sum of rewards of all moves of the transition.
+         * @param nextState Packed bits of the state reached after the last move.
+         * @param terminal True if the game was over after the last move.
+         * @param steps Number of moves, score of the next state is discounted by discount factor to this power.
+         */
+        void accept(int state, int action, double reward, int nextState, boolean terminal, int steps);
+    }
+}
@@ -0,0 +1,165 @@
+package com.liliumbosniacum.snakedl4j.network.replay;
+
+import java.util.SplittableRandom;
+
+/**
+ * Replay buffer which samples transitions proportionally to their last TD error, so that rare events like eating
+ * the food or dying are replayed more often than transitions which network already predicts well.
+ * https://arxiv.org/abs/1511.05952
+ *
+ * @author mirza
+ */
+public final class PrioritizedReplayBuffer {
+    // region Member
+    /**
+     * Added to every TD error so that no transition ends up with zero chance of being sampled.
+     */
+    private static final double PRIORITY_EPSILON = 0.01;
+
+    private final SumTree sumTree;
+    private final double alpha;
+    private final SplittableRandom random;
+
+    private final int[] states;
+    private final byte[] actions;
+    private final float[] rewards;
+    private final int[] nextStates;
+    private final boolean[] terminals;
+    private final byte[] steps;
+
+    private int position;
+    private int size;
+    private double maxPriority = 1;
+    // endregion
+
+    // region Constructor
+    /**
+     * @param capacity Maximal number of stored transitions, oldest ones are overwritten once it is reached.
+     * @param alpha Dictates how much prioritization is used (0 means uniform sampling).
+     * @param random Random number generator used for sampling.
+     */
+    public PrioritizedReplayBuffer(final int capacity, final double alpha, final SplittableRandom random) {
+        this.sumTree = new SumTree(capacity);
+        this.alpha = alpha;
+        this.random = random;
+
+        this.states = new int[capacity];
+        this.actions = new byte[capacity];
+        this.rewards = new float[capacity];
+        this.nextStates = new int[capacity];
+        this.terminals = new boolean[capacity];
+        this.steps = new byte[capacity];
+    }
+    // endregion
+
+    // region Implementation
+    /**
+     * Stores transition with the highest priority seen so far, so that it is replayed at least once.
+     *
+     * @param state Packed bits of the state in which action was taken.
+     * @param action Index of the taken action.
+     * @param reward Reward received for the action.
+     * @param nextState Packed bits of the state reached by the action.
+     * @param terminal True if the game was over after the action.
+     */
+    public void add(final int state,
+                    final int action,
+                    final double reward,
+                    final int nextState,
+                    final boolean terminal) {
+        add(state, action, reward, nextState, terminal, 1);
+    }
+
+    /**
+     * Stores transition which spans several moves, see {@link NStepAccumulator}. Can be used as its consumer.
+     *
+     * @param state Packed bits of the state in which action was taken.
+     * @param action Index of the taken action.
+     * @param reward Discounted sum of rewards of all moves of the transition.
+     * @param nextState Packed bits of the state reached after the last move.
+     * @param terminal True if the game was over after the last move.
+     * @param steps Number of moves of the transition.
+     */
+    public void add(final int state,
+                    final int action,
+                    final double reward,
+                    final int nextState,
+                    final boolean terminal,
+                    final int steps) {
+        states[position] = state;
+        actions[position] = (byte) action;
+        rewards[position] = (float) reward;
+        nextStates[position] = nextState;
+        terminals[position] = terminal;
+        this.steps[position] = (byte) steps;
+        sumTree.update(position, maxPriority);
+
+        position = (position + 1) % states.length;
+        size = Math.min(size + 1, states.length);
+    }
+
+    /**
+     * Samples transitions into the batch. Range of all priorities is split into equal segments and one transition is
+     * picked from each of them. Importance sampling weights are normalized by the largest weight in the batch.
+     *
+     * @param batch Batch to fill, previous content is cleared.
+     * @param batchSize Number of transitions to sample.
+     * @param beta Dictates how much prioritization is compensated (1 means full compensation).
+     */
+    public void sample(final TransitionBatch batch, final int batchSize, final double beta) {
+        batch.clear();
+
+        final double total = sumTree.getTotal();
+        final double segment = total / batchSize;
+
+        float maxWeight = 0;
+        for (int i = 0; i < batchSize; i++) {
+            final int index = sumTree.sample((i + random.nextDouble()) * segment);
+            final double probability = sumTree.get(index) / total;
+            final float weight = (float) Math.pow(size * probability, -beta);
+            maxWeight = Math.max(maxWeight, weight);
+
+            batch.add(
+                    states[index],
+                    actions[index],
+                    rewards[index],
+                    nextStates[index],
+                    terminals[index],
+                    steps[index],
+                    weight,
+                    index
+            );
+        }
+
+        final float[] weights = batch.getWeights();
+        for (int i = 0; i < batchSize; i++) {
+            weights[i] /= maxWeight;
+        }
+    }
+
+    /**
+     * Updates priorities of sampled transitions based on TD errors written into the batch by the last fit.
+     *
+     * @param batch Batch which was sampled from this buffer and then fitted.
+     */
+    public void updatePriorities(final TransitionBatch batch) {
+        final int[] indices = batch.getIndices();
+        final double[] tdErrors = batch.getTdErrors();
+
+        for (int i = 0; i < batch.getSize(); i++) {
+            final double priority = Math.pow(Math.abs(tdErrors[i]) + PRIORITY_EPSILON, alpha);
+            maxPriority = Math.max(maxPriority, priority);
+            sumTree.update(indices[i], priority);
+        }
+    }
+
+    /**
+     * Get number of stored transitions.
+     *
+     * @return Returns number of stored transitions.
+     */
+    public int getSize() {
+        return size;
+    }
+    // endregion
+}
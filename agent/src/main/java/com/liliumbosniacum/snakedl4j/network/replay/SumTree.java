@@ -0,0 +1,101 @@
+package com.liliumbosniacum.snakedl4j.network.replay;
+
+/**
+ * Binary tree stored in a flat array where each parent holds the sum of its children. Leaves hold priorities of
+ * stored transitions, which allows both sampling proportional to priority and priority updates in O(log n).
+ *
+ * @author mirza
+ */
+public final class SumTree {
+    // region Member
+    private final int capacity;
+
+    // Root is stored at index 1, children of node i are at 2i and 2i + 1 and leaves start at index capacity
+    private final double[] tree;
+    // endregion
+
+    // region Constructor
+    /**
+     * @param capacity Number of leaves. It is rounded up to the next power of two.
+     */
+    public SumTree(final int capacity) {
+        if (capacity <= 0 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("Capacity must be between 1 and 2^30 but was " + capacity);
+        }
+
+        this.capacity = capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+        this.tree = new double[this.capacity * 2];
+    }
+    // endregion
+
+    // region Implementation
+    /**
+     * Sets the priority of a leaf and updates all of its parents.
+     *
+     * @param index Index of the leaf.
+     * @param priority New priority, must not be negative.
+     */
+    public void update(final int index, final double priority) {
+        int node = index + capacity;
+        tree[node] = priority;
+
+        // Parents are recalculated from their children rather than adjusted by a delta, so no rounding errors pile up
+        node >>>= 1;
+        while (node >= 1) {
+            tree[node] = tree[node << 1] + tree[(node << 1) + 1];
+            node >>>= 1;
+        }
+    }
+
+    /**
+     * Finds the leaf in which the given prefix sum falls.
+     *
+     * @param value Value between 0 (inclusive) and {@link #getTotal()} (exclusive).
+     * @return Returns index of the found leaf.
+     */
+    public int sample(final double value) {
+        double remaining = value;
+        int node = 1;
+
+        while (node < capacity) {
+            final int left = node << 1;
+            if (remaining < tree[left] || tree[left + 1] == 0) {
+                node = left;
+            } else {
+                remaining -= tree[left];
+                node = left + 1;
+            }
+        }
+
+        return node - capacity;
+    }
+
+    /**
+     * Get priority stored in the leaf.
+     *
+     * @param index Index of the leaf.
+     * @return Returns priority of the leaf.
+     */
+    public double get(final int index) {
+        return tree[index + capacity];
+    }
+
+    /**
+     * Get sum of all priorities.
+     *
+     * @return Returns sum of all priorities.
+     */
+    public double getTotal() {
+        return tree[1];
+    }
+
+    /**
+     * Get number of leaves.
+     *
+     * @return Returns number of leaves (capacity rounded up to the next power of two).
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+    // endregion
+}
@@ -0,0 +1,154 @@
+package com.liliumbosniacum.snakedl4j.network.replay;
+
+/**
+ * Minibatch of transitions stored in primitive arrays, so that it can be reused between fits without allocating.
+ *
+ * @author mirza
+ */
+public final class TransitionBatch {
+    // region Member
+    private final int[] states;
+    private final int[] actions;
+    private final double[] rewards;
+    private final int[] nextStates;
+    private final boolean[] terminals;
+    private final int[] steps;
+    private final float[] weights;
+    private final int[] indices;
+    private final double[] tdErrors;
+    private int size;
+    // endregion
+
+    // region Constructor
+    /**
+     * @param capacity Maximal number of transitions in the batch.
+     */
+    public TransitionBatch(final int capacity) {
+        this.states = new int[capacity];
+        this.actions = new int[capacity];
+        this.rewards = new double[capacity];
+        this.nextStates = new int[capacity];
+        this.terminals = new boolean[capacity];
+        this.steps = new int[capacity];
+        this.weights = new float[capacity];
+        this.indices = new int[capacity];
+        this.tdErrors = new double[capacity];
+    }
+    // endregion
+
+    // region Implementation
+    /**
+     * Adds one step transition to the batch.
+     *
+     * @param state Packed bits of the state in which action was taken.
+     * @param action Index of the taken action.
+     * @param reward Reward received for the action.
+     * @param nextState Packed bits of the state reached by the action.
+     * @param terminal True if the game was over after the action.
+     * @param weight Importance sampling weight of the transition.
+     * @param index Index of the transition in the buffer it was sampled from.
+     */
+    public void add(final int state,
+                    final int action,
+                    final double reward,
+                    final int nextState,
+                    final boolean terminal,
+                    final float weight,
+                    final int index) {
+        add(state, action, reward, nextState, terminal, 1, weight, index);
+    }
+
+    /**
+     * Adds transition which spans several moves to the batch, see {@link NStepAccumulator}.
+     *
+     * @param state Packed bits of the state in which action was taken.
+     * @param action Index of the taken action.
+     * @param reward Discounted sum of rewards of all moves of the transition.
+     * @param nextState Packed bits of the state reached after the last move.
+     * @param terminal True if the game was over after the last move.
+     * @param steps Number of moves, score of the next state is discounted by discount factor to this power.
+     * @param weight Importance sampling weight of the transition.
+     * @param index Index of the transition in the buffer it was sampled from.
+     */
+    public void add(final int state,
+                    final int action,
+                    final double reward,
+                    final int nextState,
+                    final boolean terminal,
+                    final int steps,
+                    final float weight,
+                    final int index) {
+        states[size] = state;
+        actions[size] = action;
+        rewards[size] = reward;
+        nextStates[size] = nextState;
+        terminals[size] = terminal;
+        this.steps[size] = steps;
+        weights[size] = weight;
+        indices[size] = index;
+        tdErrors[size] = 0;
+        size++;
+    }
+
+    /**
+     * Removes all transitions from the batch.
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    public int[] getStates() {
+        return states;
+    }
+
+    public int[] getActions() {
+        return actions;
+    }
+
+    public double[] getRewards() {
+        return rewards;
+    }
+
+    public int[] getNextStates() {
+        return nextStates;
+    }
+
+    public boolean[] getTerminals() {
+        return terminals;
+    }
+
+    /**
+     * Get number of moves of every transition.
+     *
+     * @return Returns number of moves, 1 for ordinary transitions.
+     */
+    public int[] getSteps() {
+        return steps;
+    }
+
+    public float[] getWeights() {
+        return weights;
+    }
+
+    public int[] getIndices() {
+        return indices;
+    }
+
+    /**
+     * Get TD errors written by the last fit.
+     *
+     * @return Returns TD errors (target minus predicted score) of all transitions.
+     */
+    public double[] getTdErrors() {
+        return tdErrors;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public int getCapacity() {
+        return states.length;
+    }
+    // endregion
+}
@@ -0,0 +1,269 @@
+package com.liliumbosniacum.snakedl4j.network.table;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Q-table holding a score for every state and action in one float array, indexed by the packed state bits (see
+ * {@link com.liliumbosniacum.snakedl4j.network.GameState#getStateBits()}) times the number of actions plus the action
+ * index. Every score which was ever set is marked as visited, so that only learned scores are saved and used to
+ * train the network.
+ * Table is saved sparsely, only visited scores are written:
+ *
+ * <pre>
+ * Header:  int magic | short version | short number of actions | int number of inputs | int number of visited scores
+ * Scores:  int index (state bits times number of actions plus action) | float score, for every visited score
+ * </pre>
+ *
+ * @author mirza
+ */
+public final class QTable {
+    // region Member
+    /**
+     * Default name of the file the table is saved to.
+     */
+    public static final String TABLE_NAME = "q_table.bin";
+
+    static final int MAGIC = 0x534E4B51; // SNKQ
+    static final short VERSION = 1;
+    static final int HEADER_SIZE = 16;
+    static final int ENTRY_SIZE = Integer.BYTES + Float.BYTES;
+    static final ByteOrder BYTE_ORDER = ByteOrder.LITTLE_ENDIAN;
+
+    private final int inputCount;
+    private final int actionCount;
+    private final float[] scores;
+    private final long[] visited; // One bit per score
+    // endregion
+
+    // region Constructor
+    /**
+     * Creates table where all scores are 0 and none of them is visited.
+     *
+     * @param inputCount Number of game state inputs, table holds scores of 2 to the power of it states.
+     * @param actionCount Number of actions.
+     */
+    public QTable(final int inputCount, final int actionCount) {
+        if (inputCount < 1 || inputCount > 24) {
+            throw new IllegalArgumentException("Number of inputs must be between 1 and 24 but was " + inputCount);
+        }
+
+        this.inputCount = inputCount;
+        this.actionCount = actionCount;
+        this.scores = new float[(1 << inputCount) * actionCount];
+        this.visited = new long[(scores.length + 63) / 64];
+    }
+    // endregion
+
+    // region Implementation
+    public float get(final int stateBits, final int action) {
+        return scores[stateBits * actionCount + action];
+    }
+
+    /**
+     * Sets score and marks it as visited.
+     *
+     * @param stateBits State packed into bits.
+     * @param action Index of the action.
+     * @param score New score.
+     */
+    public void set(final int stateBits, final int action, final float score) {
+        final int index = stateBits * actionCount + action;
+        scores[index] = score;
+        visited[index >>> 6] |= 1L << index;
+    }
+
+    public boolean isVisited(final int stateBits, final int action) {
+        final int index = stateBits * actionCount + action;
+        return (visited[index >>> 6] & (1L << index)) != 0;
+    }
+
+    /**
+     * Get the highest score of a state. Scores which were never visited count as 0.
+     *
+     * @param stateBits State packed into bits.
+     * @return Returns the highest score of all actions.
+     */
+    public float getMax(final int stateBits) {
+        return getMax(stateBits, 0);
+    }
+
+    /**
+     * Get the highest score of a state among the allowed actions. Scores which were never visited count as 0.
+     *
+     * @param stateBits State packed into bits.
+     * @param actionMask Mask where bit i is set if action with index i is allowed, 0 to allow all actions.
+     * @return Returns the highest score of all allowed actions.
+     */
+    public float getMax(final int stateBits, final int actionMask) {
+        final int mask = actionMask != 0 ? actionMask : (1 << actionCount) - 1;
+        final int offset = stateBits * actionCount;
+
+        float max = Float.NEGATIVE_INFINITY;
+        for (int action = 0; action < actionCount; action++) {
+            if ((mask & (1 << action)) != 0) {
+                max = Math.max(max, scores[offset + action]);
+            }
+        }
+
+        return max;
+    }
+
+    /**
+     * Get all states with at least one visited score.
+     *
+     * @return Returns packed state bits in ascending order.
+     */
+    public int[] getVisitedStates() {
+        final int stateCount = 1 << inputCount;
+        final int[] states = new int[stateCount];
+
+        int count = 0;
+        for (int state = 0; state < stateCount; state++) {
+            for (int action = 0; action < actionCount; action++) {
+                if (isVisited(state, action)) {
+                    states[count++] = state;
+                    break;
+                }
+            }
+        }
+
+        return Arrays.copyOf(states, count);
+    }
+
+    /**
+     * Get number of visited scores.
+     *
+     * @return Returns number of scores which were set at least once.
+     */
+    public int getVisitedCount() {
+        int count = 0;
+        for (final long word : visited) {
+            count += Long.bitCount(word);
+        }
+
+        return count;
+    }
+
+    /**
+     * Replaces all scores with the ones of another table of the same size.
+     *
+     * @param other Table to copy.
+     */
+    public void assign(final QTable other) {
+        if (other.inputCount != inputCount || other.actionCount != actionCount) {
+            throw new IllegalArgumentException("Table with '" + other.inputCount + "' inputs and '"
+                    + other.actionCount + "' actions can not be assigned to a table with '" + inputCount
+                    + "' inputs and '" + actionCount + "' actions");
+        }
+
+        System.arraycopy(other.scores, 0, scores, 0, scores.length);
+        System.arraycopy(other.visited, 0, visited, 0, visited.length);
+    }
+
+    public int getInputCount() {
+        return inputCount;
+    }
+
+    public int getActionCount() {
+        return actionCount;
+    }
+
+    /**
+     * Writes all visited scores. File is first written next to the destination and then moved over it, so that
+     * readers never see a partially written table.
+     *
+     * @param file Destination file.
+     * @throws IOException If file could not be written.
+     */
+    public void write(final Path file) throws IOException {
+        final int visitedCount = getVisitedCount();
+        final ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + visitedCount * ENTRY_SIZE).order(BYTE_ORDER);
+        buffer.putInt(MAGIC)
+                .putShort(VERSION)
+                .putShort((short) actionCount)
+                .putInt(inputCount)
+                .putInt(visitedCount);
+
+        for (int word = 0; word < visited.length; word++) {
+            for (long bits = visited[word]; bits != 0; bits &= bits - 1) {
+                final int index = word * 64 + Long.numberOfTrailingZeros(bits);
+                buffer.putInt(index).putFloat(scores[index]);
+            }
+        }
+        buffer.flip();
+
+        final Path destination = file.toAbsolutePath();
+        final Path temporary = destination.resolveSibling(destination.getFileName() + ".tmp");
+        try (final FileChannel channel = FileChannel.open(
+                temporary,
+                StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+
+        Files.move(temporary, destination, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Reads table written by {@link #write(Path)}.
+     *
+     * @param file Table file.
+     * @return Returns table where all scores from the file are visited.
+     * @throws IOException If file could not be read or is not a table file.
+     */
+    public static QTable read(final Path file) throws IOException {
+        try (final FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_SIZE) {
+                throw new IOException("File '" + file + "' is too short to be a Q-table file");
+            }
+
+            final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            buffer.order(BYTE_ORDER);
+
+            if (buffer.getInt() != MAGIC) {
+                throw new IOException("File '" + file + "' is not a Q-table file");
+            }
+            final short version = buffer.getShort();
+            if (version != VERSION) {
+                throw new IOException("Unsupported Q-table file version '" + version + "' of '" + file + "'");
+            }
+
+            final int actionCount = buffer.getShort();
+            final int inputCount = buffer.getInt();
+            final int visitedCount = buffer.getInt();
+            if (inputCount < 1 || inputCount > 24 || actionCount < 1
+                    || (1L << inputCount) * actionCount > Integer.MAX_VALUE) {
+                throw new IOException("Q-table file '" + file + "' has invalid size of '" + inputCount
+                        + "' inputs and '" + actionCount + "' actions");
+            }
+            if (visitedCount < 0 || channel.size() != HEADER_SIZE + (long) visitedCount * ENTRY_SIZE) {
+                throw new IOException("Q-table file '" + file + "' does not hold '" + visitedCount + "' scores");
+            }
+
+            final QTable table = new QTable(inputCount, actionCount);
+            for (int i = 0; i < visitedCount; i++) {
+                final int index = buffer.getInt();
+                if (index < 0 || index >= table.scores.length) {
+                    throw new IOException("Q-table file '" + file + "' holds score '" + i + "' with index '" + index
+                            + "' outside of the table");
+                }
+                table.set(index / actionCount, index % actionCount, buffer.getFloat());
+            }
+
+            return table;
+        }
+    }
+    // endregion
+}
@@ -0,0 +1,166 @@
+package com.liliumbosniacum.snakedl4j.network.table;
+
+import org.nd4j.linalg.dataset.DataSet;
+import org.nd4j.linalg.dataset.api.DataSetPreProcessor;
+import org.nd4j.linalg.dataset.api.iterator.DataSetIterator;
+import org.nd4j.linalg.factory.Nd4j;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.SplittableRandom;
+
+/**
+ * Streams minibatches of visited states straight from a {@link QTable}, so that a network can be trained to regress
+ * it. Features are the state inputs and labels are the scores of all actions from the table. Scores which were never
+ * visited are masked out, so the network is not pulled towards the 0 they were initialized with. States are visited
+ * in a new random order every epoch.
+ *
+ * @author mirza
+ */
+public final class QTableIterator implements DataSetIterator {
+    // region Member
+    private static final long serialVersionUID = 1L;
+
+    private final transient QTable table;
+    private final int[] states;
+    private final int batchSize;
+    private final transient SplittableRandom random;
+    private int position;
+
+    private transient DataSetPreProcessor preProcessor;
+    // endregion
+
+    // region Constructor
+    /**
+     * @param table Table to stream, it must not be changed while the iterator is in use.
+     * @param batchSize Number of states in one batch.
+     * @param random Random number generator used for shuffling.
+     */
+    public QTableIterator(final QTable table, final int batchSize, final SplittableRandom random) {
+        this.table = table;
+        this.states = table.getVisitedStates();
+        this.batchSize = batchSize;
+        this.random = random;
+
+        reset();
+    }
+    // endregion
+
+    // region Implementation
+    /**
+     * Get number of states in one epoch.
+     *
+     * @return Returns number of states with at least one visited score.
+     */
+    public int getStateCount() {
+        return states.length;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return position < states.length;
+    }
+
+    @Override
+    public DataSet next() {
+        return next(batchSize);
+    }
+
+    @Override
+    public DataSet next(final int num) {
+        if (!hasNext()) {
+            throw new NoSuchElementException("All visited states have been read");
+        }
+
+        final int inputCount = table.getInputCount();
+        final int actionCount = table.getActionCount();
+        final int size = Math.min(Math.min(num, batchSize), states.length - position);
+
+        final float[] features = new float[size * inputCount];
+        final float[] labels = new float[size * actionCount];
+        final float[] mask = new float[size * actionCount];
+        for (int row = 0; row < size; row++) {
+            final int state = states[position++];
+            for (int column = 0; column < inputCount; column++) {
+                features[row * inputCount + column] = (state >>> column) & 1;
+            }
+            for (int action = 0; action < actionCount; action++) {
+                labels[row * actionCount + action] = table.get(state, action);
+                mask[row * actionCount + action] = table.isVisited(state, action) ? 1 : 0;
+            }
+        }
+
+        final DataSet dataSet = new DataSet(
+                Nd4j.create(features, new int[]{size, inputCount}),
+                Nd4j.create(labels, new int[]{size, actionCount}),
+                null,
+                Nd4j.create(mask, new int[]{size, actionCount})
+        );
+        if (preProcessor != null) {
+            preProcessor.preProcess(dataSet);
+        }
+
+        return dataSet;
+    }
+
+    /**
+     * Starts a new epoch, states are visited in a new random order.
+     */
+    @Override
+    public void reset() {
+        for (int i = states.length - 1; i > 0; i--) {
+            final int j = random.nextInt(i + 1);
+
+            final int state = states[i];
+            states[i] = states[j];
+            states[j] = state;
+        }
+
+        position = 0;
+    }
+
+    @Override
+    public int inputColumns() {
+        return table.getInputCount();
+    }
+
+    @Override
+    public int totalOutcomes() {
+        return table.getActionCount();
+    }
+
+    @Override
+    public boolean resetSupported() {
+        return true;
+    }
+
+    /**
+     * Prefetching is done by wrapping the iterator explicitly, so that the depth of prefetching can be chosen.
+     */
+    @Override
+    public boolean asyncSupported() {
+        return false;
+    }
+
+    @Override
+    public int batch() {
+        return batchSize;
+    }
+
+    @Override
+    public void setPreProcessor(final DataSetPreProcessor preProcessor) {
+        this.preProcessor = preProcessor;
+    }
+
+    @Override
+    public DataSetPreProcessor getPreProcessor() {
+        return preProcessor;
+    }
+
+    @Override
+    public List<String> getLabels() {
+        return Arrays.asList("MOVE_UP", "MOVE_RIGHT", "MOVE_DOWN", "MOVE_LEFT");
+    }
+    // endregion
+}
@@ -0,0 +1,287 @@
+package com.liliumbosniacum.snakedl4j.network.trace;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.management.ObjectName;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Traces every step of the agent (time, episode, step, state, action, scores of all actions and reward) as fixed size
+ * binary records. Events are written into a preallocated ring buffer of primitive arrays without locks or allocation
+ * and a background thread drains it into a file. While tracing is switched off an event costs one volatile read, so
+ * the tracer can stay in the hot loops and be switched on at runtime over JMX when agent behaviour needs debugging.
+ * When the drainer falls behind, new events are dropped and counted instead of blocking the game.
+ * <p>
+ * File starts with a header of {@link #HEADER_SIZE} bytes: int magic, short version, short record size, long time in
+ * milliseconds and long {@link System#nanoTime()} at which the file was opened. Each record of {@link #RECORD_SIZE}
+ * bytes holds long nano time, int episode, int step, int state bits, int action, float reward and a float score of
+ * every action (NaN when the action was random). All values are little endian.
+ *
+ * @author mirza
+ */
+public final class EventTracer implements EventTracerMXBean {
+    // region Member
+    public static final int MAGIC = 0x534E4B54; // SNKT
+    public static final short VERSION = 1;
+    public static final int HEADER_SIZE = 24;
+    public static final int ACTION_COUNT = 4;
+    public static final int RECORD_SIZE = 8 + 4 * 4 + 4 + ACTION_COUNT * 4;
+
+    private static final Logger LOG = LoggerFactory.getLogger(EventTracer.class);
+    private static final ByteOrder BYTE_ORDER = ByteOrder.LITTLE_ENDIAN;
+    private static final int WRITE_BUFFER_RECORDS = 1024;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final Path file;
+    private final int mask;
+
+    // Ring buffer, one slot per event
+    private final long[] times;
+    private final int[] episodes;
+    private final int[] steps;
+    private final int[] states;
+    private final int[] actions;
+    private final float[] rewards;
+    private final float[] scores;
+    // Sequence number plus one of the event published in each slot, read by the drainer to know it is complete
+    private final AtomicLongArray published;
+
+    private final AtomicLong claimed = new AtomicLong();
+    private volatile long drained;
+    private volatile boolean enabled;
+    private volatile long writtenCount;
+    private final AtomicLong droppedCount = new AtomicLong();
+    // endregion
+
+    // region Constructor
+    /**
+     * Creates tracer and starts the drainer thread. Nothing is written until tracing is enabled.
+     *
+     * @param file File into which events are written, it is overwritten once tracing is enabled for the first time.
+     * @param capacity Number of events the ring buffer can hold, rounded up to a power of two.
+     * @param enabled True to start tracing right away.
+     */
+    public EventTracer(final Path file, final int capacity, final boolean enabled) {
+        final int size = Integer.highestOneBit(Math.max(capacity - 1, 1)) << 1;
+        this.file = file;
+        this.mask = size - 1;
+
+        this.times = new long[size];
+        this.episodes = new int[size];
+        this.steps = new int[size];
+        this.states = new int[size];
+        this.actions = new int[size];
+        this.rewards = new float[size];
+        this.scores = new float[size * ACTION_COUNT];
+        this.published = new AtomicLongArray(size);
+        this.enabled = enabled;
+
+        final Thread drainer = new Thread(this::drain, "event-tracer");
+        drainer.setDaemon(true);
+        drainer.start();
+    }
+    // endregion
+
+    /**
+     * Tracer configured by system properties is created on first use, so that JMX and the drainer thread are only
+     * set up by modes which trace.
+     */
+    private static final class DefaultHolder {
+        private static final EventTracer TRACER = createConfigured();
+    }
+
+    // region Implementation
+    /**
+     * Get tracer configured with system properties {@code snakedl4j.trace.file} (default {@code trace.bin}),
+     * {@code snakedl4j.trace.capacity} (default {@code 65536}) and {@code snakedl4j.trace.enabled} (default
+     * {@code false}). It is registered as a JMX bean, so that tracing can be switched on at runtime.
+     *
+     * @return Returns tracer shared by all training loops.
+     */
+    public static EventTracer getDefault() {
+        return DefaultHolder.TRACER;
+    }
+
+    /**
+     * Traces one step. Does nothing while tracing is switched off.
+     *
+     * @param episode Number of the game session.
+     * @param step Number of the move within the game session.
+     * @param stateBits State packed into bits in which the action was taken.
+     * @param action Index of the taken action.
+     * @param actionScores Scores of all actions, or null when they were not calculated (e.g. random action).
+     * @param reward Reward received for the action.
+     */
+    public void trace(final int episode,
+                      final int step,
+                      final int stateBits,
+                      final int action,
+                      final float[] actionScores,
+                      final double reward) {
+        if (!enabled) {
+            return;
+        }
+
+        // Claim a slot, or drop the event if the drainer has not yet written the one which would be overwritten
+        long sequence;
+        do {
+            sequence = claimed.get();
+            if (sequence - drained > mask) {
+                droppedCount.incrementAndGet();
+                return;
+            }
+        } while (!claimed.compareAndSet(sequence, sequence + 1));
+
+        final int slot = (int) (sequence & mask);
+        times[slot] = System.nanoTime();
+        episodes[slot] = episode;
+        steps[slot] = step;
+        states[slot] = stateBits;
+        actions[slot] = action;
+        rewards[slot] = (float) reward;
+        for (int i = 0; i < ACTION_COUNT; i++) {
+            scores[slot * ACTION_COUNT + i] = actionScores != null ? actionScores[i] : Float.NaN;
+        }
+
+        // Ordered write makes all fields above visible to the drainer before the slot is marked as published
+        published.lazySet(slot, sequence + 1);
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public void setEnabled(final boolean enabled) {
+        LOG.info("Event tracing into '{}' switched '{}'", file, enabled ? "on" : "off");
+        this.enabled = enabled;
+    }
+
+    @Override
+    public String getFile() {
+        return file.toString();
+    }
+
+    @Override
+    public long getWrittenCount() {
+        return writtenCount;
+    }
+
+    @Override
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+    // endregion
+
+    // region Helper
+    private static EventTracer createConfigured() {
+        final EventTracer tracer = new EventTracer(
+                Paths.get(System.getProperty("snakedl4j.trace.file", "trace.bin")),
+                Integer.getInteger("snakedl4j.trace.capacity", 1 << 16),
+                Boolean.getBoolean("snakedl4j.trace.enabled")
+        );
+
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(
+                    tracer,
+                    new ObjectName("com.liliumbosniacum.snakedl4j:type=EventTracer")
+            );
+        } catch (final Exception e) {
+            LOG.warn("Failed to register event tracer with JMX: '{}'", e.getMessage());
+        }
+
+        return tracer;
+    }
+
+    private void drain() {
+        final ByteBuffer buffer = ByteBuffer.allocateDirect(WRITE_BUFFER_RECORDS * RECORD_SIZE).order(BYTE_ORDER);
+        FileChannel channel = null;
+
+        while (!Thread.currentThread().isInterrupted()) {
+            final long sequence = drained;
+            final int slot = (int) (sequence & mask);
+            if (published.get(slot) != sequence + 1) {
+                // Nothing to drain, write out what was collected and wait for more
+                if (buffer.position() > 0) {
+                    channel = write(channel, buffer);
+                }
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+                continue;
+            }
+
+            buffer.putLong(times[slot])
+                    .putInt(episodes[slot])
+                    .putInt(steps[slot])
+                    .putInt(states[slot])
+                    .putInt(actions[slot])
+                    .putFloat(rewards[slot]);
+            for (int i = 0; i < ACTION_COUNT; i++) {
+                buffer.putFloat(scores[slot * ACTION_COUNT + i]);
+            }
+            // Slot can be reused by producers once it is copied
+            drained = sequence + 1;
+
+            if (!buffer.hasRemaining()) {
+                channel = write(channel, buffer);
+            }
+        }
+    }
+
+    private FileChannel write(final FileChannel channel, final ByteBuffer buffer) {
+        final int records = buffer.position() / RECORD_SIZE;
+        buffer.flip();
+
+        FileChannel target = channel;
+        try {
+            if (target == null) {
+                target = open();
+            }
+            while (buffer.hasRemaining()) {
+                target.write(buffer);
+            }
+            writtenCount += records;
+        } catch (final IOException e) {
+            LOG.error("Failed to write traced events, '{}' events are lost: '{}'", records, e.getMessage(), e);
+        }
+
+        buffer.clear();
+        return target;
+    }
+
+    private FileChannel open() throws IOException {
+        final FileChannel channel = FileChannel.open(
+                file,
+                StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING
+        );
+
+        final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(BYTE_ORDER);
+        header.putInt(MAGIC)
+                .putShort(VERSION)
+                .putShort((short) RECORD_SIZE)
+                .putLong(System.currentTimeMillis())
+                .putLong(System.nanoTime())
+                .flip();
+        while (header.hasRemaining()) {
+            channel.write(header);
+        }
+
+        LOG.info("Tracing events into '{}'", file);
+        return channel;
+    }
+    // endregion
+}
@@ -0,0 +1,36 @@
+package com.liliumbosniacum.snakedl4j.network.trace;
+
+/**
+ * Management interface of the {@link EventTracer}, so that tracing can be switched on and off at runtime with any JMX
+ * client (e.g. jconsole).
+ *
+ * @author mirza
+ */
+public interface EventTracerMXBean {
+    /**
+     * @return Returns true if events are being traced.
+     */
+    boolean isEnabled();
+
+    /**
+     * Switches tracing on or off. Events which are already in the ring buffer are still written when switched off.
+     *
+     * @param enabled True to trace events.
+     */
+    void setEnabled(boolean enabled);
+
+    /**
+     * @return Returns file into which events are written.
+     */
+    String getFile();
+
+    /**
+     * @return Returns number of events written to the file.
+     */
+    long getWrittenCount();
+
+    /**
+     * @return Returns number of events dropped because the ring buffer was full.
+     */
+    long getDroppedCount();
+}
@@ -0,0 +1,206 @@
+package com.liliumbosniacum.snakedl4j.network.util;
+
+import com.liliumbosniacum.snakedl4j.game.Game;
+import com.liliumbosniacum.snakedl4j.network.Action;
+import com.liliumbosniacum.snakedl4j.network.GameState;
+import com.liliumbosniacum.snakedl4j.network.HyperParameters;
+import com.liliumbosniacum.snakedl4j.network.distributed.ParameterClient;
+import com.liliumbosniacum.snakedl4j.network.distributed.ParameterServer;
+import org.deeplearning4j.nn.multilayer.MultiLayerNetwork;
+import org.nd4j.linalg.factory.Nd4j;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+/**
+ * Helper class used to train one network with several training processes on the same machine. One process runs the
+ * parameter server which owns the master parameters, while worker processes play their own games, fit their own copy
+ * of the network and every few moves push what they learned and pull what the others learned.
+ *
+ * @author mirza
+ */
+public final class DistributedTrainingHelper {
+    // region Member
+    private static final Logger LOG = LoggerFactory.getLogger(DistributedTrainingHelper.class);
+    private static final int PORT = Integer.getInteger("snakedl4j.distributed.port", 5006);
+    private static final int SYNC_STEPS = Integer.getInteger("snakedl4j.distributed.syncSteps", 200);
+    private static final int MAX_STALENESS = Integer.getInteger("snakedl4j.distributed.maxStaleness", 16);
+    private static final long REPORT_INTERVAL_MILLIS = 10_000;
+    private static final int REPORT_GAMES = 100;
+    // endregion
+
+    // region Constructor
+    private DistributedTrainingHelper() {}
+    // endregion
+
+    // region Implementation
+    /**
+     * Starts the parameter server and runs it until the application is stopped. Network is saved whenever workers
+     * changed it since the last report.
+     */
+    public static void startParameterServer() {
+        final MultiLayerNetwork network = NetworkUtil.getNetwork();
+        network.init();
+        final float[] parameters = network.params().toFloatVector();
+
+        try (final ParameterServer server = new ParameterServer(parameters, MAX_STALENESS, PORT)) {
+            long savedVersion = 0;
+            while (!Thread.currentThread().isInterrupted()) {
+                Thread.sleep(REPORT_INTERVAL_MILLIS);
+                server.logStatistics();
+
+                final long version = server.getParameters(parameters);
+                if (version != savedVersion) {
+                    setParameters(network, parameters);
+                    NetworkTrainingHelper.saveNetwork(network);
+                    savedVersion = version;
+                }
+            }
+        } catch (final IOException e) {
+            LOG.error("Failed to start parameter server: '{}'", e.getMessage(), e);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Starts training worker which synchronizes its network with the parameter server every few moves.
+     *
+     * @param random Random number generator of the worker.
+     */
+    public static void startWorker(final SplittableRandom random) {
+        final Game game = new Game(random.split());
+        final MultiLayerNetwork network = NetworkUtil.getNetwork();
+        network.init();
+
+        final int parameterCount = (int) network.numParams();
+        try (final ParameterClient client = new ParameterClient(PORT, parameterCount)) {
+            final WorkerSync sync = new WorkerSync(client, network, parameterCount);
+            sync.pull();
+            LOG.info("Worker starting '{}' games from version '{}'",
+                    NetworkTrainingHelper.NUMBER_OF_GAMES,
+                    client.getVersion()
+            );
+
+            double epsilon = HyperParameters.DEFAULT.getEpsilonStart();
+            long moveCount = 0;
+            long reportStart = System.nanoTime();
+            long reportMoveCount = 0;
+            int largestSnakeLength = 0;
+
+            for (int i = 1; i <= NetworkTrainingHelper.NUMBER_OF_GAMES; i++) {
+                game.initializeGame();
+                GameState state = game.getGameState();
+
+                int gameSessionScore = 0;
+                while (game.isOngoing()) {
+                    if (gameSessionScore < NetworkTrainingHelper.STUCK_SCORE) {
+                        game.endGame();
+                    }
+
+                    final Action action = NetworkUtil.epsilonGreedyAction(state, network, epsilon, random);
+                    epsilon -= HyperParameters.DEFAULT.getEpsilonDecay();
+
+                    final double score = GameStateHelper.getScoreForAction(action, game.getFeatureContext());
+                    game.changeDirection(action);
+                    game.move();
+
+                    final GameState nextState = game.getGameState();
+                    NetworkUtil.update(state, action, score, nextState, network);
+                    state = nextState;
+                    gameSessionScore += score;
+
+                    if (++moveCount % SYNC_STEPS == 0) {
+                        sync.pushAndPull();
+                    }
+                }
+
+                largestSnakeLength = Math.max(largestSnakeLength, game.getSnakeLength());
+                if (i % REPORT_GAMES == 0) {
+                    final double seconds = (System.nanoTime() - reportStart) / 1e9;
+                    sync.log(i, (moveCount - reportMoveCount) / seconds, seconds, largestSnakeLength);
+                    reportStart = System.nanoTime();
+                    reportMoveCount = moveCount;
+                }
+            }
+
+            // Hand over whatever was learned since the last synchronization
+            sync.pushAndPull();
+            LOG.info("Worker finished at version '{}', largest snake length was '{}'",
+                    client.getVersion(),
+                    largestSnakeLength
+            );
+        } catch (final IOException e) {
+            LOG.error("Worker lost connection to the parameter server: '{}'", e.getMessage(), e);
+        }
+    }
+    // endregion
+
+    // region Helper
+    private static void setParameters(final MultiLayerNetwork network, final float[] parameters) {
+        network.setParams(Nd4j.create(parameters, new int[]{1, parameters.length}));
+    }
+
+    /**
+     * Keeps parameters pulled last, so that only the change made by this worker since then is pushed.
+     */
+    private static final class WorkerSync {
+        private final ParameterClient client;
+        private final MultiLayerNetwork network;
+        private final float[] pulled;
+        private final float[] delta;
+
+        private long syncCount;
+        private long rejectedCount;
+        private long syncNanos;
+
+        private WorkerSync(final ParameterClient client, final MultiLayerNetwork network, final int parameterCount) {
+            this.client = client;
+            this.network = network;
+            this.pulled = new float[parameterCount];
+            this.delta = new float[parameterCount];
+        }
+
+        private void pull() throws IOException {
+            client.pull(pulled);
+            setParameters(network, pulled);
+        }
+
+        private void pushAndPull() throws IOException {
+            final long start = System.nanoTime();
+
+            final float[] current = network.params().toFloatVector();
+            for (int i = 0; i < delta.length; i++) {
+                delta[i] = current[i] - pulled[i];
+            }
+
+            // Rejected delta was based on too old parameters, it is dropped and training continues from fresh ones
+            if (!client.push(delta)) {
+                rejectedCount++;
+                LOG.debug("Delta based on version '{}' was rejected as too stale", client.getVersion());
+            }
+            pull();
+
+            syncCount++;
+            syncNanos += System.nanoTime() - start;
+        }
+
+        private void log(final int games, final double movesPerSecond, final double seconds, final int largest) {
+            LOG.info("Games '{}': '{}' moves/s, version '{}', '{}' syncs ('{}' rejected), '{}'% of time syncing, "
+                            + "largest snake length '{}'",
+                    games,
+                    String.format(Locale.ROOT, "%.0f", movesPerSecond),
+                    client.getVersion(),
+                    syncCount,
+                    rejectedCount,
+                    String.format(Locale.ROOT, "%.1f", syncNanos / 1e7 / seconds),
+                    largest
+            );
+            syncNanos = 0;
+        }
+    }
+    // endregion
+}
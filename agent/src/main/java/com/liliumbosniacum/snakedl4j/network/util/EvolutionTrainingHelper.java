@@ -0,0 +1,102 @@
+package com.liliumbosniacum.snakedl4j.network.util;
+
+import com.liliumbosniacum.snakedl4j.network.evolution.EvolutionStrategy;
+import com.liliumbosniacum.snakedl4j.network.inference.DenseNetwork;
+import org.deeplearning4j.nn.multilayer.MultiLayerNetwork;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.SplittableRandom;
+
+/**
+ * Helper class used to train the network with evolution strategies, see {@link EvolutionStrategy}. Network is only
+ * used to create the initial parameters and to save the trained ones, all games are played by plain java networks on
+ * all cores.
+ *
+ * @author mirza
+ */
+public final class EvolutionTrainingHelper {
+    // region Member
+    private static final Logger LOG = LoggerFactory.getLogger(EvolutionTrainingHelper.class);
+
+    private static final int GENERATIONS = Integer.getInteger("snakedl4j.evolution.generations", 200);
+    private static final int PAIR_COUNT = Integer.getInteger("snakedl4j.evolution.pairs", 32);
+    private static final int GAME_COUNT = Integer.getInteger("snakedl4j.evolution.games", 8);
+    private static final int MAX_MOVES = Integer.getInteger("snakedl4j.evolution.maxMoves", 500);
+    private static final int THREAD_COUNT = Integer.getInteger(
+            "snakedl4j.evolution.threads",
+            Runtime.getRuntime().availableProcessors()
+    );
+    private static final double SIGMA = Double.parseDouble(System.getProperty("snakedl4j.evolution.sigma", "0.05"));
+    private static final double LEARNING_RATE = Double.parseDouble(
+            System.getProperty("snakedl4j.evolution.learningRate", "0.02")
+    );
+    private static final int REPORT_GENERATIONS = 10;
+    // endregion
+
+    // region Constructor
+    private EvolutionTrainingHelper() {}
+    // endregion
+
+    // region Implementation
+    /**
+     * Trains the network with evolution strategies and saves it like the other training modes.
+     *
+     * @param random Random number generator from which all seeds of noise and games are drawn.
+     */
+    public static void startEvolutionTraining(final SplittableRandom random) {
+        final long startTime = System.currentTimeMillis();
+        LOG.info("Starting evolution training with '{}' pairs of perturbations evaluated on '{}' games by '{}' threads",
+                PAIR_COUNT,
+                GAME_COUNT,
+                THREAD_COUNT
+        );
+
+        final MultiLayerNetwork network = NetworkUtil.getNetwork();
+        network.init();
+        final DenseNetwork initial = DenseNetwork.fromNetwork(network);
+
+        try (EvolutionStrategy strategy = new EvolutionStrategy(
+                initial.getLayerSizes(),
+                initial.getParameters(),
+                PAIR_COUNT,
+                SIGMA,
+                LEARNING_RATE,
+                GAME_COUNT,
+                MAX_MOVES,
+                THREAD_COUNT
+        )) {
+            final long gamesPerGeneration = 2L * PAIR_COUNT * GAME_COUNT;
+            long reportStart = System.nanoTime();
+
+            for (int generation = 1; generation <= GENERATIONS; generation++) {
+                strategy.runGeneration(random);
+
+                if (generation % REPORT_GENERATIONS == 0) {
+                    final long nanos = System.nanoTime() - reportStart;
+                    LOG.info("Generation '{}': mean score '{}', best score '{}', longest snake '{}', '{}' games/s",
+                            generation,
+                            Math.round(strategy.getMeanScore()),
+                            Math.round(strategy.getBestScore()),
+                            strategy.getLongestSnake(),
+                            gamesPerGeneration * REPORT_GENERATIONS * 1_000_000_000L / Math.max(nanos, 1)
+                    );
+                    reportStart = System.nanoTime();
+                }
+            }
+
+            new DenseNetwork(initial.getLayerSizes(), strategy.getParameters()).copyTo(network);
+            LOG.info("All generations are over in '{}'ms, largest snake length was '{}'",
+                    System.currentTimeMillis() - startTime,
+                    strategy.getLongestSnake()
+            );
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            LOG.warn("Evolution training was interrupted");
+            return;
+        }
+
+        NetworkTrainingHelper.saveNetwork(network);
+    }
+    // endregion
+}
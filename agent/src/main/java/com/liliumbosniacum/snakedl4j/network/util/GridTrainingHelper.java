@@ -0,0 +1,159 @@
+package com.liliumbosniacum.snakedl4j.network.util;
+
+import com.liliumbosniacum.snakedl4j.game.Game;
+import com.liliumbosniacum.snakedl4j.network.Action;
+import com.liliumbosniacum.snakedl4j.network.HyperParameters;
+import com.liliumbosniacum.snakedl4j.network.observation.GridObservationBatch;
+import org.deeplearning4j.nn.multilayer.MultiLayerNetwork;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.factory.Nd4j;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.SplittableRandom;
+
+/**
+ * Helper class used to train the convolutional network which sees the whole game world. Many games are played in
+ * lockstep, so that observations of all of them are scored with one forward pass and the network is fitted on one
+ * batch per step. Observations of current and next step are kept in two preallocated batches which swap roles.
+ *
+ * @author mirza
+ */
+public final class GridTrainingHelper {
+    // region Member
+    private static final Logger LOG = LoggerFactory.getLogger(GridTrainingHelper.class);
+    private static final String NETWORK_NAME = "trained_grid_network.zip";
+    private static final int GAME_COUNT = Integer.getInteger("snakedl4j.grid.games", 32);
+    private static final int REPORT_GAMES = 100;
+    private static final int ACTION_COUNT = Action.values().length;
+    // endregion
+
+    // region Constructor
+    private GridTrainingHelper() {}
+    // endregion
+
+    // region Implementation
+    public static void startGridTraining(final SplittableRandom random) {
+        final long startTime = System.currentTimeMillis();
+        LOG.info("Starting grid training with '{}' games played at once", GAME_COUNT);
+
+        final HyperParameters hyperParameters = HyperParameters.DEFAULT;
+        final MultiLayerNetwork network = NetworkUtil.getGridNetwork(hyperParameters);
+        network.init();
+
+        final Game[] games = new Game[GAME_COUNT];
+        final int[] sessionScores = new int[GAME_COUNT];
+        final int[] actions = new int[GAME_COUNT];
+        final double[] rewards = new double[GAME_COUNT];
+        final boolean[] terminals = new boolean[GAME_COUNT];
+        final float[] labels = new float[GAME_COUNT * ACTION_COUNT];
+        int[] actionMasks = new int[GAME_COUNT];
+        int[] nextActionMasks = new int[GAME_COUNT];
+
+        GridObservationBatch observations = new GridObservationBatch(GAME_COUNT);
+        GridObservationBatch nextObservations = new GridObservationBatch(GAME_COUNT);
+        for (int i = 0; i < GAME_COUNT; i++) {
+            games[i] = new Game(random.split());
+            games[i].initializeGame();
+            observations.encode(i, games[i]);
+            actionMasks[i] = games[i].getActionMask();
+        }
+
+        double epsilon = hyperParameters.getEpsilonStart();
+        int gamesPlayed = 0;
+        int largestSnakeLength = 0;
+        long encodeNanos = 0;
+        long encodeCount = 0;
+
+        while (gamesPlayed < NetworkTrainingHelper.NUMBER_OF_GAMES) {
+            final INDArray output = network.output(observations.getObservations());
+
+            for (int i = 0; i < GAME_COUNT; i++) {
+                final Game game = games[i];
+                if (random.nextDouble() < epsilon) {
+                    actions[i] = NetworkUtil.KEEP_UNSAFE_ACTIONS
+                            ? random.nextInt(ACTION_COUNT)
+                            : Action.getRandomAction(random, actionMasks[i]).getActionIndex();
+                } else {
+                    actions[i] = NetworkUtil.getMaxValueIndex(output, i, actionMasks[i]);
+                }
+
+                final Action action = Action.getActionByIndex(actions[i]);
+                rewards[i] = GameStateHelper.getScoreForAction(action, game.getFeatureContext());
+                game.changeDirection(action);
+                game.move();
+
+                sessionScores[i] += rewards[i];
+                if (sessionScores[i] < NetworkTrainingHelper.STUCK_SCORE) {
+                    game.endGame();
+                }
+
+                terminals[i] = !game.isOngoing();
+                if (terminals[i]) {
+                    gamesPlayed++;
+                    if (game.getSnakeLength() > largestSnakeLength) {
+                        largestSnakeLength = game.getSnakeLength();
+                        LOG.info("Current longest snake equals : '{}' at game session : '{}'",
+                                largestSnakeLength,
+                                gamesPlayed
+                        );
+                    }
+                    if (gamesPlayed % REPORT_GAMES == 0) {
+                        LOG.info("Played '{}' games, encoding takes '{}'ns per observation",
+                                gamesPlayed,
+                                encodeNanos / encodeCount
+                        );
+                    }
+
+                    // Next observation of a finished game is not used, so the next game can start right away
+                    game.initializeGame();
+                    sessionScores[i] = 0;
+                }
+
+                final long encodeStart = System.nanoTime();
+                nextObservations.encode(i, game);
+                nextActionMasks[i] = game.getActionMask();
+                encodeNanos += System.nanoTime() - encodeStart;
+                encodeCount++;
+            }
+            epsilon -= hyperParameters.getEpsilonDecay();
+
+            final INDArray nextOutput = network.output(nextObservations.getObservations());
+            for (int i = 0; i < GAME_COUNT; i++) {
+                for (int action = 0; action < ACTION_COUNT; action++) {
+                    labels[i * ACTION_COUNT + action] = output.getFloat(i, action);
+                }
+
+                double targetScore = rewards[i];
+                if (!terminals[i]) { // There is nothing to expect after the game is over
+                    targetScore += hyperParameters.getDiscountFactor()
+                            * NetworkUtil.getMaxValue(nextOutput, i, nextActionMasks[i]);
+                }
+                labels[i * ACTION_COUNT + actions[i]] = (float) targetScore;
+            }
+            network.fit(observations.getObservations(), Nd4j.create(labels, new int[]{GAME_COUNT, ACTION_COUNT}));
+
+            // Next observations become current ones, and the old current batch is overwritten on the next step
+            final GridObservationBatch swap = observations;
+            observations = nextObservations;
+            nextObservations = swap;
+            final int[] swapMasks = actionMasks;
+            actionMasks = nextActionMasks;
+            nextActionMasks = swapMasks;
+        }
+
+        LOG.info("All game sessions are over in '{}'ms, largest snake length was '{}'",
+                System.currentTimeMillis() - startTime,
+                largestSnakeLength
+        );
+
+        try {
+            network.save(new File(NETWORK_NAME));
+        } catch (IOException e) {
+            LOG.error("Failed to save network: '{}'", e.getMessage(), e);
+        }
+    }
+    // endregion
+}
@@ -0,0 +1,210 @@
+package com.liliumbosniacum.snakedl4j.network.util;
+
+import com.liliumbosniacum.snakedl4j.network.HyperParameters;
+import com.liliumbosniacum.snakedl4j.network.SearchSpace;
+import org.nd4j.linalg.factory.Nd4j;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Helper class used to run a hyperparameter sweep. Many headless training jobs (trials) are run concurrently, each one
+ * with its own hyperparameters. Trials are stopped early using successive halving, after every rung only the best
+ * part of trials (by largest snake length) is promoted and trained further. Results of all trials are written into a
+ * CSV table. Sweep can be configured with following system properties:
+ * <ul>
+ *     <li>{@code snakedl4j.sweep.trials} - number of randomly picked combinations, 0 or less for the full grid</li>
+ *     <li>{@code snakedl4j.sweep.jobs} - number of trials trained at the same time</li>
+ *     <li>{@code snakedl4j.sweep.minGames} - number of games in the first rung</li>
+ *     <li>{@code snakedl4j.sweep.eta} - reduction factor, only every eta-th trial is promoted</li>
+ *     <li>{@code snakedl4j.sweep.results} - file the results are written into</li>
+ * </ul>
+ *
+ * @author mirza
+ */
+public final class HyperParameterSweepHelper {
+    // region Member
+    private static final Logger LOG = LoggerFactory.getLogger(HyperParameterSweepHelper.class);
+    private static final int CORE_COUNT = Runtime.getRuntime().availableProcessors();
+    private static final int TRIAL_COUNT = Integer.getInteger("snakedl4j.sweep.trials", 27);
+    private static final int JOB_COUNT = Math.max(1, Integer.getInteger("snakedl4j.sweep.jobs", CORE_COUNT));
+    private static final int MIN_GAMES = Math.max(1, Integer.getInteger("snakedl4j.sweep.minGames", 250));
+    private static final int REDUCTION_FACTOR = Math.max(2, Integer.getInteger("snakedl4j.sweep.eta", 3));
+    private static final String RESULTS_FILE = System.getProperty("snakedl4j.sweep.results", "sweep_results.csv");
+
+    // Trials of a higher rung rank first, within the same rung larger snakes rank first
+    private static final Comparator<SweepTrial> RANKING = Comparator
+            .comparingInt(SweepTrial::getRung)
+            .thenComparingInt(SweepTrial::getMaxSnakeLength)
+            .thenComparingDouble(SweepTrial::getMeanSnakeLength)
+            .reversed();
+    // endregion
+
+    // region Constructor
+    private HyperParameterSweepHelper() {}
+    // endregion
+
+    // region Implementation
+    public static void startSweep(final SplittableRandom random) {
+        final Thread sweep = new Thread(() -> sweep(random), "sweep");
+        sweep.start();
+    }
+    // endregion
+
+    // region Helper
+    private static void sweep(final SplittableRandom random) {
+        final long startTime = System.currentTimeMillis();
+        final SearchSpace searchSpace = SearchSpace.DEFAULT;
+        final List<HyperParameters> combinations = TRIAL_COUNT > 0
+                ? searchSpace.sample(TRIAL_COUNT, random)
+                : searchSpace.getGrid();
+
+        final List<SweepTrial> trials = new ArrayList<>(combinations.size());
+        for (final HyperParameters hyperParameters : combinations) {
+            trials.add(new SweepTrial(
+                    trials.size() + 1,
+                    hyperParameters,
+                    random.split(),
+                    NetworkTrainingHelper.NUMBER_OF_GAMES
+            ));
+        }
+
+        // Jobs share the cores, so every job is limited to its part of them instead of each one using all of them
+        final int threadsPerJob = Math.max(1, CORE_COUNT / JOB_COUNT);
+        LOG.info("Starting sweep of '{}' trials with '{}' jobs at a time and '{}' ND4J threads per job",
+                trials.size(),
+                JOB_COUNT,
+                threadsPerJob
+        );
+
+        final ExecutorService executor = Executors.newFixedThreadPool(JOB_COUNT, createThreadFactory(threadsPerJob));
+        try {
+            List<SweepTrial> promoted = trials;
+            int games = Math.min(MIN_GAMES, NetworkTrainingHelper.NUMBER_OF_GAMES);
+            for (int rung = 0; ; rung++) {
+                LOG.info("Rung '{}': training '{}' trials up to '{}' games", rung, promoted.size(), games);
+                train(executor, promoted, games, rung);
+                promoted.sort(RANKING);
+
+                final SweepTrial best = promoted.get(0);
+                LOG.info("Rung '{}' done, best trial '{}' reached snake length '{}' with '{}'",
+                        rung,
+                        best.getId(),
+                        best.getMaxSnakeLength(),
+                        best.getHyperParameters()
+                );
+
+                if (games >= NetworkTrainingHelper.NUMBER_OF_GAMES) {
+                    break;
+                }
+
+                // Successive halving, only the best trials are promoted to the next rung
+                final int promotedCount = Math.max(1, promoted.size() / REDUCTION_FACTOR);
+                promoted.subList(promotedCount, promoted.size()).forEach(SweepTrial::stop);
+                promoted = new ArrayList<>(promoted.subList(0, promotedCount));
+                games = (int) Math.min((long) games * REDUCTION_FACTOR, NetworkTrainingHelper.NUMBER_OF_GAMES);
+            }
+        } catch (final InterruptedException e) {
+            LOG.error("Sweep was interrupted", e);
+            Thread.currentThread().interrupt();
+        } finally {
+            executor.shutdownNow();
+        }
+
+        trials.sort(RANKING);
+        writeResults(trials);
+
+        LOG.info("Sweep is over in '{}'ms, best hyperparameters are '{}'",
+                System.currentTimeMillis() - startTime,
+                trials.get(0).getHyperParameters()
+        );
+    }
+
+    private static void train(final ExecutorService executor,
+                              final List<SweepTrial> trials,
+                              final int games,
+                              final int rung) throws InterruptedException {
+        final List<Callable<Void>> jobs = new ArrayList<>(trials.size());
+        for (final SweepTrial trial : trials) {
+            trial.setRung(rung);
+            jobs.add(() -> {
+                trial.train(games);
+                return null;
+            });
+        }
+
+        final List<Future<Void>> results = executor.invokeAll(jobs);
+        for (int i = 0; i < results.size(); i++) {
+            try {
+                results.get(i).get();
+            } catch (final ExecutionException e) {
+                LOG.error("Trial '{}' failed: '{}'", trials.get(i).getId(), e.getCause().getMessage(), e.getCause());
+                trials.get(i).fail();
+            }
+        }
+    }
+
+    private static ThreadFactory createThreadFactory(final int threadsPerJob) {
+        final AtomicInteger threadCount = new AtomicInteger();
+
+        return runnable -> new Thread(() -> {
+            Nd4j.getEnvironment().setMaxThreads(threadsPerJob);
+            Nd4j.getEnvironment().setMaxMasterThreads(threadsPerJob);
+            runnable.run();
+        }, "sweep-job-" + threadCount.incrementAndGet());
+    }
+
+    private static void writeResults(final List<SweepTrial> trials) {
+        try (BufferedWriter writer = Files.newBufferedWriter(Paths.get(RESULTS_FILE))) {
+            writer.write("rank,trial,learning_rate,l2,hidden_layer_count,discount_factor,epsilon_start,"
+                    + "epsilon_decay,view_distance,rung,games,max_snake_length,mean_snake_length,training_ms,failed");
+            writer.newLine();
+
+            for (int i = 0; i < trials.size(); i++) {
+                final SweepTrial trial = trials.get(i);
+                final HyperParameters hyperParameters = trial.getHyperParameters();
+
+                writer.write(String.format(Locale.ROOT, "%d,%d,%s,%s,%d,%s,%s,%s,%d,%d,%d,%d,%.2f,%d,%b",
+                        i + 1,
+                        trial.getId(),
+                        hyperParameters.getLearningRate(),
+                        hyperParameters.getL2(),
+                        hyperParameters.getHiddenLayerCount(),
+                        hyperParameters.getDiscountFactor(),
+                        hyperParameters.getEpsilonStart(),
+                        hyperParameters.getEpsilonDecay(),
+                        hyperParameters.getViewDistance(),
+                        trial.getRung(),
+                        trial.getGamesPlayed(),
+                        trial.getMaxSnakeLength(),
+                        trial.getMeanSnakeLength(),
+                        TimeUnit.NANOSECONDS.toMillis(trial.getTrainingNanos()),
+                        trial.isFailed()
+                ));
+                writer.newLine();
+            }
+
+            LOG.info("Results of '{}' trials written to '{}'", trials.size(), RESULTS_FILE);
+        } catch (final IOException e) {
+            LOG.error("Failed to write sweep results: '{}'", e.getMessage(), e);
+        }
+    }
+    // endregion
+}
@@ -0,0 +1,59 @@
+package com.liliumbosniacum.snakedl4j.network.util;
+
+import com.liliumbosniacum.snakedl4j.network.inference.InferenceServer;
+import com.liliumbosniacum.snakedl4j.network.inference.InferenceService;
+import org.deeplearning4j.nn.multilayer.MultiLayerNetwork;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Helper class used to serve trained network to games running in other JVMs on the same machine.
+ *
+ * @author mirza
+ */
+public final class InferenceServerHelper {
+    // region Member
+    private static final Logger LOG = LoggerFactory.getLogger(InferenceServerHelper.class);
+    private static final int PORT = Integer.getInteger("snakedl4j.inference.port", 5005);
+    private static final int MAX_BATCH_SIZE = Integer.getInteger("snakedl4j.inference.maxBatch", 64);
+    private static final int MAX_WAIT_MICROS = Integer.getInteger("snakedl4j.inference.maxWaitMicros", 200);
+    private static final int QUEUE_CAPACITY = Integer.getInteger("snakedl4j.inference.queueCapacity", 4096);
+    private static final long STATISTICS_INTERVAL_MILLIS = 10_000;
+    // endregion
+
+    // region Constructor
+    private InferenceServerHelper() {}
+    // endregion
+
+    // region Implementation
+    /**
+     * Loads the trained network and serves it until the application is stopped.
+     */
+    public static void startServing() {
+        final MultiLayerNetwork network = NetworkEvaluationHelper.loadNetwork();
+        final InferenceService service = new InferenceService(
+                NetworkEvaluationHelper.createPolicy(network),
+                (int) network.layerInputSize(0),
+                MAX_BATCH_SIZE,
+                TimeUnit.MICROSECONDS.toNanos(MAX_WAIT_MICROS),
+                QUEUE_CAPACITY
+        );
+
+        try (final InferenceServer ignored = new InferenceServer(service, PORT)) {
+            while (!Thread.currentThread().isInterrupted()) {
+                Thread.sleep(STATISTICS_INTERVAL_MILLIS);
+                service.logStatistics();
+            }
+        } catch (final IOException e) {
+            LOG.error("Failed to start inference server: '{}'", e.getMessage(), e);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            service.close();
+        }
+    }
+    // endregion
+}
@@ -0,0 +1,247 @@
+package com.liliumbosniacum.snakedl4j.network.util;
+
+import com.liliumbosniacum.snakedl4j.game.Game;
+import com.liliumbosniacum.snakedl4j.game.helper.GameUtils;
+import com.liliumbosniacum.snakedl4j.game.playback.PlaybackControl;
+import com.liliumbosniacum.snakedl4j.network.Action;
+import com.liliumbosniacum.snakedl4j.network.GameState;
+import com.liliumbosniacum.snakedl4j.network.HyperParameters;
+import com.liliumbosniacum.snakedl4j.network.inference.InferenceMode;
+import com.liliumbosniacum.snakedl4j.network.inference.InferenceReport;
+import com.liliumbosniacum.snakedl4j.network.inference.NetworkPolicy;
+import com.liliumbosniacum.snakedl4j.network.inference.Policy;
+import com.liliumbosniacum.snakedl4j.network.model.ModelFile;
+import com.liliumbosniacum.snakedl4j.network.model.ModelWatcher;
+import com.liliumbosniacum.snakedl4j.network.recording.TrajectoryWriter;
+import org.deeplearning4j.nn.multilayer.MultiLayerNetwork;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Helper class used to ease out network evaluation.
+ *
+ * @author mirza
+ */
+public class NetworkEvaluationHelper {
+    // region Member
+    private static final Logger LOG = LoggerFactory.getLogger(NetworkEvaluationHelper.class);
+    private static final int NUMBER_OF_GAMES = 100;
+    private static final InferenceMode INFERENCE_MODE = InferenceMode.create(
+            System.getProperty("snakedl4j.inference", InferenceMode.FP32.name())
+    );
+    /**
+     * System property holding the model file or checkpoint directory which is watched for new models during evaluation.
+     */
+    public static final String WATCH_PROPERTY = "snakedl4j.evaluation.watch";
+    // endregion
+
+    // region Constructor
+    private NetworkEvaluationHelper() {}
+    // endregion
+
+    // region Implementation
+    public static void startEvaluating(final Game game, final PlaybackControl playbackControl) {
+        LOG.info("Starting evaluation of trained network");
+
+        final Thread evaluate = new Thread(() -> {
+            final MultiLayerNetwork network = loadNetwork();
+            final ModelWatcher<Policy> watcher = watchConfigured(createPolicy(network));
+            ModelWatcher.Version<Policy> model = watcher.getCurrent();
+            final TrajectoryWriter recorder = TrajectoryWriter.openConfigured(
+                    GameStateHelper.getNumberOfPossibleStates()
+            );
+
+            int highscore = 0;
+            for (int i = 1; i <= NUMBER_OF_GAMES; i++) {
+                game.initializeGame();
+
+                int score = 0;
+                GameState gameState = game.getGameState();
+                final ModelWatcher.Version<Policy> firstModel = model;
+
+                if (recorder != null) {
+                    recorder.startEpisode(game.getEpisodeSeed(), GameUtils.getCellIndex(game.getFoodPosition()));
+                }
+
+                while (game.isOngoing()) {
+                    // New model is picked up between two moves, it was already loaded by the watcher thread
+                    model = watcher.getCurrent();
+
+                    // Get action from the network
+                    final Action action = Action.getActionByIndex(
+                            model.getModel().getActionIndex(gameState.getStateBits(), gameState.getActionMask())
+                    );
+
+                    // Reward is not needed for evaluation, it is only calculated to be recorded
+                    final double reward = recorder != null
+                            ? GameStateHelper.getScoreForAction(action, game.getFeatureContext())
+                            : 0;
+
+                    // Change direction based on outputted action
+                    game.changeDirection(action);
+
+                    // Move the player
+                    final int snakeLengthBeforeMove = game.getSnakeLength();
+                    game.move();
+
+                    // Get next (current) state
+                    final GameState nextGameState = game.getGameState();
+
+                    if (recorder != null) {
+                        recorder.recordStep(
+                                gameState.getStateBits(),
+                                action.getActionIndex(),
+                                reward,
+                                nextGameState.getStateBits(),
+                                !game.isOngoing(),
+                                game.getSnakeLength() > snakeLengthBeforeMove,
+                                GameUtils.getCellIndex(game.getFoodPosition())
+                        );
+                    }
+                    gameState = nextGameState;
+
+                    // Get current score
+                    score = game.getSnakeLength();
+
+                    // Wait so that the user can see what exactly the snake is doing (depends on the playback mode)
+                    playbackControl.afterMove(game);
+                }
+
+                // Written after every game, so that an evaluation which is stopped keeps all finished games
+                if (recorder != null) {
+                    recorder.flush();
+                }
+
+                if (model == firstModel) {
+                    LOG.info("Session '{}' ended with score of '{}' by model version '{}'", i, score, model);
+                } else {
+                    LOG.info("Session '{}' ended with score of '{}' by model versions '{}' to '{}'",
+                            i,
+                            score,
+                            firstModel,
+                            model
+                    );
+                }
+
+                if (score > highscore) {
+                    highscore = score;
+                }
+            }
+
+            LOG.info("Highscore achieved by network is '{}'", highscore);
+
+            if (recorder != null) {
+                recorder.close();
+            }
+            try {
+                watcher.close();
+            } catch (final IOException e) {
+                LOG.warn("Failed to stop watching models: '{}'", e.getMessage());
+            }
+        });
+
+        evaluate.start();
+    }
+    // endregion
+
+    // region Helper
+    static Policy createPolicy(final MultiLayerNetwork network) {
+        final int actionCount = Action.values().length;
+        final Policy policy = INFERENCE_MODE.createPolicy(network, actionCount);
+
+        if (INFERENCE_MODE != InferenceMode.FP32) {
+            // Check how much was lost by running the network in lower precision
+            InferenceReport.compare(
+                    new NetworkPolicy(network, actionCount),
+                    policy,
+                    (int) network.layerInputSize(0)
+            ).log(INFERENCE_MODE.name());
+        }
+
+        LOG.info("Running network in '{}' mode", INFERENCE_MODE);
+        return policy;
+    }
+
+    /*
+    Without a watched path the watcher only holds the initial policy, so the game loop is the same in both cases.
+     */
+    private static ModelWatcher<Policy> watchConfigured(final Policy policy) {
+        final String path = System.getProperty(WATCH_PROPERTY);
+        try {
+            return path != null
+                    ? new ModelWatcher<>(Paths.get(path), policy, file -> createPolicy(ModelFile.read(file)))
+                    : new ModelWatcher<>(policy);
+        } catch (final IOException e) {
+            LOG.error("Failed to watch '{}' for new models: '{}'", path, e.getMessage(), e);
+            return new ModelWatcher<>(policy);
+        }
+    }
+
+    static MultiLayerNetwork loadNetwork() {
+        final File modelFile = new File(ModelFile.MODEL_NAME);
+        final File networkFile = new File(NetworkUtil.NETWORK_NAME);
+        final long start = System.nanoTime();
+
+        // Model file holds only parameters and is mapped instead of unzipped, it is used unless the zip is newer
+        if (modelFile.isFile() && modelFile.lastModified() >= networkFile.lastModified()) {
+            try {
+                final MultiLayerNetwork network = ModelFile.read(modelFile);
+                LOG.info("Loaded model file in '{}'ms", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+                return network;
+            } catch (IOException e) {
+                LOG.error("Failed to load model file: '{}'", e.getMessage(), e);
+            }
+        }
+
+        final MultiLayerNetwork network;
+        try {
+            network = MultiLayerNetwork.load(networkFile, false);
+            LOG.info("Loaded network in '{}'ms", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        } catch (IOException e) {
+            LOG.error("Failed to load network: '{}'", e.getMessage(), e);
+            return NetworkUtil.getNetwork();
+        }
+
+        writeModelFile(network, modelFile);
+        return network;
+    }
+
+    // Next start can map the model file instead, failing to write it must not throw away the loaded network
+    private static void writeModelFile(final MultiLayerNetwork network, final File modelFile) {
+        final HyperParameters hyperParameters = getHyperParameters(network);
+        if (ModelFile.getParameterCount(hyperParameters) != network.numParams()) {
+            LOG.warn("Loaded network is not built like the default one, model file is not written");
+            return;
+        }
+
+        try {
+            ModelFile.write(network, hyperParameters, modelFile);
+        } catch (IOException e) {
+            LOG.warn("Failed to write model file, network will be unzipped again on next start: '{}'",
+                    e.getMessage(),
+                    e
+            );
+        }
+    }
+
+    // Hidden size and view distance are read from the shape of the first layer, zip could come from a sweep
+    private static HyperParameters getHyperParameters(final MultiLayerNetwork network) {
+        final HyperParameters defaults = HyperParameters.DEFAULT;
+
+        return new HyperParameters(
+                defaults.getLearningRate(),
+                defaults.getL2(),
+                network.layerSize(0),
+                defaults.getDiscountFactor(),
+                defaults.getEpsilonStart(),
+                defaults.getEpsilonDecay(),
+                GameStateHelper.getViewDistance((int) network.layerInputSize(0))
+        );
+    }
+    // endregion
+}
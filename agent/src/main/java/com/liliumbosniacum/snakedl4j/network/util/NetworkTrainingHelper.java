@@ -0,0 +1,306 @@
+package com.liliumbosniacum.snakedl4j.network.util;
+
+import com.liliumbosniacum.snakedl4j.game.Game;
+import com.liliumbosniacum.snakedl4j.game.helper.GameUtils;
+import com.liliumbosniacum.snakedl4j.network.Action;
+import com.liliumbosniacum.snakedl4j.network.GameState;
+import com.liliumbosniacum.snakedl4j.network.HyperParameters;
+import com.liliumbosniacum.snakedl4j.network.model.ModelFile;
+import com.liliumbosniacum.snakedl4j.network.recording.TrajectoryWriter;
+import com.liliumbosniacum.snakedl4j.network.replay.NStepAccumulator;
+import com.liliumbosniacum.snakedl4j.network.replay.PrioritizedReplayBuffer;
+import com.liliumbosniacum.snakedl4j.network.replay.TransitionBatch;
+import com.liliumbosniacum.snakedl4j.network.table.QTable;
+import com.liliumbosniacum.snakedl4j.network.trace.EventTracer;
+import org.deeplearning4j.nn.multilayer.MultiLayerNetwork;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.SplittableRandom;
+
+/**
+ * Helper class used to ease out network training.
+ *
+ * @author mirza
+ */
+public final class NetworkTrainingHelper {
+    // region Member
+    private static final Logger LOG = LoggerFactory.getLogger(NetworkTrainingHelper.class);
+    static final int NUMBER_OF_GAMES = 5_000;
+    static final int STUCK_SCORE = -500; // Score which indicates that the player is stuck (running in a loop)
+
+    // Prioritized experience replay
+    private static final int REPLAY_CAPACITY = 100_000;
+    private static final int REPLAY_BATCH_SIZE = 32;
+    private static final int REPLAY_TRAIN_FREQUENCY = 4; // Number of moves between two fits
+    private static final double PRIORITY_ALPHA = 0.6;
+    private static final double PRIORITY_BETA_START = 0.4; // Annealed to 1 until the last game
+
+    // Number of moves whose rewards are summed up into one transition, 1 trains on single moves
+    private static final int N_STEPS = Integer.getInteger("snakedl4j.nStep", 1);
+    private static final int MAX_N_STEPS = Byte.MAX_VALUE; // Replay buffer stores number of moves in a byte
+
+    // Snake lengths for which the number of games needed to reach them is logged
+    private static final int[] LENGTH_MILESTONES = {5, 10, 15, 20, 25, 30, 40, 50};
+    // endregion
+
+    // region Constructor
+    private NetworkTrainingHelper() {}
+    // endregion
+
+    // region Implementation
+    public static void startTraining(final Game game, final SplittableRandom random) {
+        startTraining(game, random, null, false);
+    }
+
+    /**
+     * Starts training where every move is stored in a prioritized replay buffer and network is fitted on sampled
+     * batches instead of on the last move only.
+     *
+     * @param game Game used for training.
+     * @param random Random number generator of the agent.
+     */
+    public static void startReplayTraining(final Game game, final SplittableRandom random) {
+        startTraining(
+                game,
+                random,
+                new PrioritizedReplayBuffer(REPLAY_CAPACITY, PRIORITY_ALPHA, random.split()),
+                false
+        );
+    }
+
+    /**
+     * Starts training with prioritized experience replay where target scores are Double DQN targets calculated with
+     * a target network, see {@link NetworkUtil#fitBatch(MultiLayerNetwork, MultiLayerNetwork, TransitionBatch, double)}.
+     *
+     * @param game Game used for training.
+     * @param random Random number generator of the agent.
+     */
+    public static void startDoubleDqnTraining(final Game game, final SplittableRandom random) {
+        startTraining(
+                game,
+                random,
+                new PrioritizedReplayBuffer(REPLAY_CAPACITY, PRIORITY_ALPHA, random.split()),
+                true
+        );
+    }
+    // endregion
+
+    // region Helper
+    private static void startTraining(final Game game,
+                                      final SplittableRandom random,
+                                      final PrioritizedReplayBuffer replayBuffer,
+                                      final boolean useTargetNetwork) {
+        final long startTime = System.currentTimeMillis();
+        LOG.info("Starting new training session with '{}' games", NUMBER_OF_GAMES);
+        if (N_STEPS < 1 || N_STEPS > MAX_N_STEPS) {
+            throw new IllegalArgumentException("Number of steps must be between 1 and " + MAX_N_STEPS
+                    + " but was " + N_STEPS);
+        }
+
+        final Thread train = new Thread(() -> {
+            final MultiLayerNetwork network = NetworkUtil.getNetwork();
+            network.init();
+            // Only plain training updates the Q-table, other modes would keep a loaded table around for nothing
+            WarmStartHelper.warmStartConfigured(network, random, replayBuffer == null && N_STEPS == 1);
+            final TargetNetwork targetNetwork = useTargetNetwork ? TargetNetwork.createConfigured(network) : null;
+            final double discountFactor = HyperParameters.DEFAULT.getDiscountFactor();
+            double epsilon = HyperParameters.DEFAULT.getEpsilonStart();
+
+            // When the game ends all moves of the n-step window are emitted at once, so the batch must hold them
+            final TransitionBatch batch = new TransitionBatch(Math.max(REPLAY_BATCH_SIZE, N_STEPS));
+            final NStepAccumulator accumulator = N_STEPS > 1 ? new NStepAccumulator(N_STEPS, discountFactor) : null;
+            final NStepAccumulator.Consumer consumer = replayBuffer != null
+                    ? replayBuffer::add
+                    : (s, a, r, next, terminal, steps) -> batch.add(s, a, r, next, terminal, steps, 1, -1);
+            long moveCount = 0;
+            long totalMoveCount = 0;
+            int milestone = 0;
+
+            final EventTracer tracer = EventTracer.getDefault();
+            final float[] actionScores = new float[EventTracer.ACTION_COUNT];
+
+            final TrajectoryWriter recorder = TrajectoryWriter.openConfigured(
+                    GameStateHelper.getNumberOfPossibleStates()
+            );
+
+            int largestSnakeLength = 0;
+            for (int i = 1; i <= NUMBER_OF_GAMES; i++) {
+                if (LOG.isDebugEnabled()) {
+                    LOG.debug("Starting game session number '{}'", i);
+                }
+                // Prepare the game world
+                game.initializeGame();
+                if (accumulator != null) {
+                    accumulator.clear();
+                }
+
+                // Get current game state
+                GameState state = game.getGameState();
+
+                if (recorder != null) {
+                    recorder.startEpisode(game.getEpisodeSeed(), GameUtils.getCellIndex(game.getFoodPosition()));
+                }
+
+                int gameSessionScore = 0;
+                int step = 0;
+                while (game.isOngoing()) {
+                    if (gameSessionScore < STUCK_SCORE) {
+                        LOG.error("Player is stuck, ending the game");
+                        game.endGame();
+                    }
+
+                    // Select action based on current state
+                    final Action action = NetworkUtil.epsilonGreedyAction(state, network, epsilon, random, actionScores);
+
+                    // Decrease epsilon value
+                    epsilon -= HyperParameters.DEFAULT.getEpsilonDecay();
+
+                    // Get score for selected action
+                    final double score = GameStateHelper.getScoreForAction(action, game.getFeatureContext());
+
+                    // Change direction based on selected action
+                    game.changeDirection(action);
+
+                    // Move the player
+                    final int snakeLengthBeforeMove = game.getSnakeLength();
+                    game.move();
+
+                    // Get next (current) state
+                    final GameState nextState = game.getGameState();
+
+                    tracer.trace(i, step++, state.getStateBits(), action.getActionIndex(), actionScores, score);
+
+                    if (recorder != null) {
+                        recorder.recordStep(
+                                state.getStateBits(),
+                                action.getActionIndex(),
+                                score,
+                                nextState.getStateBits(),
+                                !game.isOngoing(),
+                                game.getSnakeLength() > snakeLengthBeforeMove,
+                                GameUtils.getCellIndex(game.getFoodPosition())
+                        );
+                    }
+
+                    // Update network
+                    if (accumulator != null) {
+                        accumulator.add(
+                                state.getStateBits(),
+                                action.getActionIndex(),
+                                score,
+                                nextState.getStateBits(),
+                                !game.isOngoing(),
+                                consumer
+                        );
+
+                        // Without replay buffer transitions are fitted as soon as all of their moves are known
+                        if (replayBuffer == null && batch.getSize() > 0) {
+                            NetworkUtil.fitBatch(network, batch, discountFactor);
+                            batch.clear();
+                        }
+                    } else if (replayBuffer == null) {
+                        NetworkUtil.update(state, action, score, nextState, network);
+                    } else {
+                        replayBuffer.add(
+                                state.getStateBits(),
+                                action.getActionIndex(),
+                                score,
+                                nextState.getStateBits(),
+                                !game.isOngoing()
+                        );
+                    }
+
+                    if (replayBuffer != null
+                            && replayBuffer.getSize() >= REPLAY_BATCH_SIZE
+                            && ++moveCount % REPLAY_TRAIN_FREQUENCY == 0) {
+                        final double beta = PRIORITY_BETA_START + (1 - PRIORITY_BETA_START) * i / NUMBER_OF_GAMES;
+                        replayBuffer.sample(batch, REPLAY_BATCH_SIZE, beta);
+                        if (targetNetwork == null) {
+                            NetworkUtil.fitBatch(network, batch);
+                        } else {
+                            NetworkUtil.fitBatch(network, targetNetwork.getNetwork(), batch, discountFactor);
+                            targetNetwork.onFitted();
+                        }
+                        replayBuffer.updatePriorities(batch);
+                    }
+
+                    // Apply next state
+                    state = nextState;
+
+                    // Increment score
+                    gameSessionScore += score;
+                    totalMoveCount++;
+                }
+
+                // Written after every game, so that a training which is stopped keeps all finished games
+                if (recorder != null) {
+                    recorder.flush();
+                }
+
+                final int snakeLength = game.getSnakeLength();
+                if (LOG.isDebugEnabled()) {
+                    LOG.debug("Total score for session '{}' is :'{}' with snake length of: '{}'",
+                            i,
+                            gameSessionScore,
+                            snakeLength
+                    );
+                }
+
+                if (snakeLength > largestSnakeLength) {
+                    largestSnakeLength = snakeLength;
+                    LOG.info("Current longest snake equals : '{}' at game session : '{}'", largestSnakeLength, i);
+                }
+
+                // Number of games needed to reach a length is what tells training modes apart
+                while (milestone < LENGTH_MILESTONES.length && snakeLength >= LENGTH_MILESTONES[milestone]) {
+                    LOG.info("Snake length of '{}' first reached at game session '{}' after '{}' moves",
+                            LENGTH_MILESTONES[milestone],
+                            i,
+                            totalMoveCount
+                    );
+                    milestone++;
+                }
+            }
+
+            LOG.info("All game sessions are over in '{}'ms, largest snake length was '{}'",
+                    System.currentTimeMillis() - startTime,
+                    largestSnakeLength
+            );
+            saveNetwork(network);
+            if (replayBuffer == null && accumulator == null) {
+                // Only single move training updates the Q-table, it can be used to warm start later trainings
+                saveQTable();
+            }
+
+            if (recorder != null) {
+                recorder.close();
+            }
+        });
+
+        train.start();
+    }
+
+    static void saveNetwork(final MultiLayerNetwork network) {
+        LOG.debug("Saving trained network");
+        try {
+            network.save(new File(NetworkUtil.NETWORK_NAME));
+            ModelFile.write(network, HyperParameters.DEFAULT, new File(ModelFile.MODEL_NAME));
+        } catch (IOException e) {
+            LOG.error("Failed to save network: '{}'", e.getMessage(), e);
+        }
+    }
+
+    private static void saveQTable() {
+        LOG.debug("Saving Q-table");
+        try {
+            NetworkUtil.getQTable().write(Paths.get(QTable.TABLE_NAME));
+        } catch (final IOException e) {
+            LOG.error("Failed to save Q-table: '{}'", e.getMessage(), e);
+        }
+    }
+    // endregion
+}
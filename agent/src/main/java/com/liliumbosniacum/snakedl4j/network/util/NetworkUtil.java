@@ -0,0 +1,553 @@
+package com.liliumbosniacum.snakedl4j.network.util;
+
+import com.liliumbosniacum.snakedl4j.network.Action;
+import com.liliumbosniacum.snakedl4j.network.GameState;
+import com.liliumbosniacum.snakedl4j.network.HyperParameters;
+import com.liliumbosniacum.snakedl4j.network.replay.TransitionBatch;
+import com.liliumbosniacum.snakedl4j.network.table.QTable;
+import org.deeplearning4j.nn.api.OptimizationAlgorithm;
+import org.deeplearning4j.nn.conf.BackpropType;
+import org.deeplearning4j.nn.conf.MultiLayerConfiguration;
+import org.deeplearning4j.nn.conf.NeuralNetConfiguration;
+import org.deeplearning4j.nn.conf.inputs.InputType;
+import org.deeplearning4j.nn.conf.layers.ConvolutionLayer;
+import org.deeplearning4j.nn.conf.layers.DenseLayer;
+import org.deeplearning4j.nn.conf.layers.OutputLayer;
+import org.deeplearning4j.nn.multilayer.MultiLayerNetwork;
+import org.deeplearning4j.nn.weights.WeightInit;
+import org.nd4j.linalg.activations.Activation;
+import org.nd4j.linalg.api.buffer.DataType;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.dataset.DataSet;
+import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.linalg.learning.config.Adam;
+import org.nd4j.linalg.lossfunctions.LossFunctions;
+import org.nd4j.shade.guava.primitives.Booleans;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.*;
+
+/**
+ * Helper class used to ease out handling of networks.
+ *
+ * @author mirza
+ */
+public final class NetworkUtil {
+    // region Members
+    /**
+     * Name of the network that is used when saving and loading it.
+     */
+    public static final String NETWORK_NAME = "trained_network.zip";
+
+    private static final Logger LOG = LoggerFactory.getLogger(NetworkUtil.class);
+    private static final double DISCOUNT_FACTOR = HyperParameters.DEFAULT.getDiscountFactor();
+    private static final int ACTION_COUNT = 4;
+    /**
+     * When set, exploration picks among all actions including the ones which end the game, so that the network still
+     * learns their scores. Greedy selection and scores of next states always consider only safe actions.
+     */
+    static final boolean KEEP_UNSAFE_ACTIONS = Boolean.getBoolean("snakedl4j.actions.keepUnsafe");
+    // endregion
+
+    // region Constructor
+    private NetworkUtil() {}
+    // endregion
+
+    /**
+     * Q-table holds an entry for every state and action and is only needed by {@link #update}, so it is created on
+     * first use instead of whenever the class is loaded (e.g. for evaluation).
+     */
+    private static final class QTableHolder {
+        private static final QTable Q_TABLE = new QTable(GameStateHelper.getNumberOfPossibleStates(), ACTION_COUNT);
+    }
+
+    // region Implementation
+    /**
+     * Get the network for training.
+     *
+     * @return Returns {@link MultiLayerNetwork} used for training.
+     */
+    public static MultiLayerNetwork getNetwork() {
+        return getNetwork(HyperParameters.DEFAULT);
+    }
+
+    /**
+     * Get the network for training with the given hyperparameters.
+     *
+     * @param hyperParameters Hyperparameters defining network size, updater and regularization.
+     * @return Returns {@link MultiLayerNetwork} used for training.
+     */
+    public static MultiLayerNetwork getNetwork(final HyperParameters hyperParameters) {
+        return new MultiLayerNetwork(getConfiguration(hyperParameters));
+    }
+
+    /**
+     * Get convolutional network which sees the whole game world, see {@link GridObservationHelper}.
+     *
+     * @param hyperParameters Hyperparameters defining size of the dense layer, updater and regularization.
+     * @return Returns {@link MultiLayerNetwork} taking input of shape {@code [batch, channels, height, width]}.
+     */
+    public static MultiLayerNetwork getGridNetwork(final HyperParameters hyperParameters) {
+        return new MultiLayerNetwork(getGridConfiguration(hyperParameters));
+    }
+
+    /**
+     * Used to get action using epsilon greedy algorithm. Only actions which do not end the game are considered, see
+     * {@link GameState#getActionMask()}.
+     *
+     * @param state Current state of the game.
+     * @param network Network.
+     * @param epsilon Epsilon value.
+     * @param random Random number generator of the agent.
+     * @return Returns calculated action.
+     */
+    public static Action epsilonGreedyAction(final GameState state,
+                                             final MultiLayerNetwork network,
+                                             final double epsilon,
+                                             final SplittableRandom random) {
+        return epsilonGreedyAction(state, network, epsilon, random, null);
+    }
+
+    /**
+     * Used to get action using epsilon greedy algorithm, see
+     * {@link #epsilonGreedyAction(GameState, MultiLayerNetwork, double, SplittableRandom)}.
+     *
+     * @param state Current state of the game.
+     * @param network Network.
+     * @param epsilon Epsilon value.
+     * @param random Random number generator of the agent.
+     * @param actionScores Array into which scores of all actions are written, NaN when the action is random. Can be
+     * null.
+     * @return Returns calculated action.
+     */
+    public static Action epsilonGreedyAction(final GameState state,
+                                             final MultiLayerNetwork network,
+                                             final double epsilon,
+                                             final SplittableRandom random,
+                                             final float[] actionScores) {
+        // https://www.geeksforgeeks.org/epsilon-greedy-algorithm-in-reinforcement-learning/
+        if (getRandomDouble(random) < epsilon) {
+            if (actionScores != null) {
+                Arrays.fill(actionScores, Float.NaN);
+            }
+
+            return KEEP_UNSAFE_ACTIONS
+                    ? Action.getRandomAction(random)
+                    : Action.getRandomAction(random, state.getActionMask());
+        }
+
+        return getActionFromTheNetwork(state, network, actionScores);
+    }
+
+    /**
+     * Gets the safe action with the highest score from the network based on the current state.
+     *
+     * @param state Current state.
+     * @param network Network.
+     * @return Returns action outputed by the network
+     */
+    public static Action getActionFromTheNetwork(final GameState state, final MultiLayerNetwork network) {
+        return getActionFromTheNetwork(state, network, null);
+    }
+
+    /**
+     * Update network and q-table with new values.
+     *
+     * @param state Current game state.
+     * @param action Taken action.
+     * @param score Achieved score.
+     * @param nextState Next game state.
+     * @param network Network.
+     */
+    public static void update(final GameState state,
+                              final Action action,
+                              final double score,
+                              final GameState nextState,
+                              final MultiLayerNetwork network) {
+        // Get max q score for next state
+        final double maxQScore = QTableHolder.Q_TABLE.getMax(
+                nextState.getStateBits(),
+                KEEP_UNSAFE_ACTIONS ? GameStateHelper.ALL_ACTIONS_MASK : nextState.getActionMask()
+        );
+
+        // Calculate target score
+        final double targetScore = score + (DISCOUNT_FACTOR * maxQScore);
+
+        // Update the table with new score
+        QTableHolder.Q_TABLE.set(state.getStateBits(), action.getActionIndex(), (float) targetScore);
+
+        // Update network
+        final INDArray stateObservation = toINDArray(state);
+        final INDArray output = network.output(stateObservation);
+        final INDArray updatedOutput = output.putScalar(action.getActionIndex(), targetScore);
+
+        network.fit(stateObservation, updatedOutput);
+    }
+
+    /**
+     * Update network with a whole batch of transitions. Target scores are calculated from the network itself using
+     * two batched forward passes (one for current and one for next states) and every transition is weighted by its
+     * importance sampling weight.
+     *
+     * @param network Network.
+     * @param batch Batch of transitions, TD errors of all transitions are written back into it.
+     */
+    public static void fitBatch(final MultiLayerNetwork network, final TransitionBatch batch) {
+        fitBatch(network, batch, DISCOUNT_FACTOR);
+    }
+
+    /**
+     * Update network with a whole batch of transitions using the given discount factor. Score of the next state of a
+     * transition which spans several moves is discounted once per move.
+     *
+     * @param network Network.
+     * @param batch Batch of transitions, TD errors of all transitions are written back into it.
+     * @param discountFactor Factor by which scores of next states are discounted.
+     */
+    public static void fitBatch(final MultiLayerNetwork network,
+                                final TransitionBatch batch,
+                                final double discountFactor) {
+        final int size = batch.getSize();
+        final int inputCount = (int) network.layerInputSize(0);
+        final int[] actions = batch.getActions();
+        final double[] rewards = batch.getRewards();
+        final boolean[] terminals = batch.getTerminals();
+        final int[] steps = batch.getSteps();
+        final double[] tdErrors = batch.getTdErrors();
+
+        final int[] nextStates = batch.getNextStates();
+        final int viewDistance = GameStateHelper.getViewDistance(inputCount);
+
+        final INDArray stateObservations = toINDArray(batch.getStates(), size, inputCount);
+        final INDArray output = network.output(stateObservations);
+        final INDArray nextOutput = network.output(toINDArray(nextStates, size, inputCount));
+
+        for (int i = 0; i < size; i++) {
+            double targetScore = rewards[i];
+            if (!terminals[i]) { // There is nothing to expect after the game is over
+                targetScore += Math.pow(discountFactor, steps[i])
+                        * getMaxValue(nextOutput, i, GameStateHelper.getActionMask(nextStates[i], viewDistance));
+            }
+
+            tdErrors[i] = targetScore - output.getDouble(i, actions[i]);
+            output.putScalar(i, actions[i], targetScore);
+        }
+
+        // Weights are used as a per example label mask, which scales both the loss and the gradient of each example
+        final INDArray weights = Nd4j.create(Arrays.copyOf(batch.getWeights(), size), new int[]{size, 1});
+        network.fit(new DataSet(stateObservations, output, null, weights));
+    }
+
+    /**
+     * Update network with a whole batch of transitions using Double DQN targets. Online network picks the best action
+     * in the next state and the frozen target network scores it, so that the network does not chase its own
+     * overestimated scores. Scores of current and next states are calculated in one forward pass of the online network,
+     * followed by one forward pass of the target network.
+     *
+     * @param network Online network, the one which is fitted.
+     * @param targetNetwork Network used to score next states. It is only read, never fitted.
+     * @param batch Batch of transitions, TD errors of all transitions are written back into it.
+     * @param discountFactor Factor by which scores of next states are discounted.
+     */
+    public static void fitBatch(final MultiLayerNetwork network,
+                                final MultiLayerNetwork targetNetwork,
+                                final TransitionBatch batch,
+                                final double discountFactor) {
+        final int size = batch.getSize();
+        final int inputCount = (int) network.layerInputSize(0);
+        final int[] actions = batch.getActions();
+        final double[] rewards = batch.getRewards();
+        final boolean[] terminals = batch.getTerminals();
+        final int[] steps = batch.getSteps();
+        final double[] tdErrors = batch.getTdErrors();
+        final int[] nextStates = batch.getNextStates();
+        final int viewDistance = GameStateHelper.getViewDistance(inputCount);
+
+        // Rows of current states are followed by rows of next states
+        final INDArray onlineOutput = network.output(toINDArray(batch.getStates(), nextStates, size, inputCount));
+        final INDArray targetOutput = targetNetwork.output(toINDArray(nextStates, size, inputCount));
+
+        final float[] labels = new float[size * ACTION_COUNT];
+        for (int i = 0; i < size; i++) {
+            for (int action = 0; action < ACTION_COUNT; action++) {
+                labels[i * ACTION_COUNT + action] = onlineOutput.getFloat(i, action);
+            }
+
+            double targetScore = rewards[i];
+            if (!terminals[i]) { // There is nothing to expect after the game is over
+                final int nextAction = getMaxValueIndex(
+                        onlineOutput,
+                        size + i,
+                        GameStateHelper.getActionMask(nextStates[i], viewDistance)
+                );
+                targetScore += Math.pow(discountFactor, steps[i]) * targetOutput.getDouble(i, nextAction);
+            }
+
+            tdErrors[i] = targetScore - labels[i * ACTION_COUNT + actions[i]];
+            labels[i * ACTION_COUNT + actions[i]] = (float) targetScore;
+        }
+
+        final INDArray weights = Nd4j.create(Arrays.copyOf(batch.getWeights(), size), new int[]{size, 1});
+        network.fit(new DataSet(
+                toINDArray(batch.getStates(), size, inputCount),
+                Nd4j.create(labels, new int[]{size, ACTION_COUNT}),
+                null,
+                weights
+        ));
+    }
+
+    /**
+     * Creates a data set from a batch of transitions, where labels are target scores calculated by the given (frozen)
+     * network. Only the score of the taken action is set, scores of other actions are masked out so that they do not
+     * contribute to the loss.
+     *
+     * @param targetNetwork Network used to calculate scores of next states. It is only read, never fitted.
+     * @param batch Batch of transitions.
+     * @return Returns data set with states as features and target scores as labels.
+     */
+    public static DataSet toTargetDataSet(final MultiLayerNetwork targetNetwork, final TransitionBatch batch) {
+        final int size = batch.getSize();
+        final int[] actions = batch.getActions();
+        final double[] rewards = batch.getRewards();
+        final boolean[] terminals = batch.getTerminals();
+        final int[] steps = batch.getSteps();
+        final float[] weights = batch.getWeights();
+        final int inputCount = (int) targetNetwork.layerInputSize(0);
+        final int[] nextStates = batch.getNextStates();
+        final int viewDistance = GameStateHelper.getViewDistance(inputCount);
+
+        final INDArray nextOutput = targetNetwork.output(toINDArray(nextStates, size, inputCount));
+
+        final float[] labels = new float[size * ACTION_COUNT];
+        final float[] mask = new float[size * ACTION_COUNT];
+        for (int i = 0; i < size; i++) {
+            double targetScore = rewards[i];
+            if (!terminals[i]) { // There is nothing to expect after the game is over
+                targetScore += Math.pow(DISCOUNT_FACTOR, steps[i])
+                        * getMaxValue(nextOutput, i, GameStateHelper.getActionMask(nextStates[i], viewDistance));
+            }
+
+            labels[i * ACTION_COUNT + actions[i]] = (float) targetScore;
+            mask[i * ACTION_COUNT + actions[i]] = weights[i];
+        }
+
+        return new DataSet(
+                toINDArray(batch.getStates(), size, inputCount),
+                Nd4j.create(labels, new int[]{size, ACTION_COUNT}),
+                null,
+                Nd4j.create(mask, new int[]{size, ACTION_COUNT})
+        );
+    }
+
+    /**
+     * Get scores of all actions for a batch of states with a single forward pass. Input is converted to the data type
+     * of the network, so that the same method works for networks converted to half precision.
+     *
+     * @param network Network.
+     * @param stateBits States packed into bits, see {@link GameState#getStateBits()}.
+     * @param size Number of states to score.
+     * @return Returns scores with one row per state and one column per action.
+     */
+    public static INDArray getScores(final MultiLayerNetwork network, final int[] stateBits, final int size) {
+        final INDArray input = toINDArray(stateBits, size, (int) network.layerInputSize(0));
+        final DataType dataType = network.params().dataType();
+
+        return network.output(input.dataType() == dataType ? input : input.castTo(dataType), false);
+    }
+
+    /**
+     * Get Q-table updated by {@link #update}, e.g. to save it after training or to replace it with a loaded one.
+     *
+     * @return Returns Q-table shared by all training sessions.
+     */
+    static QTable getQTable() {
+        return QTableHolder.Q_TABLE;
+    }
+
+    /**
+     * Puts the thread to sleep for certain amount of time.
+     *
+     * @param millis Time to sleep.
+     */
+    public static void wait(final int millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (final InterruptedException e) {
+            LOG.error(e.getMessage(), e);
+            Thread.currentThread().interrupt();
+        }
+    }
+    // endregion
+
+    // region Helper
+    /*
+    Per step details (scores, chosen action) are traced with the event tracer by the training loop instead of being
+    logged here, since building log arguments on every move slows the training down even when logging is off.
+     */
+    private static Action getActionFromTheNetwork(final GameState state,
+                                                  final MultiLayerNetwork network,
+                                                  final float[] actionScores) {
+        final INDArray output = network.output(toINDArray(state), false);
+
+        /*
+        Values provided by the network. Based on them we chose the current best action.
+         */
+        final float[] outputValues = output.data().asFloat();
+
+        // Find index of the highest value
+        final int maxValueIndex = getMaxValueIndex(outputValues, state.getActionMask());
+
+        if (actionScores != null) {
+            System.arraycopy(outputValues, 0, actionScores, 0, actionScores.length);
+        }
+
+        return Action.getActionByIndex(maxValueIndex);
+    }
+
+    private static MultiLayerConfiguration getConfiguration(final HyperParameters hyperParameters) {
+        final int hiddenLayerCount = hyperParameters.getHiddenLayerCount();
+
+        return new NeuralNetConfiguration.Builder()
+                .seed(12345)    //Random number generator seed for improved repeatability
+                .optimizationAlgo(OptimizationAlgorithm.STOCHASTIC_GRADIENT_DESCENT)
+                .weightInit(WeightInit.XAVIER)
+                .updater(new Adam(hyperParameters.getLearningRate()))
+                .l2(hyperParameters.getL2()) // l2 regularization on all layers
+                .list()
+                .layer(0, new DenseLayer.Builder()
+                        .nIn(GameStateHelper.getNumberOfPossibleStates(hyperParameters.getViewDistance())) // Number of inputs
+                        .nOut(hiddenLayerCount)
+                        .weightInit(WeightInit.XAVIER)
+                        .activation(Activation.RELU)
+                        .build())
+                .layer(1, new DenseLayer.Builder()
+                        .nIn(hiddenLayerCount)
+                        .nOut(hiddenLayerCount)
+                        .weightInit(WeightInit.XAVIER)
+                        .activation(Activation.RELU)
+                        .build())
+                .layer(2, new OutputLayer.Builder(LossFunctions.LossFunction.MSE)
+                        .nIn(hiddenLayerCount)
+                        .nOut(ACTION_COUNT) // Since we have 4 possible actions
+                        .weightInit(WeightInit.XAVIER)
+                        .activation(Activation.IDENTITY)
+                        .weightInit(WeightInit.XAVIER)
+                        .build())
+                .backpropType(BackpropType.Standard)
+                .build();
+    }
+
+    private static MultiLayerConfiguration getGridConfiguration(final HyperParameters hyperParameters) {
+        return new NeuralNetConfiguration.Builder()
+                .seed(12345)    //Random number generator seed for improved repeatability
+                .optimizationAlgo(OptimizationAlgorithm.STOCHASTIC_GRADIENT_DESCENT)
+                .weightInit(WeightInit.XAVIER)
+                .updater(new Adam(hyperParameters.getLearningRate()))
+                .l2(hyperParameters.getL2()) // l2 regularization on all layers
+                .list()
+                .layer(0, new ConvolutionLayer.Builder(3, 3)
+                        .nIn(GridObservationHelper.CHANNELS)
+                        .nOut(16)
+                        .stride(1, 1)
+                        .padding(1, 1)
+                        .activation(Activation.RELU)
+                        .build())
+                .layer(1, new ConvolutionLayer.Builder(3, 3) // Halves the world, 31 x 31 to 15 x 15
+                        .nOut(32)
+                        .stride(2, 2)
+                        .activation(Activation.RELU)
+                        .build())
+                .layer(2, new DenseLayer.Builder()
+                        .nOut(hyperParameters.getHiddenLayerCount())
+                        .activation(Activation.RELU)
+                        .build())
+                .layer(3, new OutputLayer.Builder(LossFunctions.LossFunction.MSE)
+                        .nOut(ACTION_COUNT)
+                        .activation(Activation.IDENTITY)
+                        .build())
+                .setInputType(InputType.convolutional(
+                        GridObservationHelper.SIZE,
+                        GridObservationHelper.SIZE,
+                        GridObservationHelper.CHANNELS
+                ))
+                .backpropType(BackpropType.Standard)
+                .build();
+    }
+
+    private static INDArray toINDArray(final GameState gameState) {
+        return Nd4j.create(new boolean[][]{Booleans.toArray(Arrays.asList(gameState.getStates()))});
+    }
+
+    private static INDArray toINDArray(final int[] stateBits, final int size, final int inputCount) {
+        final float[] data = new float[size * inputCount];
+        fillInputs(data, 0, stateBits, size, inputCount);
+
+        return Nd4j.create(data, new int[]{size, inputCount});
+    }
+
+    private static INDArray toINDArray(final int[] stateBits,
+                                       final int[] nextStateBits,
+                                       final int size,
+                                       final int inputCount) {
+        final float[] data = new float[2 * size * inputCount];
+        fillInputs(data, 0, stateBits, size, inputCount);
+        fillInputs(data, size, nextStateBits, size, inputCount);
+
+        return Nd4j.create(data, new int[]{2 * size, inputCount});
+    }
+
+    private static void fillInputs(final float[] data,
+                                   final int firstRow,
+                                   final int[] stateBits,
+                                   final int size,
+                                   final int inputCount) {
+        for (int row = 0; row < size; row++) {
+            final int bits = stateBits[row];
+            final int offset = (firstRow + row) * inputCount;
+            for (int column = 0; column < inputCount; column++) {
+                data[offset + column] = (bits >>> column) & 1;
+            }
+        }
+    }
+
+    private static double getRandomDouble(final SplittableRandom random) {
+        return (random.nextDouble() * ((double) 1 + 1 - (double) 0)) + (double) 0;
+    }
+
+    /*
+    Masked variants only consider values whose bit is set in the action mask. When no action is safe every move ends
+    the game anyway, so all values are considered.
+     */
+    static int getMaxValueIndex(final float[] values, final int actionMask) {
+        final int mask = actionMask != 0 ? actionMask : GameStateHelper.ALL_ACTIONS_MASK;
+        int maxAt = -1;
+
+        for (int i = 0; i < values.length; i++) {
+            if ((mask & (1 << i)) != 0 && (maxAt < 0 || values[i] > values[maxAt])) {
+                maxAt = i;
+            }
+        }
+
+        return maxAt;
+    }
+
+    static int getMaxValueIndex(final INDArray values, final int row, final int actionMask) {
+        final int mask = actionMask != 0 ? actionMask : GameStateHelper.ALL_ACTIONS_MASK;
+        int maxAt = -1;
+
+        for (int column = 0; column < values.columns(); column++) {
+            final boolean allowed = (mask & (1 << column)) != 0;
+            if (allowed && (maxAt < 0 || values.getDouble(row, column) > values.getDouble(row, maxAt))) {
+                maxAt = column;
+            }
+        }
+
+        return maxAt;
+    }
+
+    static double getMaxValue(final INDArray values, final int row, final int actionMask) {
+        return values.getDouble(row, getMaxValueIndex(values, row, actionMask));
+    }
+    // endregion
+}
@@ -0,0 +1,100 @@
+package com.liliumbosniacum.snakedl4j.network.util;
+
+import com.liliumbosniacum.snakedl4j.network.offline.RecordedTransitionIterator;
+import com.liliumbosniacum.snakedl4j.network.recording.TrajectoryWriter;
+import org.deeplearning4j.datasets.iterator.AsyncDataSetIterator;
+import org.deeplearning4j.nn.multilayer.MultiLayerNetwork;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Helper class used to train the network from recorded games without running the game at all. Recording is read
+ * from the file or directory set in {@link TrajectoryWriter#RECORDING_PROPERTY}. Every epoch uses a frozen copy of
+ * the network made at its start to calculate target scores.
+ *
+ * @author mirza
+ */
+public final class OfflineTrainingHelper {
+    // region Member
+    private static final Logger LOG = LoggerFactory.getLogger(OfflineTrainingHelper.class);
+    private static final int NUMBER_OF_EPOCHS = Integer.getInteger("snakedl4j.offline.epochs", 20);
+    private static final int BATCH_SIZE = Integer.getInteger("snakedl4j.offline.batchSize", 256);
+    private static final int WINDOW_SIZE = Integer.getInteger("snakedl4j.offline.windowSize", 1 << 20);
+    private static final int PREFETCH_BATCHES = 8;
+    // endregion
+
+    // region Constructor
+    private OfflineTrainingHelper() {}
+    // endregion
+
+    // region Implementation
+    public static void startOfflineTraining(final SplittableRandom random) {
+        final String recording = System.getProperty(TrajectoryWriter.RECORDING_PROPERTY);
+        if (recording == null) {
+            LOG.error("No recording to train from, set it with '-D{}=<file or directory>'",
+                    TrajectoryWriter.RECORDING_PROPERTY
+            );
+            return;
+        }
+
+        final Thread train = new Thread(() -> {
+            final long startTime = System.currentTimeMillis();
+            final MultiLayerNetwork network = NetworkUtil.getNetwork();
+            network.init();
+
+            try (RecordedTransitionIterator iterator = new RecordedTransitionIterator(
+                    getRecordingFiles(Paths.get(recording)),
+                    BATCH_SIZE,
+                    WINDOW_SIZE,
+                    random)) {
+                LOG.info("Starting offline training with '{}' epochs from '{}'", NUMBER_OF_EPOCHS, recording);
+
+                for (int epoch = 1; epoch <= NUMBER_OF_EPOCHS; epoch++) {
+                    final long epochStart = System.currentTimeMillis();
+
+                    // Targets of the whole epoch are calculated from the network as it was at the start of the epoch
+                    iterator.setTargetNetwork(network.clone());
+                    iterator.reset();
+                    network.fit(new AsyncDataSetIterator(iterator, PREFETCH_BATCHES));
+
+                    LOG.info("Epoch '{}' done in '{}'ms with score '{}'",
+                            epoch,
+                            System.currentTimeMillis() - epochStart,
+                            network.score()
+                    );
+                }
+            } catch (final IOException e) {
+                LOG.error("Failed to read recording: '{}'", e.getMessage(), e);
+                return;
+            }
+
+            LOG.info("Offline training is over in '{}'ms", System.currentTimeMillis() - startTime);
+            NetworkTrainingHelper.saveNetwork(network);
+        });
+
+        train.start();
+    }
+    // endregion
+
+    // region Helper
+    private static List<Path> getRecordingFiles(final Path recording) throws IOException {
+        if (!Files.isDirectory(recording)) {
+            return Collections.singletonList(recording);
+        }
+
+        try (Stream<Path> files = Files.list(recording)) {
+            return files.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+        }
+    }
+    // endregion
+}
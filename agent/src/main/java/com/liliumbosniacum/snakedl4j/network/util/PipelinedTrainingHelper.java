@@ -0,0 +1,215 @@
+package com.liliumbosniacum.snakedl4j.network.util;
+
+import com.liliumbosniacum.snakedl4j.game.Game;
+import com.liliumbosniacum.snakedl4j.network.Action;
+import com.liliumbosniacum.snakedl4j.network.GameState;
+import com.liliumbosniacum.snakedl4j.network.HyperParameters;
+import com.liliumbosniacum.snakedl4j.network.pipeline.StageStatistics;
+import com.liliumbosniacum.snakedl4j.network.pipeline.TransitionQueue;
+import com.liliumbosniacum.snakedl4j.network.replay.TransitionBatch;
+import org.deeplearning4j.nn.multilayer.MultiLayerNetwork;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Helper class used to run training as a pipeline of two threads. Simulation stage plays the game with its own copy
+ * of the network and produces transitions into a bounded queue, while learner stage consumes them in batches and fits
+ * the network. Parameters of the learned network are handed back to the simulation stage every few batches.
+ * Batch size and queue depth can be changed with system properties {@code snakedl4j.pipeline.batchSize} and
+ * {@code snakedl4j.pipeline.queueDepth}.
+ *
+ * @author mirza
+ */
+public final class PipelinedTrainingHelper {
+    // region Member
+    private static final Logger LOG = LoggerFactory.getLogger(PipelinedTrainingHelper.class);
+    private static final int BATCH_SIZE = Integer.getInteger("snakedl4j.pipeline.batchSize", 32);
+    private static final int QUEUE_DEPTH = Integer.getInteger("snakedl4j.pipeline.queueDepth", 4_096);
+    private static final int MAX_QUEUE_DEPTH = 1 << 30; // Queue is rounded up to a power of two, which must fit an int
+    private static final int PARAMETER_SYNC_INTERVAL = 10; // Number of fitted batches between two parameter hand overs
+    private static final long WAIT_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+    private static final long REPORT_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(10);
+    // endregion
+
+    // region Constructor
+    private PipelinedTrainingHelper() {}
+    // endregion
+
+    // region Implementation
+    public static void startPipelinedTraining(final Game game, final SplittableRandom random) {
+        if (BATCH_SIZE < 1) {
+            throw new IllegalArgumentException("Batch size must be at least 1 but was " + BATCH_SIZE);
+        }
+        if (QUEUE_DEPTH < 1 || QUEUE_DEPTH > MAX_QUEUE_DEPTH) {
+            throw new IllegalArgumentException("Queue depth must be between 1 and " + MAX_QUEUE_DEPTH
+                    + " but was " + QUEUE_DEPTH);
+        }
+
+        LOG.info("Starting pipelined training session with '{}' games, batch size '{}' and queue depth '{}'",
+                NetworkTrainingHelper.NUMBER_OF_GAMES,
+                BATCH_SIZE,
+                QUEUE_DEPTH
+        );
+
+        final MultiLayerNetwork network = NetworkUtil.getNetwork();
+        network.init();
+
+        final TransitionQueue queue = new TransitionQueue(QUEUE_DEPTH);
+        final AtomicReference<INDArray> latestParameters = new AtomicReference<>();
+        final StageStatistics simulationStatistics = new StageStatistics("Simulation");
+        final StageStatistics learnerStatistics = new StageStatistics("Learner");
+
+        final Thread simulation = new Thread(
+                () -> simulate(game, network.clone(), random, queue, latestParameters, simulationStatistics),
+                "simulation"
+        );
+        final Thread learner = new Thread(
+                () -> learn(network, queue, latestParameters, learnerStatistics, simulationStatistics),
+                "learner"
+        );
+
+        simulation.start();
+        learner.start();
+    }
+    // endregion
+
+    // region Helper
+    private static void simulate(final Game game,
+                                 final MultiLayerNetwork actingNetwork,
+                                 final SplittableRandom random,
+                                 final TransitionQueue queue,
+                                 final AtomicReference<INDArray> latestParameters,
+                                 final StageStatistics statistics) {
+        double epsilon = HyperParameters.DEFAULT.getEpsilonStart();
+
+        int largestSnakeLength = 0;
+        for (int i = 1; i <= NetworkTrainingHelper.NUMBER_OF_GAMES; i++) {
+            game.initializeGame();
+            GameState state = game.getGameState();
+
+            int gameSessionScore = 0;
+            while (game.isOngoing()) {
+                final long start = System.nanoTime();
+
+                // Pick up parameters learned so far, if learner handed over new ones
+                final INDArray parameters = latestParameters.getAndSet(null);
+                if (parameters != null) {
+                    actingNetwork.setParams(parameters);
+                }
+
+                if (gameSessionScore < NetworkTrainingHelper.STUCK_SCORE) {
+                    LOG.error("Player is stuck, ending the game");
+                    game.endGame();
+                }
+
+                final Action action = NetworkUtil.epsilonGreedyAction(state, actingNetwork, epsilon, random);
+                epsilon -= HyperParameters.DEFAULT.getEpsilonDecay();
+
+                final double score = GameStateHelper.getScoreForAction(action, game.getFeatureContext());
+                game.changeDirection(action);
+                game.move();
+                final GameState nextState = game.getGameState();
+
+                final int stateBits = state.getStateBits();
+                final int nextStateBits = nextState.getStateBits();
+                final boolean terminal = !game.isOngoing();
+                statistics.recordBusy(System.nanoTime() - start, 1);
+
+                // Wait for the learner if queue is full (backpressure)
+                while (!queue.offer(stateBits, action.getActionIndex(), score, nextStateBits, terminal)) {
+                    final long waitStart = System.nanoTime();
+                    LockSupport.parkNanos(WAIT_NANOS);
+                    statistics.recordWait(System.nanoTime() - waitStart);
+                }
+
+                state = nextState;
+                gameSessionScore += score;
+            }
+
+            if (game.getSnakeLength() > largestSnakeLength) {
+                largestSnakeLength = game.getSnakeLength();
+                LOG.info("Current longest snake equals : '{}' at game session : '{}'", largestSnakeLength, i);
+            }
+        }
+
+        queue.close();
+    }
+
+    private static void learn(final MultiLayerNetwork network,
+                              final TransitionQueue queue,
+                              final AtomicReference<INDArray> latestParameters,
+                              final StageStatistics statistics,
+                              final StageStatistics simulationStatistics) {
+        final long startTime = System.nanoTime();
+        final TransitionBatch batch = new TransitionBatch(BATCH_SIZE);
+
+        long fittedBatches = 0;
+        long lastReport = startTime;
+        while (!queue.isDrained()) {
+            queue.drainTo(batch);
+
+            if (batch.getSize() == BATCH_SIZE || (queue.isDrained() && batch.getSize() > 0)) {
+                final long start = System.nanoTime();
+                NetworkUtil.fitBatch(network, batch);
+
+                if (++fittedBatches % PARAMETER_SYNC_INTERVAL == 0) {
+                    latestParameters.set(network.params().dup());
+                }
+                statistics.recordBusy(System.nanoTime() - start, batch.getSize());
+                batch.clear();
+            } else {
+                // Wait for the simulation to produce more transitions
+                final long waitStart = System.nanoTime();
+                LockSupport.parkNanos(WAIT_NANOS);
+                statistics.recordWait(System.nanoTime() - waitStart);
+            }
+
+            final long now = System.nanoTime();
+            if (now - lastReport > REPORT_INTERVAL_NANOS) {
+                report(now - startTime, queue, simulationStatistics, statistics);
+                lastReport = now;
+            }
+        }
+
+        // Queue can be closed right after the last transitions were drained, which ends the loop before they are fitted
+        if (batch.getSize() > 0) {
+            final long start = System.nanoTime();
+            NetworkUtil.fitBatch(network, batch);
+            statistics.recordBusy(System.nanoTime() - start, batch.getSize());
+            batch.clear();
+        }
+
+        report(System.nanoTime() - startTime, queue, simulationStatistics, statistics);
+        LOG.info("All game sessions are over in '{}'ms", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime));
+        NetworkTrainingHelper.saveNetwork(network);
+    }
+
+    private static void report(final long elapsedNanos,
+                               final TransitionQueue queue,
+                               final StageStatistics simulation,
+                               final StageStatistics learner) {
+        final double seconds = elapsedNanos / 1e9;
+
+        LOG.info("{}: '{}' transitions/s, waiting '{}'% | {}: '{}' transitions/s, waiting '{}'% | queue '{}'/'{}'",
+                simulation.getName(),
+                Math.round(simulation.getItems() / seconds),
+                Math.round(simulation.getWaitRatio() * 100),
+                learner.getName(),
+                Math.round(learner.getItems() / seconds),
+                Math.round(learner.getWaitRatio() * 100),
+                queue.getSize(),
+                queue.getCapacity()
+        );
+
+        // Stage which waits less on the other one is the one limiting the throughput
+        final StageStatistics bottleneck = simulation.getWaitRatio() < learner.getWaitRatio() ? simulation : learner;
+        LOG.info("Throughput is limited by the '{}' stage", bottleneck.getName());
+    }
+    // endregion
+}
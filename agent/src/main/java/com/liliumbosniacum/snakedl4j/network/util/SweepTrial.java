@@ -0,0 +1,189 @@
+package com.liliumbosniacum.snakedl4j.network.util;
+
+import com.liliumbosniacum.snakedl4j.game.Game;
+import com.liliumbosniacum.snakedl4j.network.Action;
+import com.liliumbosniacum.snakedl4j.network.GameState;
+import com.liliumbosniacum.snakedl4j.network.HyperParameters;
+import com.liliumbosniacum.snakedl4j.network.replay.PrioritizedReplayBuffer;
+import com.liliumbosniacum.snakedl4j.network.replay.TransitionBatch;
+import org.deeplearning4j.nn.multilayer.MultiLayerNetwork;
+
+import java.util.SplittableRandom;
+
+/**
+ * Single headless training job of a hyperparameter sweep. Trial owns its game, network and replay buffer, so that
+ * trials can be trained on different threads at the same time. Training can be continued, which is what successive
+ * halving does with trials that are good enough to be promoted.
+ *
+ * @author mirza
+ */
+final class SweepTrial {
+    // region Member
+    private static final int REPLAY_CAPACITY = 50_000;
+    private static final int REPLAY_BATCH_SIZE = 32;
+    private static final int REPLAY_TRAIN_FREQUENCY = 4; // Number of moves between two fits
+    private static final double PRIORITY_ALPHA = 0.6;
+    private static final double PRIORITY_BETA_START = 0.4; // Annealed to 1 until the last game of the whole budget
+
+    private final int id;
+    private final HyperParameters hyperParameters;
+    private final SplittableRandom random;
+    private final int totalGames;
+    private final Game game;
+
+    // Created on first training, and released once the trial is stopped
+    private MultiLayerNetwork network;
+    private PrioritizedReplayBuffer replayBuffer;
+    private final TransitionBatch batch = new TransitionBatch(REPLAY_BATCH_SIZE);
+
+    private double epsilon;
+    private long moveCount;
+    private int gamesPlayed;
+    private int maxSnakeLength;
+    private long lastRungLengthSum;
+    private int lastRungGames;
+    private long trainingNanos;
+    private int rung;
+    private boolean failed;
+    // endregion
+
+    // region Constructor
+    /**
+     * @param id Id of the trial.
+     * @param hyperParameters Hyperparameters the trial is trained with.
+     * @param random Random number generator owned by the trial.
+     * @param totalGames Number of games the trial is trained for if it is never stopped.
+     */
+    SweepTrial(final int id,
+               final HyperParameters hyperParameters,
+               final SplittableRandom random,
+               final int totalGames) {
+        this.id = id;
+        this.hyperParameters = hyperParameters;
+        this.random = random;
+        this.totalGames = totalGames;
+        this.game = new Game(random.split(), new FeatureContext(hyperParameters.getViewDistance()));
+        this.epsilon = hyperParameters.getEpsilonStart();
+    }
+    // endregion
+
+    // region Implementation
+    /**
+     * Continues training until the given number of games has been played in total.
+     *
+     * @param targetGames Number of games which should be played once training is done.
+     */
+    void train(final int targetGames) {
+        final long start = System.nanoTime();
+        if (network == null) {
+            network = NetworkUtil.getNetwork(hyperParameters);
+            network.init();
+            replayBuffer = new PrioritizedReplayBuffer(REPLAY_CAPACITY, PRIORITY_ALPHA, random.split());
+        }
+
+        lastRungLengthSum = 0;
+        lastRungGames = 0;
+        while (gamesPlayed < targetGames) {
+            gamesPlayed++;
+            game.initializeGame();
+            GameState state = game.getGameState();
+
+            int gameSessionScore = 0;
+            while (game.isOngoing()) {
+                if (gameSessionScore < NetworkTrainingHelper.STUCK_SCORE) {
+                    game.endGame();
+                }
+
+                final Action action = NetworkUtil.epsilonGreedyAction(state, network, epsilon, random);
+                epsilon -= hyperParameters.getEpsilonDecay();
+
+                final double score = GameStateHelper.getScoreForAction(action, game.getFeatureContext());
+                game.changeDirection(action);
+                game.move();
+                final GameState nextState = game.getGameState();
+
+                replayBuffer.add(
+                        state.getStateBits(),
+                        action.getActionIndex(),
+                        score,
+                        nextState.getStateBits(),
+                        !game.isOngoing()
+                );
+
+                if (replayBuffer.getSize() >= REPLAY_BATCH_SIZE && ++moveCount % REPLAY_TRAIN_FREQUENCY == 0) {
+                    final double beta = PRIORITY_BETA_START + (1 - PRIORITY_BETA_START) * gamesPlayed / totalGames;
+                    replayBuffer.sample(batch, REPLAY_BATCH_SIZE, beta);
+                    NetworkUtil.fitBatch(network, batch, hyperParameters.getDiscountFactor());
+                    replayBuffer.updatePriorities(batch);
+                }
+
+                state = nextState;
+                gameSessionScore += score;
+            }
+
+            maxSnakeLength = Math.max(maxSnakeLength, game.getSnakeLength());
+            lastRungLengthSum += game.getSnakeLength();
+            lastRungGames++;
+        }
+
+        trainingNanos += System.nanoTime() - start;
+    }
+
+    /**
+     * Stops the trial for good, network and replay buffer are released.
+     */
+    void stop() {
+        network = null;
+        replayBuffer = null;
+    }
+
+    /**
+     * Marks trial as failed, it is ranked last.
+     */
+    void fail() {
+        failed = true;
+        stop();
+    }
+
+    int getId() {
+        return id;
+    }
+
+    HyperParameters getHyperParameters() {
+        return hyperParameters;
+    }
+
+    int getGamesPlayed() {
+        return gamesPlayed;
+    }
+
+    int getMaxSnakeLength() {
+        return failed ? 0 : maxSnakeLength;
+    }
+
+    /**
+     * Get mean snake length over the games of the last training.
+     *
+     * @return Returns mean snake length, or 0 if no game was played.
+     */
+    double getMeanSnakeLength() {
+        return failed || lastRungGames == 0 ? 0 : (double) lastRungLengthSum / lastRungGames;
+    }
+
+    long getTrainingNanos() {
+        return trainingNanos;
+    }
+
+    int getRung() {
+        return rung;
+    }
+
+    void setRung(final int rung) {
+        this.rung = rung;
+    }
+
+    boolean isFailed() {
+        return failed;
+    }
+    // endregion
+}
@@ -0,0 +1,79 @@
+package com.liliumbosniacum.snakedl4j.network.util;
+
+import org.deeplearning4j.nn.multilayer.MultiLayerNetwork;
+import org.nd4j.linalg.api.ndarray.INDArray;
+
+/**
+ * Frozen copy of the trained (online) network which is used to score next states. It follows the online network
+ * either by copying all of its parameters every few fits, or by moving a small part towards them after every fit
+ * (Polyak averaging), so that targets do not change with every fit of the online network.
+ *
+ * @author mirza
+ */
+final class TargetNetwork {
+    // region Member
+    private static final int SYNC_STEPS = Integer.getInteger("snakedl4j.target.syncSteps", 250);
+    private static final double TAU = Double.parseDouble(System.getProperty("snakedl4j.target.tau", "0"));
+
+    private final MultiLayerNetwork online;
+    private final MultiLayerNetwork target;
+    private final int syncSteps;
+    private final double tau;
+    private final INDArray buffer; // Holds the scaled online parameters during Polyak averaging, null without it
+    private long fitCount;
+    // endregion
+
+    // region Constructor
+    /**
+     * @param online Trained network.
+     * @param syncSteps Number of fits after which all parameters are copied, used only if tau is 0.
+     * @param tau Part by which the target moves towards the online network after every fit, 0 to copy every few fits.
+     */
+    TargetNetwork(final MultiLayerNetwork online, final int syncSteps, final double tau) {
+        if (syncSteps < 1) {
+            throw new IllegalArgumentException("Number of sync steps must be at least 1 but was " + syncSteps);
+        }
+        if (!(tau >= 0 && tau <= 1)) {
+            throw new IllegalArgumentException("Tau must be between 0 and 1 but was " + tau);
+        }
+
+        this.online = online;
+        this.target = online.clone();
+        this.syncSteps = syncSteps;
+        this.tau = tau;
+        this.buffer = tau > 0 ? online.params().dup() : null;
+    }
+    // endregion
+
+    // region Implementation
+    /**
+     * Creates target network configured with system properties {@code snakedl4j.target.syncSteps} and
+     * {@code snakedl4j.target.tau}.
+     *
+     * @param online Trained network.
+     * @return Returns target network.
+     */
+    static TargetNetwork createConfigured(final MultiLayerNetwork online) {
+        return new TargetNetwork(online, SYNC_STEPS, TAU);
+    }
+
+    MultiLayerNetwork getNetwork() {
+        return target;
+    }
+
+    /**
+     * Should be called after every fit of the online network.
+     */
+    void onFitted() {
+        fitCount++;
+
+        if (tau > 0) {
+            // Parameters are views of the network parameters, so they are updated in place without allocating
+            buffer.assign(online.params()).muli(tau);
+            target.params().muli(1 - tau).addi(buffer);
+        } else if (fitCount % syncSteps == 0) {
+            target.params().assign(online.params());
+        }
+    }
+    // endregion
+}
@@ -0,0 +1,125 @@
+package com.liliumbosniacum.snakedl4j.network.util;
+
+import com.liliumbosniacum.snakedl4j.network.table.QTable;
+import com.liliumbosniacum.snakedl4j.network.table.QTableIterator;
+import org.deeplearning4j.datasets.iterator.AsyncDataSetIterator;
+import org.deeplearning4j.nn.multilayer.MultiLayerNetwork;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.SplittableRandom;
+
+/**
+ * Helper class used to warm start the network from a Q-table saved by an earlier training (see
+ * {@link QTable#TABLE_NAME}). Network is trained to regress the table with large minibatches before online training
+ * starts, so that it does not have to learn from scratch what the table already knows. Table is set with
+ * {@link #TABLE_PROPERTY}, without it the network starts from its initial weights.
+ *
+ * @author mirza
+ */
+public final class WarmStartHelper {
+    // region Member
+    /**
+     * System property holding the Q-table file the network is warm started from.
+     */
+    public static final String TABLE_PROPERTY = "snakedl4j.warmStart.table";
+
+    private static final Logger LOG = LoggerFactory.getLogger(WarmStartHelper.class);
+    private static final int NUMBER_OF_EPOCHS = Integer.getInteger("snakedl4j.warmStart.epochs", 10);
+    private static final int BATCH_SIZE = Integer.getInteger("snakedl4j.warmStart.batchSize", 4096);
+    private static final int PREFETCH_BATCHES = 4;
+    // endregion
+
+    // region Constructor
+    private WarmStartHelper() {}
+    // endregion
+
+    // region Implementation
+    /**
+     * Warm starts the network from the table set in {@link #TABLE_PROPERTY}, if any. Table which does not match the
+     * inputs and outputs of the network is skipped.
+     *
+     * @param network Initialized network which is fitted.
+     * @param random Random number generator of the agent, it is only used when there is a table to warm start from.
+     * @param replaceTable Whether loaded table replaces the Q-table of {@link NetworkUtil#update}, so that online
+     *                     training continues from both. Only training which updates that table should set it.
+     */
+    static void warmStartConfigured(final MultiLayerNetwork network,
+                                    final SplittableRandom random,
+                                    final boolean replaceTable) {
+        final String file = System.getProperty(TABLE_PROPERTY);
+        if (file == null) {
+            return;
+        }
+
+        final QTable table;
+        try {
+            table = QTable.read(Paths.get(file));
+        } catch (final IOException e) {
+            LOG.error("Failed to read Q-table, starting without warm start: '{}'", e.getMessage(), e);
+            return;
+        }
+
+        final long inputCount = network.layerInputSize(0);
+        final long actionCount = network.layerSize(network.getLayers().length - 1);
+        if (table.getInputCount() != inputCount || table.getActionCount() != actionCount) {
+            LOG.error("Q-table '{}' with '{}' inputs and '{}' actions does not match network with '{}' inputs and '{}' "
+                            + "outputs, starting without warm start",
+                    file,
+                    table.getInputCount(),
+                    table.getActionCount(),
+                    inputCount,
+                    actionCount
+            );
+            return;
+        }
+
+        warmStart(network, table, NUMBER_OF_EPOCHS, BATCH_SIZE, random.split());
+        if (replaceTable) {
+            NetworkUtil.getQTable().assign(table);
+        }
+    }
+
+    /**
+     * Trains the network to regress all visited scores of the table.
+     *
+     * @param network Network which is fitted.
+     * @param table Q-table with the target scores.
+     * @param epochs Number of passes over all visited states.
+     * @param batchSize Number of states in one minibatch.
+     * @param random Random number generator used for shuffling.
+     */
+    public static void warmStart(final MultiLayerNetwork network,
+                                 final QTable table,
+                                 final int epochs,
+                                 final int batchSize,
+                                 final SplittableRandom random) {
+        final long startTime = System.currentTimeMillis();
+        final QTableIterator iterator = new QTableIterator(table, batchSize, random);
+        LOG.info("Warm starting network from '{}' states of the Q-table with '{}' epochs",
+                iterator.getStateCount(),
+                epochs
+        );
+        if (iterator.getStateCount() == 0) {
+            return;
+        }
+
+        for (int epoch = 1; epoch <= epochs; epoch++) {
+            final long epochStart = System.currentTimeMillis();
+
+            iterator.reset();
+            network.fit(new AsyncDataSetIterator(iterator, PREFETCH_BATCHES));
+
+            LOG.info("Warm start epoch '{}' done in '{}'ms with score '{}'",
+                    epoch,
+                    System.currentTimeMillis() - epochStart,
+                    network.score()
+            );
+        }
+
+        LOG.info("Warm start is over in '{}'ms", System.currentTimeMillis() - startTime);
+    }
+    // endregion
+}
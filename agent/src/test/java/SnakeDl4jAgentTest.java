@@ -0,0 +1,575 @@
+import com.liliumbosniacum.snakedl4j.network.HyperParameters;
+import com.liliumbosniacum.snakedl4j.network.SearchSpace;
+import com.liliumbosniacum.snakedl4j.network.distributed.ParameterClient;
+import com.liliumbosniacum.snakedl4j.network.distributed.ParameterServer;
+import com.liliumbosniacum.snakedl4j.network.evolution.EvolutionStrategy;
+import com.liliumbosniacum.snakedl4j.network.inference.DenseNetwork;
+import com.liliumbosniacum.snakedl4j.network.inference.InferenceReport;
+import com.liliumbosniacum.snakedl4j.network.inference.InferenceService;
+import com.liliumbosniacum.snakedl4j.network.inference.QuantizedNetwork;
+import com.liliumbosniacum.snakedl4j.network.model.ModelFile;
+import com.liliumbosniacum.snakedl4j.network.model.ModelWatcher;
+import com.liliumbosniacum.snakedl4j.network.pipeline.TransitionQueue;
+import com.liliumbosniacum.snakedl4j.network.replay.NStepAccumulator;
+import com.liliumbosniacum.snakedl4j.network.replay.SumTree;
+import com.liliumbosniacum.snakedl4j.network.replay.TransitionBatch;
+import com.liliumbosniacum.snakedl4j.network.table.QTable;
+import com.liliumbosniacum.snakedl4j.network.trace.EventTracer;
+import com.liliumbosniacum.snakedl4j.network.util.GameStateHelper;
+import com.liliumbosniacum.snakedl4j.network.util.NetworkUtil;
+import org.deeplearning4j.nn.multilayer.MultiLayerNetwork;
+import org.junit.Test;
+import org.nd4j.linalg.api.ndarray.INDArray;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Class containing tests of the agent module.
+ *
+ * @author mirza
+ */
+public class SnakeDl4jAgentTest {
+
+    @Test
+    public void testSumTree() {
+        final SumTree sumTree = new SumTree(5);
+        assertThat(sumTree.getCapacity()).isEqualTo(8);
+
+        sumTree.update(0, 1);
+        sumTree.update(2, 3);
+        sumTree.update(4, 6);
+        assertThat(sumTree.getTotal()).isEqualTo(10.0);
+
+        assertThat(sumTree.sample(0)).isEqualTo(0);
+        assertThat(sumTree.sample(0.99)).isEqualTo(0);
+        assertThat(sumTree.sample(1)).isEqualTo(2);
+        assertThat(sumTree.sample(3.99)).isEqualTo(2);
+        assertThat(sumTree.sample(4)).isEqualTo(4);
+        assertThat(sumTree.sample(9.99)).isEqualTo(4);
+
+        sumTree.update(2, 0);
+        assertThat(sumTree.getTotal()).isEqualTo(7.0);
+        assertThat(sumTree.sample(1)).isEqualTo(4);
+    }
+
+    @Test
+    public void testNStepAccumulator() {
+        final NStepAccumulator accumulator = new NStepAccumulator(3, 0.5);
+        final TransitionBatch batch = new TransitionBatch(8);
+        final NStepAccumulator.Consumer consumer = (state, action, reward, nextState, terminal, steps) ->
+                batch.add(state, action, reward, nextState, terminal, steps, 1, -1);
+
+        accumulator.add(0, 0, 1, 1, false, consumer);
+        accumulator.add(1, 1, 2, 2, false, consumer);
+        assertThat(batch.getSize()).isEqualTo(0);
+
+        // First move gets rewards of all three moves and the state after the third one
+        accumulator.add(2, 2, 4, 3, false, consumer);
+        assertThat(batch.getSize()).isEqualTo(1);
+        assertThat(batch.getStates()[0]).isEqualTo(0);
+        assertThat(batch.getRewards()[0]).isEqualTo(1 + 0.5 * 2 + 0.25 * 4);
+        assertThat(batch.getNextStates()[0]).isEqualTo(3);
+        assertThat(batch.getTerminals()[0]).isFalse();
+        assertThat(batch.getSteps()[0]).isEqualTo(3);
+
+        // Game is over, remaining moves are emitted with shorter returns
+        accumulator.add(3, 3, 8, 4, true, consumer);
+        assertThat(batch.getSize()).isEqualTo(4);
+        assertThat(batch.getRewards()[1]).isEqualTo(2 + 0.5 * 4 + 0.25 * 8);
+        assertThat(batch.getRewards()[2]).isEqualTo(4 + 0.5 * 8);
+        assertThat(batch.getRewards()[3]).isEqualTo(8.0);
+        assertThat(batch.getSteps()[3]).isEqualTo(1);
+        for (int i = 1; i < 4; i++) {
+            assertThat(batch.getStates()[i]).isEqualTo(i);
+            assertThat(batch.getNextStates()[i]).isEqualTo(4);
+            assertThat(batch.getTerminals()[i]).isTrue();
+        }
+
+        // Next game starts with an empty window
+        accumulator.add(5, 0, 1, 6, true, consumer);
+        assertThat(batch.getSize()).isEqualTo(5);
+        assertThat(batch.getStates()[4]).isEqualTo(5);
+    }
+
+    @Test
+    public void testTransitionQueue() {
+        final TransitionQueue queue = new TransitionQueue(3);
+        assertThat(queue.getCapacity()).isEqualTo(4);
+
+        for (int i = 0; i < 4; i++) {
+            assertThat(queue.offer(i, i % 4, i, i + 1, false)).isTrue();
+        }
+        assertThat(queue.offer(5, 0, 0, 0, true)).isFalse();
+
+        final TransitionBatch batch = new TransitionBatch(3);
+        assertThat(queue.drainTo(batch)).isEqualTo(3);
+        assertThat(batch.getStates()[2]).isEqualTo(2);
+        assertThat(queue.getSize()).isEqualTo(1);
+
+        queue.close();
+        assertThat(queue.isDrained()).isFalse();
+        batch.clear();
+        assertThat(queue.drainTo(batch)).isEqualTo(1);
+        assertThat(batch.getNextStates()[0]).isEqualTo(4);
+        assertThat(queue.isDrained()).isTrue();
+    }
+
+    @Test
+    public void testSearchSpace() {
+        final SearchSpace searchSpace = new SearchSpace(
+                new double[]{0.001, 0.01},
+                new double[]{0.001},
+                new int[]{64, 150},
+                new double[]{0.9},
+                new double[]{0.9},
+                new double[]{0.001},
+                new int[]{2, 3, 4}
+        );
+
+        final List<HyperParameters> grid = searchSpace.getGrid();
+        assertThat(searchSpace.getGridSize()).isEqualTo(12);
+        assertThat(grid.size()).isEqualTo(12);
+        assertThat(new HashSet<>(grid).size()).isEqualTo(12);
+        assertThat(grid.get(0)).isEqualTo(new HyperParameters(0.001, 0.001, 64, 0.9, 0.9, 0.001, 2));
+        assertThat(grid.get(11)).isEqualTo(new HyperParameters(0.01, 0.001, 150, 0.9, 0.9, 0.001, 4));
+
+        // Random search never picks the same combination twice and is capped at the grid size
+        final List<HyperParameters> samples = searchSpace.sample(5, new SplittableRandom(1));
+        assertThat(new HashSet<>(samples).size()).isEqualTo(5);
+        assertThat(searchSpace.sample(100, new SplittableRandom(1)).size()).isEqualTo(12);
+    }
+
+    @Test
+    public void testQuantizedNetwork() {
+        final int[] layerSizes = {12, 32, 32, 4};
+        final float[] parameters = new float[DenseNetwork.getParameterCount(layerSizes)];
+        final SplittableRandom random = new SplittableRandom(1);
+        for (int i = 0; i < parameters.length; i++) {
+            parameters[i] = (float) (random.nextDouble() - 0.5);
+        }
+        final DenseNetwork network = new DenseNetwork(layerSizes, parameters);
+
+        // Compare with a straightforward forward pass
+        final int state = 0b1010_0110_0011;
+        float[] activations = new float[12];
+        for (int i = 0; i < 12; i++) {
+            activations[i] = (state >>> i) & 1;
+        }
+        for (int layer = 0; layer < 3; layer++) {
+            final float[] next = new float[layerSizes[layer + 1]];
+            for (int output = 0; output < next.length; output++) {
+                float value = network.getBias(layer, output);
+                for (int input = 0; input < activations.length; input++) {
+                    value += activations[input] * network.getWeight(layer, input, output);
+                }
+                next[output] = layer < 2 ? Math.max(value, 0) : value;
+            }
+            activations = next;
+        }
+
+        final float[] scores = new float[4];
+        network.output(state, scores, 0);
+        for (int action = 0; action < 4; action++) {
+            assertThat((double) scores[action]).isCloseTo(activations[action], within(1e-5));
+        }
+
+        // Int8 version picks the same action for almost every state
+        final InferenceReport report = InferenceReport.compare(network, QuantizedNetwork.quantize(network), 12);
+        assertThat(report.getStateCount()).isEqualTo(4096L);
+        assertThat(report.getAgreementRatio()).isGreaterThan(0.95);
+    }
+
+    @Test
+    public void testInferenceService() throws Exception {
+        final int[] layerSizes = {12, 16, 4};
+        final float[] parameters = new float[DenseNetwork.getParameterCount(layerSizes)];
+        final SplittableRandom random = new SplittableRandom(2);
+        for (int i = 0; i < parameters.length; i++) {
+            parameters[i] = (float) (random.nextDouble() - 0.5);
+        }
+        final DenseNetwork network = new DenseNetwork(layerSizes, parameters);
+
+        final int threadCount = 4;
+        final int stateCount = 1 << 12;
+        final int[] expected = new int[stateCount];
+        for (int state = 0; state < stateCount; state++) {
+            expected[state] = network.getActionIndex(state, GameStateHelper.getActionMask(state, 1));
+        }
+
+        // Games on many threads get the same actions as when calling the network directly
+        final boolean[] matches = new boolean[threadCount];
+        final long maxWaitNanos = TimeUnit.MICROSECONDS.toNanos(200);
+        try (final InferenceService service = new InferenceService(network, 12, 32, maxWaitNanos, 64)) {
+            final Thread[] threads = new Thread[threadCount];
+            for (int t = 0; t < threadCount; t++) {
+                final int thread = t;
+                threads[t] = new Thread(() -> {
+                    boolean match = true;
+                    for (int state = thread; state < stateCount; state += threadCount) {
+                        match &= service.submit(state).join() == expected[state];
+                    }
+                    matches[thread] = match;
+                });
+                threads[t].start();
+            }
+            for (final Thread thread : threads) {
+                thread.join();
+            }
+
+            assertThat(service.getRequestCount()).isEqualTo((long) stateCount);
+            long batchedRequests = 0;
+            long batches = 0;
+            for (int size = 1; size <= 32; size++) {
+                batchedRequests += size * service.getBatchSizeCount(size);
+                batches += service.getBatchSizeCount(size);
+            }
+            assertThat(batchedRequests).isEqualTo((long) stateCount);
+            assertThat(batches).isEqualTo(service.getBatchCount());
+        }
+
+        for (final boolean match : matches) {
+            assertThat(match).isTrue();
+        }
+
+        // Closed service rejects new states
+        final InferenceService closed = new InferenceService(network, 12, 8, 0, 8);
+        closed.close();
+        final CompletableFuture<Integer> rejected = closed.submit(0);
+        assertThat(rejected.isCompletedExceptionally()).isTrue();
+
+        // States submitted while the service is closing are either scored or rejected, never left waiting
+        final InferenceService closing = new InferenceService(network, 12, 8, 0, 1024);
+        final CompletableFuture<?>[] futures = new CompletableFuture<?>[stateCount];
+        final Thread submitter = new Thread(() -> {
+            for (int state = 0; state < stateCount; state++) {
+                futures[state] = closing.submit(state);
+            }
+        });
+        submitter.start();
+        closing.close();
+        submitter.join();
+        for (final CompletableFuture<?> future : futures) {
+            assertThat(future.isDone()).isTrue();
+        }
+    }
+
+    @Test
+    public void testEventTracer() throws Exception {
+        final File file = File.createTempFile("trace", ".bin");
+        file.deleteOnExit();
+
+        final EventTracer tracer = new EventTracer(file.toPath(), 1000, false);
+        tracer.trace(0, 0, 1, 1, null, 1); // Switched off, so nothing is traced
+
+        tracer.setEnabled(true);
+        final float[] scores = {1, 2, 3, 4};
+        for (int step = 0; step < 5000; step++) {
+            tracer.trace(7, step, step * 3, step % 4, step % 2 == 0 ? scores : null, -1);
+        }
+        tracer.setEnabled(false);
+
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (tracer.getWrittenCount() + tracer.getDroppedCount() < 5000 && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertThat(tracer.getWrittenCount() + tracer.getDroppedCount()).isEqualTo(5000L);
+
+        final ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file.toPath())).order(ByteOrder.LITTLE_ENDIAN);
+        assertThat(buffer.getInt()).isEqualTo(EventTracer.MAGIC);
+        assertThat(buffer.limit()).isEqualTo(EventTracer.HEADER_SIZE
+                + (int) tracer.getWrittenCount() * EventTracer.RECORD_SIZE);
+
+        // First event is never dropped, since the ring buffer is empty
+        buffer.position(EventTracer.HEADER_SIZE);
+        buffer.getLong();
+        assertThat(buffer.getInt()).isEqualTo(7);
+        assertThat(buffer.getInt()).isEqualTo(0);
+        assertThat(buffer.getInt()).isEqualTo(0);
+        assertThat(buffer.getInt()).isEqualTo(0);
+        assertThat(buffer.getFloat()).isEqualTo(-1.0f);
+        assertThat(buffer.getFloat()).isEqualTo(1.0f);
+
+        // Second one had no scores
+        buffer.position(EventTracer.HEADER_SIZE + EventTracer.RECORD_SIZE + 8);
+        assertThat(buffer.getInt()).isEqualTo(7);
+        assertThat(buffer.getInt()).isEqualTo(1);
+        buffer.position(buffer.position() + 12);
+        assertThat(Float.isNaN(buffer.getFloat())).isTrue();
+    }
+
+    @Test
+    public void testEvolutionStrategy() throws Exception {
+        final int[] layerSizes = {20, 8, 4};
+        final float[] parameters = new float[DenseNetwork.getParameterCount(layerSizes)];
+        final SplittableRandom random = new SplittableRandom(11);
+        for (int i = 0; i < parameters.length; i++) {
+            parameters[i] = (float) (random.nextDouble() - 0.5);
+        }
+
+        // Workers only share seeds and scores, so the result must not depend on how many of them there are
+        final float[][] results = new float[2][];
+        final int[] threadCounts = {1, 3};
+        for (int run = 0; run < threadCounts.length; run++) {
+            try (EvolutionStrategy strategy = new EvolutionStrategy(
+                    layerSizes, parameters, 4, 0.1, 0.05, 2, 50, threadCounts[run]
+            )) {
+                final SplittableRandom seeds = new SplittableRandom(5);
+                for (int generation = 0; generation < 3; generation++) {
+                    strategy.runGeneration(seeds);
+                }
+                results[run] = strategy.getParameters();
+            }
+        }
+
+        assertThat(Arrays.equals(results[0], results[1])).isTrue();
+        assertThat(Arrays.equals(results[0], parameters)).isFalse();
+    }
+
+    @Test
+    public void testQTable() throws Exception {
+        final QTable table = new QTable(20, 4);
+        table.set(0b101, 2, 3.5f);
+        table.set(0b101, 0, -1f);
+        table.set((1 << 20) - 1, 3, -7f);
+
+        // Scores which were never set count as 0
+        assertThat(table.getMax(0b101)).isEqualTo(3.5f);
+        assertThat(table.getMax((1 << 20) - 1)).isEqualTo(0f);
+        assertThat(table.isVisited(0b101, 1)).isFalse();
+        assertThat(table.getVisitedCount()).isEqualTo(3);
+        assertThat(Arrays.equals(table.getVisitedStates(), new int[]{0b101, (1 << 20) - 1})).isTrue();
+
+        final File file = File.createTempFile("q_table", ".bin");
+        file.deleteOnExit();
+        table.write(file.toPath());
+        assertThat(file.length()).isEqualTo(16L + 3 * 8);
+
+        final QTable read = QTable.read(file.toPath());
+        assertThat(read.get(0b101, 2)).isEqualTo(3.5f);
+        assertThat(read.get(0b101, 0)).isEqualTo(-1f);
+        assertThat(read.get((1 << 20) - 1, 3)).isEqualTo(-7f);
+        assertThat(read.getVisitedCount()).isEqualTo(3);
+
+        final QTable assigned = new QTable(20, 4);
+        assigned.assign(read);
+        assertThat(assigned.isVisited((1 << 20) - 1, 3)).isTrue();
+        assertThat(assigned.get(0b101, 2)).isEqualTo(3.5f);
+    }
+
+    @Test
+    public void testQTableCorrupted() throws Exception {
+        final File file = File.createTempFile("q_table", ".bin");
+        file.deleteOnExit();
+
+        // Table of 31 inputs would not fit into an array
+        Files.write(file.toPath(), getQTableFile(31, 4, 0));
+        assertThat(isQTableRefused(file)).isTrue();
+
+        // Index of the score lies past the last state of a table with 2 inputs
+        Files.write(file.toPath(), getQTableFile(2, 4, 16));
+        assertThat(isQTableRefused(file)).isTrue();
+
+        Files.write(file.toPath(), getQTableFile(2, 4, 15));
+        assertThat(isQTableRefused(file)).isFalse();
+    }
+
+    @Test
+    public void testModelFile() throws Exception {
+        final HyperParameters hyperParameters = new HyperParameters(0.001, 0.001, 16, 0.9, 0.9, 0.001, 2);
+        final MultiLayerNetwork network = NetworkUtil.getNetwork(hyperParameters);
+        network.init();
+        assertThat(ModelFile.getParameterCount(hyperParameters)).isEqualTo(network.numParams());
+
+        final File file = File.createTempFile("model", ".bin");
+        file.deleteOnExit();
+        ModelFile.write(network, hyperParameters, file);
+
+        final MultiLayerNetwork read = ModelFile.read(file);
+        assertThat(read.params().equals(network.params())).isTrue();
+        assertThat(read.layerInputSize(0)).isEqualTo(network.layerInputSize(0));
+        assertThat(read.layerSize(0)).isEqualTo(16);
+    }
+
+    @Test
+    public void testDoubleDqnTargets() {
+        final MultiLayerNetwork network = NetworkUtil.getNetwork(
+                new HyperParameters(0.001, 0.001, 8, 0.9, 0.9, 0.001, 1)
+        );
+        network.init();
+        final MultiLayerNetwork targetNetwork = network.clone();
+        targetNetwork.params().muli(-1);
+
+        // Last transition is terminal, its target is only the reward
+        final int[] states = {0b0000_0001_1011, 0b0010_0100_0111, 0b1000_0000_1110};
+        final int[] nextStates = {0b0001_0000_1101, 0b0100_0010_1011, 0b0000_0000_0000};
+        final TransitionBatch batch = new TransitionBatch(3);
+        for (int i = 0; i < 3; i++) {
+            batch.add(states[i], i, i - 1, nextStates[i], i == 2, 1, 1, -1);
+        }
+
+        // Online network picks the best safe next action, target network scores it
+        final INDArray scores = NetworkUtil.getScores(network, states, 3);
+        final INDArray nextScores = NetworkUtil.getScores(network, nextStates, 3);
+        final INDArray targetNextScores = NetworkUtil.getScores(targetNetwork, nextStates, 3);
+        final double[] expected = new double[3];
+        for (int i = 0; i < 3; i++) {
+            double targetScore = i - 1;
+            if (i < 2) {
+                final int mask = GameStateHelper.getActionMask(nextStates[i], 1);
+                int best = -1;
+                for (int action = 0; action < 4; action++) {
+                    if ((mask & (1 << action)) != 0
+                            && (best < 0 || nextScores.getDouble(i, action) > nextScores.getDouble(i, best))) {
+                        best = action;
+                    }
+                }
+                targetScore += 0.9 * targetNextScores.getDouble(i, best);
+            }
+            expected[i] = targetScore - scores.getDouble(i, i);
+        }
+
+        NetworkUtil.fitBatch(network, targetNetwork, batch, 0.9);
+        for (int i = 0; i < 3; i++) {
+            assertThat(batch.getTdErrors()[i]).isCloseTo(expected[i], within(1e-4));
+        }
+    }
+
+    @Test
+    public void testModelFileHeaderMismatch() throws Exception {
+        // Header of a network with 16 hidden neurons and view distance 2, but only 10 parameters
+        final ByteBuffer buffer = ByteBuffer.allocate(64 + 10 * Float.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(0x534E4B4D)
+                .putShort((short) 1)
+                .putShort((short) 64)
+                .putInt(10)
+                .putInt(16)
+                .putInt(2)
+                .putInt(0)
+                .putDouble(0.001)
+                .putDouble(0.001)
+                .putDouble(0.9)
+                .putDouble(0.9)
+                .putDouble(0.001);
+
+        final File file = File.createTempFile("model", ".bin");
+        file.deleteOnExit();
+        Files.write(file.toPath(), buffer.array());
+
+        // Must be a checked exception, so that evaluation falls back to the zipped network
+        boolean refused = false;
+        try {
+            ModelFile.read(file);
+        } catch (final IOException e) {
+            refused = true;
+        }
+        assertThat(refused).isTrue();
+    }
+
+    @Test
+    public void testModelWatcher() throws Exception {
+        final Path directory = Files.createTempDirectory("models");
+        directory.toFile().deleteOnExit();
+
+        try (final ModelWatcher<String> watcher = new ModelWatcher<>(
+                directory,
+                "initial",
+                file -> new String(Files.readAllBytes(file.toPath()), "UTF-8"))) {
+            assertThat(watcher.getCurrent().getNumber()).isEqualTo(0);
+            assertThat(watcher.getCurrent().getModel()).isEqualTo("initial");
+
+            // Files which are not models are ignored
+            Files.write(directory.resolve("checkpoint.tmp"), "ignored".getBytes("UTF-8"));
+            Files.write(directory.resolve("checkpoint.bin"), "first".getBytes("UTF-8"));
+            directory.resolve("checkpoint.tmp").toFile().deleteOnExit();
+            directory.resolve("checkpoint.bin").toFile().deleteOnExit();
+
+            final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+            while (watcher.getCurrent().getNumber() == 0 && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            assertThat(watcher.getCurrent().getNumber()).isEqualTo(1);
+            assertThat(watcher.getCurrent().getModel()).isEqualTo("first");
+            assertThat(watcher.getCurrent().getName()).isEqualTo("checkpoint.bin");
+        }
+
+        // Without a path the initial model is kept
+        try (final ModelWatcher<String> watcher = new ModelWatcher<>("fixed")) {
+            assertThat(watcher.getCurrent().getModel()).isEqualTo("fixed");
+        }
+    }
+
+    @Test
+    public void testParameterServer() throws Exception {
+        final float[] parameters = {1, 2, 3};
+        try (final ParameterServer server = new ParameterServer(parameters, 1, 0);
+             final ParameterClient first = new ParameterClient(server.getPort(), 3);
+             final ParameterClient second = new ParameterClient(server.getPort(), 3);
+             final ParameterClient third = new ParameterClient(server.getPort(), 3)) {
+            final float[] pulled = new float[3];
+            assertThat(first.pull(pulled)).isEqualTo(0L);
+            assertThat(second.pull(pulled)).isEqualTo(0L);
+            assertThat(third.pull(pulled)).isEqualTo(0L);
+            assertThat(pulled[2]).isEqualTo(3f);
+
+            // Deltas of both workers are applied, second one is one version behind
+            assertThat(first.push(new float[]{1, 0, 0})).isTrue();
+            assertThat(second.push(new float[]{0, 1, 0})).isTrue();
+
+            // Third worker is two versions behind, which is more than allowed
+            assertThat(third.push(new float[]{0, 0, 1})).isFalse();
+            assertThat(server.getRejectedCount()).isEqualTo(1L);
+
+            assertThat(third.pull(pulled)).isEqualTo(2L);
+            assertThat(pulled[0]).isEqualTo(2f);
+            assertThat(pulled[1]).isEqualTo(3f);
+            assertThat(pulled[2]).isEqualTo(3f);
+        }
+
+        // Workers with a different network are refused
+        try (final ParameterServer server = new ParameterServer(parameters, 1, 0)) {
+            boolean refused = false;
+            try {
+                new ParameterClient(server.getPort(), 4).close();
+            } catch (final IOException e) {
+                refused = true;
+            }
+            assertThat(refused).isTrue();
+        }
+    }
+
+    // Header of a Q-table file followed by one score with the given index
+    private static byte[] getQTableFile(final int inputCount, final int actionCount, final int index) {
+        return ByteBuffer.allocate(16 + 8).order(ByteOrder.LITTLE_ENDIAN)
+                .putInt(0x534E4B51)
+                .putShort((short) 1)
+                .putShort((short) actionCount)
+                .putInt(inputCount)
+                .putInt(1)
+                .putInt(index)
+                .putFloat(1f)
+                .array();
+    }
+
+    private static boolean isQTableRefused(final File file) {
+        try {
+            QTable.read(file.toPath());
+            return false;
+        } catch (final IOException e) {
+            return true;
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.liliumbosniacum.snakedl4j.benchmark;
+
+import com.liliumbosniacum.snakedl4j.game.BulkSimulator;
+import com.liliumbosniacum.snakedl4j.game.Game;
+import com.liliumbosniacum.snakedl4j.network.Action;
+
+import java.util.SplittableRandom;
+
+/**
+ * Measures how many game steps per second are simulated by separate {@link Game} objects and by the
+ * {@link BulkSimulator}, including calculation of game states. Started as a plain java application from the benchmarks
+ * module.
+ *
+ * @author mirza
+ */
+public final class BulkSimulatorBenchmark {
+    private static final int[] GAME_COUNTS = {64, 1024, 8192};
+    private static final int GAME_STEPS = 20_000_000;
+    private static final int FOOD_SHIFT = 12; // Food flags follow the rays of view distance 3
+
+    private BulkSimulatorBenchmark() {}
+
+    public static void main(final String[] args) {
+        // First round only warms up the JIT
+        for (int round = 0; round < 2; round++) {
+            for (final int gameCount : GAME_COUNTS) {
+                benchmarkGames(gameCount);
+                benchmarkBulkSimulator(gameCount);
+            }
+        }
+    }
+
+    private static void benchmarkGames(final int gameCount) {
+        final SplittableRandom random = new SplittableRandom(12345);
+        final Game[] games = new Game[gameCount];
+        final int[] stateBits = new int[gameCount];
+        for (int i = 0; i < gameCount; i++) {
+            games[i] = new Game(random.split());
+            games[i].initializeGame();
+            stateBits[i] = games[i].getGameState().getStateBits();
+        }
+
+        final int steps = GAME_STEPS / gameCount;
+        final long start = System.nanoTime();
+        for (int step = 0; step < steps; step++) {
+            for (int i = 0; i < gameCount; i++) {
+                final Game game = games[i];
+                game.changeDirection(Action.getActionByIndex(getAction(stateBits[i], random)));
+                game.move();
+                if (!game.isOngoing()) {
+                    game.initializeGame();
+                }
+                stateBits[i] = game.getGameState().getStateBits();
+            }
+        }
+        report("Game objects", gameCount, System.nanoTime() - start, (long) steps * gameCount);
+    }
+
+    private static void benchmarkBulkSimulator(final int gameCount) {
+        final SplittableRandom random = new SplittableRandom(12345);
+        final BulkSimulator simulator = new BulkSimulator(gameCount, 3, random.split());
+        final int[] stateBits = simulator.getStateBits();
+        final int[] actions = new int[gameCount];
+
+        final int steps = GAME_STEPS / gameCount;
+        final long start = System.nanoTime();
+        for (int step = 0; step < steps; step++) {
+            for (int i = 0; i < gameCount; i++) {
+                actions[i] = getAction(stateBits[i], random);
+            }
+            simulator.step(actions);
+            simulator.resetFinished();
+        }
+        report("Bulk simulator", gameCount, System.nanoTime() - start, (long) steps * gameCount);
+    }
+
+    // Heads towards the food, or randomly if the food is not in any straight direction
+    private static int getAction(final int stateBits, final SplittableRandom random) {
+        final int foodFlags = (stateBits >>> FOOD_SHIFT) & 0b1111;
+        return foodFlags == 0 ? random.nextInt(4) : Integer.numberOfTrailingZeros(foodFlags);
+    }
+
+    private static void report(final String name, final int gameCount, final long nanos, final long gameSteps) {
+        System.out.printf("%-16s %,6d games: %8.1f ns/step, %,14.0f steps/s%n",
+                name,
+                gameCount,
+                (double) nanos / gameSteps,
+                gameSteps / (nanos / 1e9)
+        );
+    }
+}
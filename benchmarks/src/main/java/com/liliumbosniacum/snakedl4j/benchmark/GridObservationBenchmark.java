@@ -0,0 +1,71 @@
+package com.liliumbosniacum.snakedl4j.benchmark;
+
+import com.liliumbosniacum.snakedl4j.game.Game;
+import com.liliumbosniacum.snakedl4j.network.Action;
+import com.liliumbosniacum.snakedl4j.network.observation.GridObservationBatch;
+import com.liliumbosniacum.snakedl4j.network.util.GridObservationHelper;
+
+import java.lang.management.ManagementFactory;
+import java.util.SplittableRandom;
+
+/**
+ * Measures time and memory it takes to encode the whole game world on every step, both into a java array and into
+ * the batch array handed to the network. Started as a plain java application from the benchmarks module.
+ *
+ * @author mirza
+ */
+public final class GridObservationBenchmark {
+    private static final int STEPS = 2_000_000;
+    private static final int BATCH_SIZE = 32;
+
+    private GridObservationBenchmark() {}
+
+    public static void main(final String[] args) {
+        final float[] observation = new float[GridObservationHelper.INPUT_COUNT];
+        final GridObservationBatch batch = new GridObservationBatch(BATCH_SIZE);
+
+        // First round only warms up the JIT
+        for (int round = 0; round < 2; round++) {
+            final Game game = new Game(new SplittableRandom(12345));
+            game.initializeGame();
+            benchmark("No encoding", game, (step, encoded) -> { });
+            benchmark("Java array", game, (step, encoded) -> GridObservationHelper.encode(encoded, observation, 0));
+            benchmark("Batch array", game, (step, encoded) -> batch.encode(step % BATCH_SIZE, encoded));
+        }
+    }
+
+    private static void benchmark(final String name, final Game game, final Encoder encoder) {
+        final SplittableRandom random = new SplittableRandom(12345);
+
+        long encodeNanos = 0;
+        final long allocatedBefore = getAllocatedBytes();
+        for (int step = 0; step < STEPS; step++) {
+            if (!game.isOngoing()) {
+                game.initializeGame();
+            }
+            game.changeDirection(Action.getRandomAction(random));
+            game.move();
+
+            final long start = System.nanoTime();
+            encoder.encode(step, game);
+            encodeNanos += System.nanoTime() - start;
+        }
+        final long allocated = getAllocatedBytes() - allocatedBefore;
+
+        // Allocation includes moving the game, encoding should add nothing to the row without encoding
+        System.out.printf("%-12s: %8.1f ns/step encoding, %8.1f bytes/step allocated (including game moves)%n",
+                name,
+                (double) encodeNanos / STEPS,
+                (double) allocated / STEPS
+        );
+    }
+
+    private static long getAllocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean())
+                .getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    private interface Encoder {
+        void encode(int step, Game game);
+    }
+}
@@ -0,0 +1,133 @@
+package com.liliumbosniacum.snakedl4j.benchmark;
+
+import com.liliumbosniacum.snakedl4j.game.Game;
+import com.liliumbosniacum.snakedl4j.network.Action;
+import com.liliumbosniacum.snakedl4j.network.inference.InferenceClient;
+import com.liliumbosniacum.snakedl4j.network.inference.InferenceServer;
+import com.liliumbosniacum.snakedl4j.network.inference.InferenceService;
+import com.liliumbosniacum.snakedl4j.network.inference.NetworkPolicy;
+import com.liliumbosniacum.snakedl4j.network.util.NetworkUtil;
+import org.deeplearning4j.nn.multilayer.MultiLayerNetwork;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Measures how many moves per second many concurrent games make when every game calls the network on its own, when
+ * all games share one micro-batching inference service and when they reach the service over a loopback socket.
+ * Started as a plain java application from the benchmarks module.
+ *
+ * @author mirza
+ */
+public final class InferenceServiceBenchmark {
+    private static final int[] GAME_COUNTS = {1, 8, 32};
+    private static final int MOVES_PER_GAME = 20_000;
+    private static final int MAX_BATCH_SIZE = 64;
+    private static final long MAX_WAIT_NANOS = TimeUnit.MICROSECONDS.toNanos(200);
+
+    private InferenceServiceBenchmark() {}
+
+    public static void main(final String[] args) throws Exception {
+        final MultiLayerNetwork network = NetworkUtil.getNetwork();
+        final int actionCount = Action.values().length;
+
+        for (final int gameCount : GAME_COUNTS) {
+            // Every game owns a copy of the network, DL4J networks must not be called from many threads at once
+            final NetworkPolicy[] policies = new NetworkPolicy[gameCount];
+            for (int i = 0; i < gameCount; i++) {
+                policies[i] = new NetworkPolicy(network.clone(), actionCount);
+            }
+            run("Direct", gameCount, game -> policies[game]::getActionIndex);
+
+            try (final InferenceService service = createService(network, actionCount)) {
+                run("Service", gameCount, game -> state -> getActionIndex(service, state));
+                service.logStatistics();
+            }
+
+            try (final InferenceService service = createService(network, actionCount);
+                 final InferenceServer server = new InferenceServer(service, 0)) {
+                final InferenceClient[] clients = new InferenceClient[gameCount];
+                for (int i = 0; i < gameCount; i++) {
+                    clients[i] = new InferenceClient(server.getPort());
+                }
+                run("Loopback", gameCount, game -> state -> getActionIndex(clients[game], state));
+                for (final InferenceClient client : clients) {
+                    client.close();
+                }
+                service.logStatistics();
+            }
+        }
+    }
+
+    private static InferenceService createService(final MultiLayerNetwork network, final int actionCount) {
+        return new InferenceService(
+                new NetworkPolicy(network, actionCount),
+                (int) network.layerInputSize(0),
+                MAX_BATCH_SIZE,
+                MAX_WAIT_NANOS,
+                4096
+        );
+    }
+
+    private static void run(final String name,
+                            final int gameCount,
+                            final IntFunction<IntUnaryOperator> policies) throws InterruptedException {
+        final Thread[] threads = new Thread[gameCount];
+        for (int i = 0; i < gameCount; i++) {
+            final IntUnaryOperator policy = policies.apply(i);
+            final Game game = new Game(new SplittableRandom(i));
+            threads[i] = new Thread(() -> play(game, policy));
+        }
+
+        final long start = System.nanoTime();
+        for (final Thread thread : threads) {
+            thread.start();
+        }
+        for (final Thread thread : threads) {
+            thread.join();
+        }
+        final long nanos = System.nanoTime() - start;
+
+        final long moves = (long) gameCount * MOVES_PER_GAME;
+        System.out.printf("%-10s %3d games: %,12.0f moves/s, %8.1f us/move per game%n",
+                name,
+                gameCount,
+                moves / (nanos / 1e9),
+                nanos / 1e3 / MOVES_PER_GAME
+        );
+    }
+
+    private static void play(final Game game, final IntUnaryOperator policy) {
+        game.initializeGame();
+        for (int move = 0; move < MOVES_PER_GAME; move++) {
+            if (!game.isOngoing()) {
+                game.initializeGame();
+            }
+
+            final int stateBits = game.getGameState().getStateBits();
+            game.changeDirection(Action.getActionByIndex(policy.applyAsInt(stateBits)));
+            game.move();
+        }
+    }
+
+    private static int getActionIndex(final InferenceService service, final int stateBits) {
+        try {
+            return service.submit(stateBits).get();
+        } catch (final InterruptedException | ExecutionException e) {
+            throw new IllegalStateException("Inference failed", e);
+        }
+    }
+
+    private static int getActionIndex(final InferenceClient client, final int stateBits) {
+        try {
+            return client.getActionIndex(stateBits);
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
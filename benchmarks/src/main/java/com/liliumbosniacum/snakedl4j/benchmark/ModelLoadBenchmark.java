@@ -0,0 +1,58 @@
+package com.liliumbosniacum.snakedl4j.benchmark;
+
+import com.liliumbosniacum.snakedl4j.network.HyperParameters;
+import com.liliumbosniacum.snakedl4j.network.model.ModelFile;
+import com.liliumbosniacum.snakedl4j.network.util.NetworkUtil;
+import org.deeplearning4j.nn.multilayer.MultiLayerNetwork;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Measures how long it takes to load a network from the zip written by DL4J (with and without updater state) and from
+ * the flat model file. Started as a plain java application from the benchmarks module.
+ *
+ * @author mirza
+ */
+public final class ModelLoadBenchmark {
+    private static final int ROUNDS = 20;
+
+    private ModelLoadBenchmark() {}
+
+    public static void main(final String[] args) throws IOException {
+        final MultiLayerNetwork network = NetworkUtil.getNetwork();
+        network.init();
+
+        final File zipFile = File.createTempFile("snakedl4j", ".zip");
+        final File modelFile = File.createTempFile("snakedl4j", ".bin");
+        zipFile.deleteOnExit();
+        modelFile.deleteOnExit();
+        network.save(zipFile, true);
+        ModelFile.write(network, HyperParameters.DEFAULT, modelFile);
+
+        // First pass only warms up the JIT and the page cache
+        for (int pass = 0; pass < 2; pass++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < ROUNDS; i++) {
+                MultiLayerNetwork.load(zipFile, true);
+            }
+            report("Zip with updater", zipFile, System.nanoTime() - start);
+
+            start = System.nanoTime();
+            for (int i = 0; i < ROUNDS; i++) {
+                MultiLayerNetwork.load(zipFile, false);
+            }
+            report("Zip without updater", zipFile, System.nanoTime() - start);
+
+            start = System.nanoTime();
+            for (int i = 0; i < ROUNDS; i++) {
+                ModelFile.read(modelFile);
+            }
+            report("Model file", modelFile, System.nanoTime() - start);
+        }
+    }
+
+    private static void report(final String name, final File file, final long nanos) {
+        System.out.printf("%-20s %,10d bytes: %8.2f ms/load%n", name, file.length(), nanos / 1e6 / ROUNDS);
+    }
+}
@@ -0,0 +1,82 @@
+package com.liliumbosniacum.snakedl4j.benchmark;
+
+import com.liliumbosniacum.snakedl4j.network.replay.PrioritizedReplayBuffer;
+import com.liliumbosniacum.snakedl4j.network.replay.SumTree;
+import com.liliumbosniacum.snakedl4j.network.replay.TransitionBatch;
+
+import java.util.SplittableRandom;
+
+/**
+ * Measures sample and update throughput of the sum tree and of the prioritized replay buffer at large capacities.
+ * Started as a plain java application from the benchmarks module.
+ *
+ * @author mirza
+ */
+public final class SumTreeBenchmark {
+    private static final int[] CAPACITIES = {1 << 20, 1 << 22};
+    private static final int OPERATIONS = 5_000_000;
+    private static final int BATCH_SIZE = 32;
+
+    private SumTreeBenchmark() {}
+
+    public static void main(final String[] args) {
+        for (final int capacity : CAPACITIES) {
+            // First round only warms up the JIT
+            benchmarkSumTree(capacity);
+            benchmarkSumTree(capacity);
+            benchmarkReplayBuffer(capacity);
+        }
+    }
+
+    private static void benchmarkSumTree(final int capacity) {
+        final SplittableRandom random = new SplittableRandom(12345);
+        final SumTree sumTree = new SumTree(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sumTree.update(i, random.nextDouble());
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < OPERATIONS; i++) {
+            sumTree.update(random.nextInt(capacity), random.nextDouble());
+        }
+        report("SumTree update", capacity, System.nanoTime() - start, OPERATIONS);
+
+        long checksum = 0;
+        start = System.nanoTime();
+        for (int i = 0; i < OPERATIONS; i++) {
+            checksum += sumTree.sample(random.nextDouble() * sumTree.getTotal());
+        }
+        report("SumTree sample", capacity, System.nanoTime() - start, OPERATIONS);
+        System.out.println("Checksum " + checksum);
+    }
+
+    private static void benchmarkReplayBuffer(final int capacity) {
+        final SplittableRandom random = new SplittableRandom(12345);
+        final PrioritizedReplayBuffer buffer = new PrioritizedReplayBuffer(capacity, 0.6, random.split());
+        for (int i = 0; i < capacity; i++) {
+            buffer.add(random.nextInt(1 << 20), random.nextInt(4), -1, random.nextInt(1 << 20), false);
+        }
+
+        final TransitionBatch batch = new TransitionBatch(BATCH_SIZE);
+        final int batches = OPERATIONS / BATCH_SIZE;
+
+        final long start = System.nanoTime();
+        for (int i = 0; i < batches; i++) {
+            buffer.sample(batch, BATCH_SIZE, 0.4);
+            for (int j = 0; j < BATCH_SIZE; j++) {
+                batch.getTdErrors()[j] = random.nextDouble() * 100;
+            }
+            buffer.updatePriorities(batch);
+        }
+        report("Replay sample + update of " + BATCH_SIZE, capacity, System.nanoTime() - start, batches);
+    }
+
+    private static void report(final String name, final int capacity, final long nanos, final int operations) {
+        System.out.printf("%-32s capacity %,10d: %8.1f ns/op, %,12.0f op/s%n",
+                name,
+                capacity,
+                (double) nanos / operations,
+                operations / (nanos / 1e9)
+        );
+    }
+}
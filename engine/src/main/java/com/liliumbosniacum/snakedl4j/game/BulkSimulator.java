@@ -0,0 +1,429 @@
+package com.liliumbosniacum.snakedl4j.game;
+
+import com.liliumbosniacum.snakedl4j.game.helper.GameUtils;
+import com.liliumbosniacum.snakedl4j.network.util.GameStateHelper;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Simulates many games at once without any per game objects. State of all games is held in primitive arrays (structure
+ * of arrays): head cells, directions, lengths and food cells in int arrays, snake bodies in one shared pool of ring
+ * buffers and occupancy of all game worlds in one packed bitset. All games are stepped in a single loop and game state
+ * bits (see {@link com.liliumbosniacum.snakedl4j.network.GameState#getStateBits()}) of all games are written into one
+ * int array.
+ * Games are played by exactly the same rules as {@link Game}, so that a game reset with the same seed and played with
+ * the same actions ends up in the same states, with the same scores and the same food placement.
+ *
+ * @author mirza
+ */
+public final class BulkSimulator {
+    // region Member
+    private static final int SIZE = GameUtils.GRID_CELLS;
+    private static final int FOOD_CELLS = 29; // Food is placed on the first 29 cells of each row and column
+    private static final int START_LENGTH = 3;
+    private static final int START_X = 5;
+    private static final int START_Y = 5;
+
+    // Body of every game is a ring buffer of cells in the shared pool, it can hold more cells than the world has
+    private static final int BODY_CAPACITY = 1024;
+    private static final int BODY_MASK = BODY_CAPACITY - 1;
+    private static final int OCCUPANCY_WORDS = (SIZE * SIZE + 63) / 64;
+
+    // Steps in each direction, indexed by direction ordinal (up, right, down, left)
+    private static final int[] STEP_X = {0, 1, 0, -1};
+    private static final int[] STEP_Y = {-1, 0, 1, 0};
+
+    // Same constants as used by SplittableRandom, so that food is placed exactly like in the game
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+    private final int gameCount;
+    private final int viewDistance;
+    private final int rayMask;
+    private final SplittableRandom random;
+
+    private final int[] headX;
+    private final int[] headY;
+    private final int[] directions;
+    private final int[] lengths;
+    private final int[] foodCells;
+    private final long[] foodSeeds;
+    private final long[] episodeSeeds;
+    private final boolean[] ongoing;
+
+    // Index of the head in the ring buffer of each game, body continues backwards from it
+    private final int[] bodyHeads;
+    private final int[] bodyPool;
+    private final long[] occupancy;
+    // Number of cells occupied by more than one body part, which happens when food placed on the body is eaten
+    private final int[] overlaps;
+
+    // Features of the current step
+    private final int[] foodFlags;
+    private final int[] eatFlags;
+    private final int[] stateBits;
+    private final int[] actionMasks;
+
+    // Results of the last step
+    private final double[] rewards;
+    private final boolean[] foodEaten;
+    // endregion
+
+    // region Constructor
+    /**
+     * Creates simulator and starts a new episode in every game.
+     *
+     * @param gameCount Number of games simulated at once.
+     * @param viewDistance Number of cells the snake can see in each direction.
+     * @param random Generator of episode seeds.
+     */
+    public BulkSimulator(final int gameCount, final int viewDistance, final SplittableRandom random) {
+        if (viewDistance < 1 || viewDistance > GameStateHelper.MAX_VIEW_DISTANCE) {
+            throw new IllegalArgumentException("View distance must be between 1 and "
+                    + GameStateHelper.MAX_VIEW_DISTANCE + " but was " + viewDistance);
+        }
+
+        this.gameCount = gameCount;
+        this.viewDistance = viewDistance;
+        this.rayMask = (1 << viewDistance) - 1;
+        this.random = random;
+
+        this.headX = new int[gameCount];
+        this.headY = new int[gameCount];
+        this.directions = new int[gameCount];
+        this.lengths = new int[gameCount];
+        this.foodCells = new int[gameCount];
+        this.foodSeeds = new long[gameCount];
+        this.episodeSeeds = new long[gameCount];
+        this.ongoing = new boolean[gameCount];
+
+        this.bodyHeads = new int[gameCount];
+        this.bodyPool = new int[gameCount * BODY_CAPACITY];
+        this.occupancy = new long[gameCount * OCCUPANCY_WORDS];
+        this.overlaps = new int[gameCount];
+
+        this.foodFlags = new int[gameCount];
+        this.eatFlags = new int[gameCount];
+        this.stateBits = new int[gameCount];
+        this.actionMasks = new int[gameCount];
+
+        this.rewards = new double[gameCount];
+        this.foodEaten = new boolean[gameCount];
+
+        // Like in the game, snake starts moving right and keeps its last direction between episodes
+        Arrays.fill(directions, 1);
+        for (int game = 0; game < gameCount; game++) {
+            reset(game);
+        }
+    }
+    // endregion
+
+    // region Implementation
+    /**
+     * Steps all ongoing games. Finished games are left as they are until they are reset.
+     *
+     * @param actions Index of the action of every game.
+     */
+    public void step(final int[] actions) {
+        for (int game = 0; game < gameCount; game++) {
+            if (!ongoing[game]) {
+                continue;
+            }
+
+            final int direction = actions[game];
+            directions[game] = direction;
+
+            // Score is calculated from features of the step before the move, like in the game
+            rewards[game] = GameStateHelper.getScoreForMove(
+                    direction,
+                    foodFlags[game],
+                    (eatFlags[game] & (1 << direction)) != 0
+            );
+
+            final int x = headX[game] + STEP_X[direction];
+            final int y = headY[game] + STEP_Y[direction];
+            headX[game] = x;
+            headY[game] = y;
+
+            final int cell = getCell(x, y);
+            foodEaten[game] = cell == foodCells[game];
+            if (foodEaten[game]) {
+                // Snake grows, the tail stays where it is and the head may even land on the body
+                if (isOccupied(game, cell)) {
+                    overlaps[game]++;
+                }
+                pushHead(game, cell);
+                setOccupied(game, cell);
+                lengths[game]++;
+                placeFood(game);
+
+                if (lengths[game] >= BODY_CAPACITY) {
+                    ongoing[game] = false;
+                }
+            } else if (cell < 0) {
+                // Snake left the world
+                vacateTail(game);
+                ongoing[game] = false;
+            } else {
+                // Any part of the body kills the snake, including the tail which is just moving away
+                final boolean collision = isOccupied(game, cell);
+                vacateTail(game);
+                pushHead(game, cell);
+                setOccupied(game, cell);
+                ongoing[game] = !collision;
+            }
+
+            updateFeatures(game);
+        }
+    }
+
+    /**
+     * Starts a new episode with a seed drawn from the generator of the simulator.
+     *
+     * @param game Index of the game.
+     */
+    public void reset(final int game) {
+        reset(game, random.nextLong());
+    }
+
+    /**
+     * Starts a new episode facing the given direction. Like in the game, the direction is otherwise kept from the last
+     * episode, so this is needed when an episode must not depend on the ones played before it.
+     *
+     * @param game Index of the game.
+     * @param seed Seed of the episode.
+     * @param directionIndex Ordinal of the direction the snake is facing.
+     */
+    public void reset(final int game, final long seed, final int directionIndex) {
+        directions[game] = directionIndex;
+        reset(game, seed);
+    }
+
+    /**
+     * Starts a new episode. Food placement depends only on the seed.
+     *
+     * @param game Index of the game.
+     * @param seed Seed of the episode.
+     */
+    public void reset(final int game, final long seed) {
+        episodeSeeds[game] = seed;
+        foodSeeds[game] = seed;
+
+        Arrays.fill(occupancy, game * OCCUPANCY_WORDS, (game + 1) * OCCUPANCY_WORDS, 0);
+        overlaps[game] = 0;
+        bodyHeads[game] = 0;
+        lengths[game] = 0;
+
+        // Body is pushed from the tail to the head
+        for (int i = START_LENGTH - 1; i >= 0; i--) {
+            final int cell = getCell(START_X - i, START_Y);
+            pushHead(game, cell);
+            setOccupied(game, cell);
+        }
+        lengths[game] = START_LENGTH;
+        headX[game] = START_X;
+        headY[game] = START_Y;
+
+        placeFood(game);
+        ongoing[game] = true;
+        foodEaten[game] = false;
+        rewards[game] = 0;
+
+        updateFeatures(game);
+    }
+
+    /**
+     * Resets all games which are over.
+     *
+     * @return Returns number of reset games.
+     */
+    public int resetFinished() {
+        int count = 0;
+        for (int game = 0; game < gameCount; game++) {
+            if (!ongoing[game]) {
+                reset(game);
+                count++;
+            }
+        }
+
+        return count;
+    }
+
+    public int getGameCount() {
+        return gameCount;
+    }
+
+    /**
+     * Get game state bits of all games. Array is overwritten by every step.
+     *
+     * @return Returns state bits indexed by game.
+     */
+    public int[] getStateBits() {
+        return stateBits;
+    }
+
+    /**
+     * Get masks of safe actions of all games, the same as the ones of {@link Game#getActionMask()}. Array is
+     * overwritten by every step.
+     *
+     * @return Returns action masks indexed by game.
+     */
+    public int[] getActionMasks() {
+        return actionMasks;
+    }
+
+    /**
+     * Get scores of the last step of all games. Array is overwritten by every step.
+     *
+     * @return Returns scores indexed by game.
+     */
+    public double[] getRewards() {
+        return rewards;
+    }
+
+    public boolean isOngoing(final int game) {
+        return ongoing[game];
+    }
+
+    public boolean isFoodEaten(final int game) {
+        return foodEaten[game];
+    }
+
+    public int getSnakeLength(final int game) {
+        return lengths[game];
+    }
+
+    public int getFoodCell(final int game) {
+        return foodCells[game];
+    }
+
+    public long getEpisodeSeed(final int game) {
+        return episodeSeeds[game];
+    }
+    // endregion
+
+    // region Helper
+    private void updateFeatures(final int game) {
+        final int x = headX[game];
+        final int y = headY[game];
+        final int foodCell = foodCells[game];
+        final int foodX = foodCell % SIZE;
+        final int foodY = foodCell / SIZE;
+
+        int gameRays = 0;
+        int gameEatFlags = 0;
+        int bodyFlags = 0;
+        for (int direction = 0; direction < STEP_X.length; direction++) {
+            final int stepX = STEP_X[direction];
+            final int stepY = STEP_Y[direction];
+
+            int ray = 0;
+            for (int i = 1; i <= viewDistance; i++) {
+                // Like in the game, rays only see the walls, body is taken from occupancy
+                if (getCell(x + stepX * i, y + stepY * i) >= 0) {
+                    ray |= 1 << (i - 1);
+                }
+            }
+            gameRays |= ray << (direction * viewDistance);
+
+            final int next = getCell(x + stepX, y + stepY);
+            if (next == foodCell) {
+                gameEatFlags |= 1 << direction;
+            } else if (next >= 0 && isOccupied(game, next)) {
+                // Like in the game, eating the food is never a collision, so the body only counts on cells without food
+                bodyFlags |= 1 << direction;
+            }
+        }
+
+        final boolean isFoodUp = foodY < y;
+        final boolean isFoodRight = foodX > x;
+        final boolean isFoodDown = foodY > y;
+        final boolean isFoodLeft = foodX < x;
+        final int gameFoodFlags = toBit(isFoodUp, 0)
+                | toBit(isFoodRight, 1)
+                | toBit(isFoodDown, 2)
+                | toBit(isFoodLeft, 3)
+                | toBit(isFoodUp && isFoodRight, 4)
+                | toBit(isFoodUp && isFoodLeft, 5)
+                | toBit(isFoodDown && isFoodRight, 6)
+                | toBit(isFoodDown && isFoodLeft, 7);
+
+        eatFlags[game] = gameEatFlags;
+        foodFlags[game] = gameFoodFlags;
+
+        // Snake can not move backwards so the ray pointing behind the head is always negative
+        final int opposite = (directions[game] + 2) & 3;
+        stateBits[game] = (gameRays & ~(rayMask << (opposite * viewDistance)))
+                | gameFoodFlags << (STEP_X.length * viewDistance);
+        actionMasks[game] = GameStateHelper.getActionMask(stateBits[game], viewDistance) & ~bodyFlags;
+    }
+
+    private void pushHead(final int game, final int cell) {
+        final int head = (bodyHeads[game] + 1) & BODY_MASK;
+        bodyHeads[game] = head;
+        bodyPool[game * BODY_CAPACITY + head] = cell;
+    }
+
+    private void vacateTail(final int game) {
+        final int base = game * BODY_CAPACITY;
+        final int length = lengths[game];
+        final int cell = bodyPool[base + ((bodyHeads[game] - length + 1) & BODY_MASK)];
+
+        // Cell stays occupied if another body part is on it, which can only be if some cell is occupied twice
+        if (overlaps[game] > 0) {
+            for (int i = 0; i < length - 1; i++) {
+                if (bodyPool[base + ((bodyHeads[game] - i) & BODY_MASK)] == cell) {
+                    overlaps[game]--;
+                    return;
+                }
+            }
+        }
+
+        occupancy[game * OCCUPANCY_WORDS + (cell >>> 6)] &= ~(1L << cell);
+    }
+
+    private boolean isOccupied(final int game, final int cell) {
+        return (occupancy[game * OCCUPANCY_WORDS + (cell >>> 6)] & (1L << cell)) != 0;
+    }
+
+    private void setOccupied(final int game, final int cell) {
+        occupancy[game * OCCUPANCY_WORDS + (cell >>> 6)] |= 1L << cell;
+    }
+
+    private void placeFood(final int game) {
+        final int x = nextFoodInt(game);
+        final int y = nextFoodInt(game);
+        foodCells[game] = y * SIZE + x;
+    }
+
+    // Same as SplittableRandom#nextInt(int) of a generator created with the episode seed
+    private int nextFoodInt(final int game) {
+        int r = mix32(foodSeeds[game] += GOLDEN_GAMMA);
+
+        // Rejects values which would make the distribution uneven
+        int u = r >>> 1;
+        while (u + FOOD_CELLS - 1 - (r = u % FOOD_CELLS) < 0) {
+            u = mix32(foodSeeds[game] += GOLDEN_GAMMA) >>> 1;
+        }
+
+        return r;
+    }
+
+    private static int mix32(final long seed) {
+        long z = (seed ^ (seed >>> 33)) * 0x62a9d9ed799705f5L;
+        return (int) (((z ^ (z >>> 28)) * 0xcb24d0a5c88c35b3L) >>> 32);
+    }
+
+    private static int getCell(final int x, final int y) {
+        if (x < 0 || y < 0 || x >= SIZE || y >= SIZE) {
+            return -1;
+        }
+
+        return y * SIZE + x;
+    }
+
+    private static int toBit(final boolean value, final int index) {
+        return value ? 1 << index : 0;
+    }
+    // endregion
+}
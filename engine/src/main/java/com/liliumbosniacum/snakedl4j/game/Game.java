@@ -0,0 +1,330 @@
+package com.liliumbosniacum.snakedl4j.game;
+
+import com.liliumbosniacum.snakedl4j.game.helper.Direction;
+import com.liliumbosniacum.snakedl4j.game.helper.GameUtils;
+import com.liliumbosniacum.snakedl4j.game.helper.Position;
+import com.liliumbosniacum.snakedl4j.network.Action;
+import com.liliumbosniacum.snakedl4j.network.GameState;
+import com.liliumbosniacum.snakedl4j.network.util.FeatureContext;
+import com.liliumbosniacum.snakedl4j.network.util.GameStateHelper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Implementation of a simple snake game with some extra methods needed for the network. Game itself does not draw
+ * anything, instead it publishes a {@link GameSnapshot} after every move which can be rendered by the UI.
+ * Original implementation can be found here https://github.com/janbodnar/Java-Snake-Game
+ *
+ * @author mirza
+ */
+public class Game {
+    // region Member
+    private static final Logger LOG = LoggerFactory.getLogger(Game.class);
+
+    // Used to keep track of all snake parts (positions of the tail and head)
+    private Position[] snakePosition = new Position[900];
+
+    // Features of the current step shared by game state and score calculation
+    private final FeatureContext featureContext;
+
+    private boolean inGame = true;
+    private Direction currentDirection = Direction.RIGHT;
+    private Position foodPosition;
+    private int snakeLength;
+
+    // Generator of episode seeds and the generator of the current episode, which places the food
+    private final SplittableRandom random;
+    private SplittableRandom episodeRandom;
+    private long episodeSeed;
+
+    // Last published snapshot, swapped as a whole so that readers never see a half updated game
+    private volatile GameSnapshot snapshot;
+    private volatile boolean snapshotsEnabled;
+    // endregion
+
+    // region Setup
+    /**
+     * @param random Random number generator owned by this game, each game should get its own.
+     */
+    public Game(final SplittableRandom random) {
+        this(random, new FeatureContext());
+    }
+
+    /**
+     * @param random Random number generator owned by this game, each game should get its own.
+     * @param featureContext Feature context the game keeps up to date, it defines what the snake can see.
+     */
+    public Game(final SplittableRandom random, final FeatureContext featureContext) {
+        this.random = random;
+        this.featureContext = featureContext;
+        initializeGame();
+    }
+    // endregion
+
+    // region Implementation
+    /**
+     * Move the player and check for collisions
+     */
+    public void move() {
+        for (int i = snakeLength; i > 0; i--) {
+            snakePosition[i] = snakePosition[i - 1];
+        }
+
+        final Position headPosition = snakePosition[0];
+
+        switch (currentDirection) {
+            case UP:
+                snakePosition[0] = new Position(headPosition.getX(), headPosition.getY() - GameUtils.PLAYER_SIZE);
+                break;
+            case RIGHT:
+                snakePosition[0] = new Position(headPosition.getX() + GameUtils.PLAYER_SIZE, headPosition.getY());
+                break;
+            case DOWN:
+                snakePosition[0] = new Position(headPosition.getX(), headPosition.getY() + GameUtils.PLAYER_SIZE);
+                break;
+            case LEFT:
+                snakePosition[0] = new Position(headPosition.getX() - GameUtils.PLAYER_SIZE, headPosition.getY());
+                break;
+            default:
+                LOG.error("Unknown position");
+        }
+        featureContext.onHeadMoved(snakePosition[0]);
+
+        onMoved();
+
+        featureContext.update(snakePosition[0], foodPosition);
+    }
+
+    /**
+     * Change direction based on forwarded action.
+     *
+     * @param action Action based on which direction is changed.
+     */
+    public void changeDirection(final Action action) {
+        switch (action) {
+            case MOVE_UP:
+                currentDirection = Direction.UP;
+                break;
+            case MOVE_RIGHT:
+                currentDirection = Direction.RIGHT;
+                break;
+            case MOVE_DOWN:
+                currentDirection = Direction.DOWN;
+                break;
+            case MOVE_LEFT:
+                currentDirection = Direction.LEFT;
+                break;
+        }
+    }
+
+    /**
+     * Initializes game world with a new seed drawn from the random number generator of the game.
+     */
+    public void initializeGame() {
+        initializeGame(random.nextLong());
+    }
+
+    /**
+     * Initializes game world and places the food and player on starting position. Food placement depends only on the
+     * seed, so a game initialized with the same seed and played with the same actions is played out the same way.
+     *
+     * @param seed Seed of the episode.
+     */
+    public void initializeGame(final long seed) {
+        episodeSeed = seed;
+        episodeRandom = new SplittableRandom(seed);
+
+        snakeLength = 3;
+        snakePosition = new Position[900];
+
+        // Set snake on it's default position
+        for (int i = 0; i < snakeLength; i++) {
+            snakePosition[i] = new Position(50 - i * GameUtils.PLAYER_SIZE, 50);
+        }
+
+        // Set food position
+        setFoodPosition();
+
+        featureContext.reset(snakePosition, snakeLength);
+        featureContext.update(snakePosition[0], foodPosition);
+
+        // Mark that player is in game
+        inGame = true;
+
+        publishSnapshotIfEnabled();
+    }
+
+    /**
+     * Used to check if the game is still ongoing.
+     *
+     * @return Returns true if player is still alive and in the game.
+     */
+    public boolean isOngoing() {
+        return inGame;
+    }
+
+    /**
+     * Used to end game.
+     */
+    public void endGame() {
+        this.inGame = false;
+        publishSnapshotIfEnabled();
+    }
+
+    /**
+     * Get current game state.
+     *
+     * @return Returns an object representing current game state.
+     */
+    public GameState getGameState() {
+        return GameStateHelper.createGameState(featureContext, currentDirection);
+    }
+
+    /**
+     * Get mask of actions which do not end the game in the current step, see
+     * {@link GameStateHelper#getActionMask(FeatureContext, Direction)}.
+     *
+     * @return Returns mask where bit i is set if action with index i is safe.
+     */
+    public int getActionMask() {
+        return GameStateHelper.getActionMask(featureContext, currentDirection);
+    }
+
+    /**
+     * Get feature context of the current step.
+     *
+     * @return Returns feature context which is kept up to date with every move.
+     */
+    public FeatureContext getFeatureContext() {
+        return featureContext;
+    }
+
+    /**
+     * Get snake position.
+     *
+     * @return Returns current snake position.
+     */
+    public Position[] getSnakePosition() {
+        return snakePosition;
+    }
+
+    /**
+     * Get seed of the current episode.
+     *
+     * @return Returns seed the current episode was initialized with.
+     */
+    public long getEpisodeSeed() {
+        return episodeSeed;
+    }
+
+    /**
+     * Get food position.
+     *
+     * @return Returns current food position.
+     */
+    public Position getFoodPosition() {
+        return foodPosition;
+    }
+
+    /**
+     * Get current snake length;
+     *
+     * @return Returns current snake length.
+     */
+    public int getSnakeLength() {
+        return snakeLength;
+    }
+
+    /**
+     * Get last published snapshot. Can be called from any thread.
+     *
+     * @return Returns last published snapshot of the game, or null if none was published yet.
+     */
+    public GameSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Turns publishing of snapshots on or off. Snapshots are only needed if somebody is watching the game, so they
+     * are off by default.
+     *
+     * @param snapshotsEnabled True if snapshot should be published after every move.
+     */
+    public void setSnapshotsEnabled(final boolean snapshotsEnabled) {
+        this.snapshotsEnabled = snapshotsEnabled;
+        publishSnapshotIfEnabled();
+    }
+
+    /**
+     * Checks if snapshot is published after every move.
+     *
+     * @return Returns true if snapshots are enabled.
+     */
+    public boolean isSnapshotsEnabled() {
+        return snapshotsEnabled;
+    }
+
+    /**
+     * Publishes snapshot of the current game, regardless of whether snapshots are enabled. Used to show only some
+     * of the moves.
+     */
+    public void publishSnapshot() {
+        snapshot = new GameSnapshot(Arrays.copyOf(snakePosition, snakeLength), foodPosition, inGame);
+    }
+    // endregion
+
+    // region Helper
+    // Checks for eaten food and collisions after the player has moved
+    private void onMoved() {
+        if (inGame) {
+            if (isFoodEaten()) {
+                // Increase player length
+                snakeLength++;
+
+                // Set food on a new position
+                setFoodPosition();
+            } else {
+                 final Position headPosition = snakePosition[0];
+
+                 // Snake has tried to eat itself, including the tail which is just moving away
+                 final boolean isColliding = featureContext.isHeadColliding(headPosition);
+
+                 // Tail has moved on, so the cell it was occupying is free now
+                 featureContext.onTailVacated(snakePosition[snakeLength]);
+
+                 inGame = !headPosition.isOutsideTheGameBounds() && !isColliding;
+            }
+        }
+
+        if (!inGame) {
+            LOG.debug("Game is over :(");
+        }
+
+        publishSnapshotIfEnabled();
+    }
+
+    private void publishSnapshotIfEnabled() {
+        if (snapshotsEnabled) {
+            publishSnapshot();
+        }
+    }
+
+    private void setFoodPosition() {
+        foodPosition = new Position(
+                episodeRandom.nextInt(29) * GameUtils.PLAYER_SIZE,
+                episodeRandom.nextInt(29) * GameUtils.PLAYER_SIZE
+        );
+    }
+
+    private boolean isFoodEaten() {
+        // Get current position of snakes head
+        final Position headPosition = snakePosition[0];
+
+        // Return true if snakes head is on the food position (snake if having a snack)
+        return foodPosition.equals(headPosition);
+    }
+    // endregion
+}
@@ -0,0 +1,49 @@
+package com.liliumbosniacum.snakedl4j.game;
+
+import com.liliumbosniacum.snakedl4j.game.helper.Position;
+
+/**
+ * Immutable picture of the game taken after a move. Game publishes a new one after every move, so that it can be
+ * rendered on another thread without ever seeing a half updated game.
+ *
+ * @author mirza
+ */
+public final class GameSnapshot {
+    // region Member
+    private final Position[] snakePosition;
+    private final Position foodPosition;
+    private final boolean inGame;
+    // endregion
+
+    // region Constructor
+    /**
+     * @param snakePosition Positions of the snake parts, array must not be changed afterwards.
+     * @param foodPosition Food position.
+     * @param inGame True if player is still alive and in the game.
+     */
+    GameSnapshot(final Position[] snakePosition, final Position foodPosition, final boolean inGame) {
+        this.snakePosition = snakePosition;
+        this.foodPosition = foodPosition;
+        this.inGame = inGame;
+    }
+    // endregion
+
+    // region Implementation
+    /**
+     * Get snake position.
+     *
+     * @return Returns positions of all snake parts, head first. Array must not be changed.
+     */
+    public Position[] getSnakePosition() {
+        return snakePosition;
+    }
+
+    public Position getFoodPosition() {
+        return foodPosition;
+    }
+
+    public boolean isInGame() {
+        return inGame;
+    }
+    // endregion
+}
@@ -21,5 +21,16 @@ public enum Direction {
     /**
      * Player will move left.
      */
-    LEFT
+    LEFT;
+
+    private static final Direction[] VALUES = values();
+
+    /**
+     * Get the direction pointing the opposite way.
+     *
+     * @return Returns opposite direction (e.g. DOWN for UP).
+     */
+    public Direction getOpposite() {
+        return VALUES[(ordinal() + 2) % VALUES.length];
+    }
 }
@@ -0,0 +1,55 @@
+package com.liliumbosniacum.snakedl4j.game.helper;
+
+/**
+ * Util class containing methods used to ease our handling of the game.
+ *
+ * @author mirza
+ */
+public final class GameUtils {
+    // region Member
+    /**
+     * Dimensions of game world 300x300.
+     */
+    public static final int GAME_DIMENSIONS = 300;
+    /**
+     * Size of a player body part (head or tail).
+     */
+    public static final int PLAYER_SIZE = 10;
+    /**
+     * Number of cells along one side of the game world (positions from 0 up to and including the dimensions are
+     * inside the bounds).
+     */
+    public static final int GRID_CELLS = GAME_DIMENSIONS / PLAYER_SIZE + 1;
+    // endregion
+
+    // region Constructor
+    private GameUtils() {}
+    // endregion
+
+    // region Implementation
+    /**
+     * Get index of the cell on which the position lies.
+     *
+     * @param x X coordinate.
+     * @param y Y coordinate.
+     * @return Returns index of the cell counted row by row, or -1 if position is outside the game bounds.
+     */
+    public static int getCellIndex(final int x, final int y) {
+        if (x > GAME_DIMENSIONS || y > GAME_DIMENSIONS || x < 0 || y < 0) {
+            return -1;
+        }
+
+        return (y / PLAYER_SIZE) * GRID_CELLS + x / PLAYER_SIZE;
+    }
+
+    /**
+     * Get index of the cell on which the position lies.
+     *
+     * @param position Position.
+     * @return Returns index of the cell counted row by row, or -1 if position is outside the game bounds.
+     */
+    public static int getCellIndex(final Position position) {
+        return getCellIndex(position.getX(), position.getY());
+    }
+    // endregion
+}
@@ -8,8 +8,8 @@ import java.util.Objects;
  * @author mirza
  */
 public class Position {
-    private int x;
-    private int y;
+    private final int x;
+    private final int y;
 
     public Position(int x, int y) {
         this.x = x;
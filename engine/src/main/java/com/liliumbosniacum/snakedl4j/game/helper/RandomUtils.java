@@ -0,0 +1,45 @@
+package com.liliumbosniacum.snakedl4j.game.helper;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.SplittableRandom;
+
+/**
+ * Util class used to create random number generators. All randomness of a run is derived from one master seed, which
+ * can be set with system property {@code snakedl4j.seed}. Master generator is split into one generator per game and
+ * one per agent, so that threads never share a generator and a run with the same seed is played out the same way.
+ *
+ * @author mirza
+ */
+public final class RandomUtils {
+    // region Member
+    /**
+     * System property holding the master seed.
+     */
+    public static final String SEED_PROPERTY = "snakedl4j.seed";
+
+    private static final Logger LOG = LoggerFactory.getLogger(RandomUtils.class);
+    // endregion
+
+    // region Constructor
+    private RandomUtils() {}
+    // endregion
+
+    // region Implementation
+    /**
+     * Creates master random number generator from the configured seed, or from a random seed if none is configured.
+     * Used seed is logged so that the run can be repeated. Returned generator is not thread safe, generators for
+     * other threads should be split from it before they are started.
+     *
+     * @return Returns master random number generator.
+     */
+    public static SplittableRandom createMasterRandom() {
+        final Long configuredSeed = Long.getLong(SEED_PROPERTY);
+        final long seed = configuredSeed != null ? configuredSeed : new SplittableRandom().nextLong();
+
+        LOG.info("Using master seed '{}', run can be repeated with '-D{}={}'", seed, SEED_PROPERTY, seed);
+        return new SplittableRandom(seed);
+    }
+    // endregion
+}
@@ -0,0 +1,86 @@
+package com.liliumbosniacum.snakedl4j.game.playback;
+
+import com.liliumbosniacum.snakedl4j.game.Game;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Controls how fast a game is played back and which moves are shown. Mode can be changed from any thread at any
+ * time, it is picked up with the next move.
+ *
+ * @author mirza
+ */
+public final class PlaybackControl {
+    // region Member
+    /**
+     * Every k-th move is shown in {@link PlaybackMode#TURBO} mode.
+     */
+    public static final int FRAME_SKIP = Integer.getInteger("snakedl4j.playback.frameSkip", 100);
+
+    // Time between two moves in real time mode
+    private static final long MOVE_NANOS = TimeUnit.MILLISECONDS.toNanos(20);
+
+    private volatile PlaybackMode mode;
+
+    // Only accessed by the thread running the game
+    private long nextMoveAt;
+    private long moveCount;
+    // endregion
+
+    // region Constructor
+    public PlaybackControl(final PlaybackMode mode) {
+        this.mode = mode;
+    }
+    // endregion
+
+    // region Implementation
+    /**
+     * Needs to be called after every move. Waits until it is time for the next move and decides if the move is
+     * shown.
+     *
+     * @param game Game which was moved.
+     */
+    public void afterMove(final Game game) {
+        final PlaybackMode currentMode = mode;
+        moveCount++;
+
+        if (currentMode.isTurbo()) {
+            if (game.isSnapshotsEnabled()) {
+                game.setSnapshotsEnabled(false);
+            }
+
+            final boolean isShown = !game.isOngoing()
+                    || (currentMode == PlaybackMode.TURBO && moveCount % FRAME_SKIP == 0);
+            if (isShown) {
+                game.publishSnapshot();
+            }
+
+            return;
+        }
+
+        if (!game.isSnapshotsEnabled()) {
+            game.setSnapshotsEnabled(true);
+        }
+
+        // Moves are paced by deadlines, so time spent on the move itself does not slow down the playback
+        final long interval = MOVE_NANOS / currentMode.getSpeed();
+        final long now = System.nanoTime();
+        nextMoveAt = now - nextMoveAt > interval ? now + interval : nextMoveAt + interval;
+
+        long remaining = nextMoveAt - now;
+        while (remaining > 0) {
+            LockSupport.parkNanos(remaining);
+            remaining = nextMoveAt - System.nanoTime();
+        }
+    }
+
+    public PlaybackMode getMode() {
+        return mode;
+    }
+
+    public void setMode(final PlaybackMode mode) {
+        this.mode = mode;
+    }
+    // endregion
+}
@@ -0,0 +1,64 @@
+package com.liliumbosniacum.snakedl4j.game.playback;
+
+/**
+ * Enum containing speeds at which a game can be played back.
+ *
+ * @author mirza
+ */
+public enum PlaybackMode {
+    /**
+     * Every move is shown and moves are paced so that the user can follow the snake.
+     */
+    REAL_TIME("Real time", 1),
+    /**
+     * Every move is shown at double the real time speed.
+     */
+    DOUBLE_SPEED("2x", 2),
+    /**
+     * Every move is shown at four times the real time speed.
+     */
+    QUADRUPLE_SPEED("4x", 4),
+    /**
+     * Every move is shown at eight times the real time speed.
+     */
+    OCTUPLE_SPEED("8x", 8),
+    /**
+     * Game runs at full speed and only every few moves are shown.
+     */
+    TURBO("Turbo (every " + PlaybackControl.FRAME_SKIP + ". move)", 0),
+    /**
+     * Game runs at full speed and only the last move of each game is shown.
+     */
+    TURBO_LAST_MOVE("Turbo (last move of each game)", 0);
+
+    private final String label;
+    private final int speed;
+
+    PlaybackMode(final String label, final int speed) {
+        this.label = label;
+        this.speed = speed;
+    }
+
+    /**
+     * Get playback speed.
+     *
+     * @return Returns multiple of the real time speed, or 0 if moves are not paced at all.
+     */
+    public int getSpeed() {
+        return speed;
+    }
+
+    /**
+     * Checks if the game runs at full speed.
+     *
+     * @return Returns true if only some of the moves are shown.
+     */
+    public boolean isTurbo() {
+        return speed == 0;
+    }
+
+    @Override
+    public String toString() {
+        return label;
+    }
+}
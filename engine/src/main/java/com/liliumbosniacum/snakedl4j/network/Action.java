@@ -3,7 +3,7 @@ package com.liliumbosniacum.snakedl4j.network;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
-import java.util.Random;
+import java.util.SplittableRandom;
 
 /**
  * Class representing actions which player can take.
@@ -30,15 +30,37 @@ public enum Action {
 
     private static final List<Action> VALUES = Collections.unmodifiableList(Arrays.asList(values()));
     private static final int SIZE = VALUES.size();
-    private static final Random RANDOM = new Random();
 
     /**
      * Get random action from all available values.
      *
+     * @param random Random number generator of the agent.
      * @return Returns one of Action values.
      */
-    public static Action getRandomAction() {
-        return VALUES.get(RANDOM.nextInt(SIZE));
+    public static Action getRandomAction(final SplittableRandom random) {
+        return VALUES.get(random.nextInt(SIZE));
+    }
+
+    /**
+     * Get random action from actions allowed by the mask. When no action is allowed any action is returned.
+     *
+     * @param random Random number generator of the agent.
+     * @param actionMask Mask where bit i is set if action with index i is allowed.
+     * @return Returns one of allowed Action values.
+     */
+    public static Action getRandomAction(final SplittableRandom random, final int actionMask) {
+        final int allowed = actionMask & ((1 << SIZE) - 1);
+        if (allowed == 0) {
+            return getRandomAction(random);
+        }
+
+        // Skip the given number of allowed actions
+        int mask = allowed;
+        for (int skip = random.nextInt(Integer.bitCount(allowed)); skip > 0; skip--) {
+            mask &= mask - 1;
+        }
+
+        return VALUES.get(Integer.numberOfTrailingZeros(mask));
     }
 
     /**
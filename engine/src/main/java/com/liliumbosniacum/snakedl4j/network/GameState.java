@@ -0,0 +1,81 @@
+package com.liliumbosniacum.snakedl4j.network;
+
+import com.liliumbosniacum.snakedl4j.game.helper.Direction;
+import com.liliumbosniacum.snakedl4j.network.util.FeatureContext;
+import com.liliumbosniacum.snakedl4j.network.util.GameStateHelper;
+
+import java.util.Arrays;
+
+/**
+ * Class representing current game state.
+ *
+ * @author mirza
+ */
+public class GameState {
+    private Boolean[] states;
+    private final int actionMask;
+
+    /**
+     * Creates game state whose mask of safe actions is derived from the states, see
+     * {@link GameStateHelper#getActionMask(int, int)}.
+     *
+     * @param states Values of all inputs.
+     */
+    public GameState(final Boolean[] states) {
+        this.states = states;
+        this.actionMask = GameStateHelper.getActionMask(getStateBits(), GameStateHelper.getViewDistance(states.length));
+    }
+
+    /**
+     * @param states Values of all inputs.
+     * @param actionMask Mask of safe actions, see {@link GameStateHelper#getActionMask(FeatureContext, Direction)}.
+     */
+    public GameState(final Boolean[] states, final int actionMask) {
+        this.states = states;
+        this.actionMask = actionMask;
+    }
+
+    public Boolean[] getStates() {
+        return states;
+    }
+
+    @Override
+    public String toString() {
+        return "GameState{states=" + Arrays.toString(states) + '}';
+    }
+
+    /**
+     * Builds game state string based on current values.
+     * @return Returns e.g. from [false, true, false] -> 010.
+     */
+    public String getGameStateString() {
+        final StringBuilder builder = new StringBuilder();
+        for (final Boolean state : states) {
+            builder.append(state ? '1' : '0');
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Packs current values into an integer.
+     * @return Returns e.g. from [false, true, true] -> 0b110 (value at index i is stored in bit i).
+     */
+    public int getStateBits() {
+        int bits = 0;
+        for (int i = 0; i < states.length; i++) {
+            if (states[i]) {
+                bits |= 1 << i;
+            }
+        }
+        return bits;
+    }
+
+    /**
+     * Get mask of actions which do not end the game. States created by the game also exclude moving into the body.
+     *
+     * @return Returns mask where bit i is set if action with index i is safe.
+     */
+    public int getActionMask() {
+        return actionMask;
+    }
+}
@@ -0,0 +1,37 @@
+package com.liliumbosniacum.snakedl4j.network.recording;
+
+import java.nio.ByteOrder;
+
+/**
+ * Layout of the binary trajectory file. File starts with a header followed by fixed size records, which allows
+ * records to be located by their index without reading the file from the start.
+ *
+ * <pre>
+ * Header:        int magic | short version | short record size | int number of game state inputs | int unused
+ * Episode start: byte type | byte unused | short food cell | int unused | long seed
+ * Step:          byte type | byte flags (action, terminal, food eaten) | short food cell | int state bits
+ *                | int next state bits | float reward
+ * </pre>
+ *
+ * @author mirza
+ */
+final class TrajectoryFormat {
+    // region Member
+    static final int MAGIC = 0x534E4B54; // SNKT
+    static final short VERSION = 1;
+    static final int RECORD_SIZE = 16;
+    static final int HEADER_SIZE = RECORD_SIZE;
+    static final ByteOrder BYTE_ORDER = ByteOrder.LITTLE_ENDIAN;
+
+    static final byte EPISODE_START = 1;
+    static final byte STEP = 2;
+
+    static final int ACTION_MASK = 0b11;
+    static final int TERMINAL_FLAG = 1 << 2;
+    static final int FOOD_EATEN_FLAG = 1 << 3;
+    // endregion
+
+    // region Constructor
+    private TrajectoryFormat() {}
+    // endregion
+}
@@ -0,0 +1,199 @@
+package com.liliumbosniacum.snakedl4j.network.recording;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads a binary trajectory file (see {@link TrajectoryFormat}) record by record. File is memory mapped in windows
+ * which are replaced as the reader moves on, so recordings of any size can be read without loading them into heap.
+ * Reader works as a cursor, values of the current record are available through getters until the next move.
+ *
+ * @author mirza
+ */
+public final class TrajectoryReader implements Closeable {
+    // region Member
+    private static final long WINDOW_SIZE = 1L << 28; // Must be a multiple of the record size
+
+    private final FileChannel channel;
+    private final long recordCount;
+    private final int inputCount;
+
+    private MappedByteBuffer window;
+    private long windowStart = -1;
+    private long recordIndex = -1;
+
+    private byte type;
+    private int flags;
+    private int foodCell;
+    private int stateBits;
+    private int nextStateBits;
+    private float reward;
+    private long seed;
+    // endregion
+
+    // region Constructor
+    /**
+     * @param file File to read.
+     * @throws IOException If file can not be opened or it is not a trajectory file.
+     */
+    public TrajectoryReader(final Path file) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        this.inputCount = validateHeader(channel, -1);
+        this.recordCount = (channel.size() - TrajectoryFormat.HEADER_SIZE) / TrajectoryFormat.RECORD_SIZE;
+    }
+    // endregion
+
+    // region Implementation
+    /**
+     * Moves to the next record.
+     *
+     * @return Returns false if there are no more records.
+     * @throws IOException If the next window of the file can not be mapped.
+     */
+    public boolean next() throws IOException {
+        if (recordIndex + 1 >= recordCount) {
+            return false;
+        }
+
+        moveTo(recordIndex + 1);
+        return true;
+    }
+
+    /**
+     * Moves to the record with the given index.
+     *
+     * @param index Index of the record, from 0 to {@link #getRecordCount()} (exclusive).
+     * @throws IOException If the window of the file containing the record can not be mapped.
+     */
+    public void moveTo(final long index) throws IOException {
+        final long offset = TrajectoryFormat.HEADER_SIZE + index * TrajectoryFormat.RECORD_SIZE;
+        if (window == null || offset < windowStart || offset >= windowStart + WINDOW_SIZE) {
+            mapWindow(offset - offset % WINDOW_SIZE);
+        }
+
+        final int position = (int) (offset - windowStart);
+        type = window.get(position);
+        flags = window.get(position + 1);
+        foodCell = window.getShort(position + 2);
+
+        if (type == TrajectoryFormat.EPISODE_START) {
+            seed = window.getLong(position + 8);
+        } else {
+            stateBits = window.getInt(position + 4);
+            nextStateBits = window.getInt(position + 8);
+            reward = window.getFloat(position + 12);
+        }
+
+        recordIndex = index;
+    }
+
+    public long getRecordCount() {
+        return recordCount;
+    }
+
+    /**
+     * Get number of game state inputs stored in the state bits.
+     *
+     * @return Returns number of inputs the recording was made with.
+     */
+    public int getInputCount() {
+        return inputCount;
+    }
+
+    /**
+     * Checks if the current record marks the start of a new episode, otherwise it is a step.
+     *
+     * @return Returns true for episode start records.
+     */
+    public boolean isEpisodeStart() {
+        return type == TrajectoryFormat.EPISODE_START;
+    }
+
+    /**
+     * Get seed of the episode, only set on episode start records.
+     *
+     * @return Returns seed the episode was played with.
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    public int getFoodCell() {
+        return foodCell;
+    }
+
+    public int getStateBits() {
+        return stateBits;
+    }
+
+    public int getNextStateBits() {
+        return nextStateBits;
+    }
+
+    public int getAction() {
+        return flags & TrajectoryFormat.ACTION_MASK;
+    }
+
+    public float getReward() {
+        return reward;
+    }
+
+    public boolean isTerminal() {
+        return (flags & TrajectoryFormat.TERMINAL_FLAG) != 0;
+    }
+
+    public boolean isFoodEaten() {
+        return (flags & TrajectoryFormat.FOOD_EATEN_FLAG) != 0;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+    // endregion
+
+    // region Helper
+    /**
+     * Reads the header and checks that it belongs to a trajectory file.
+     *
+     * @param channel Channel to read from.
+     * @param expectedInputCount Expected number of game state inputs or -1 if any number is accepted.
+     * @return Returns number of game state inputs stored in the file.
+     * @throws IOException If header is not valid.
+     */
+    static int validateHeader(final FileChannel channel, final int expectedInputCount) throws IOException {
+        final ByteBuffer header = ByteBuffer.allocate(TrajectoryFormat.HEADER_SIZE).order(TrajectoryFormat.BYTE_ORDER);
+        while (header.hasRemaining()) {
+            if (channel.read(header, header.position()) < 0) {
+                throw new IOException("File is too short to be a trajectory file");
+            }
+        }
+
+        if (header.getInt(0) != TrajectoryFormat.MAGIC) {
+            throw new IOException("File is not a trajectory file");
+        }
+        if (header.getShort(4) != TrajectoryFormat.VERSION) {
+            throw new IOException("Unsupported trajectory file version " + header.getShort(4));
+        }
+
+        final int inputCount = header.getInt(8);
+        if (expectedInputCount >= 0 && inputCount != expectedInputCount) {
+            throw new IOException("File was recorded with " + inputCount + " inputs instead of " + expectedInputCount);
+        }
+
+        return inputCount;
+    }
+
+    private void mapWindow(final long start) throws IOException {
+        final long size = Math.min(WINDOW_SIZE, channel.size() - start);
+        window = channel.map(FileChannel.MapMode.READ_ONLY, start, size);
+        window.order(TrajectoryFormat.BYTE_ORDER);
+        windowStart = start;
+    }
+    // endregion
+}
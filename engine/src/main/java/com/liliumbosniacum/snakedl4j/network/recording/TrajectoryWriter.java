@@ -0,0 +1,178 @@
+package com.liliumbosniacum.snakedl4j.network.recording;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Appends episodes to a binary trajectory file (see {@link TrajectoryFormat}). Records are collected in a direct
+ * buffer and written to the file channel only once it is full, so recording a step costs a few buffer puts.
+ * Writer is not thread safe, every game needs its own file.
+ *
+ * @author mirza
+ */
+public final class TrajectoryWriter implements Closeable {
+    // region Member
+    /**
+     * System property holding the file to which games should be recorded. Nothing is recorded if it is not set.
+     */
+    public static final String RECORDING_PROPERTY = "snakedl4j.recording";
+
+    private static final Logger LOG = LoggerFactory.getLogger(TrajectoryWriter.class);
+    private static final int BUFFER_SIZE = 1 << 20;
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE).order(TrajectoryFormat.BYTE_ORDER);
+    private boolean failed;
+    // endregion
+
+    // region Constructor
+    /**
+     * Opens the file for appending and writes the header if the file is empty.
+     *
+     * @param file File to write to.
+     * @param inputCount Number of game state inputs stored in state bits.
+     * @throws IOException If file can not be opened or it is not a trajectory file.
+     */
+    public TrajectoryWriter(final Path file, final int inputCount) throws IOException {
+        this.channel = FileChannel.open(
+                file,
+                StandardOpenOption.CREATE,
+                StandardOpenOption.READ,
+                StandardOpenOption.WRITE
+        );
+
+        if (channel.size() == 0) {
+            buffer.putInt(TrajectoryFormat.MAGIC)
+                    .putShort(TrajectoryFormat.VERSION)
+                    .putShort((short) TrajectoryFormat.RECORD_SIZE)
+                    .putInt(inputCount)
+                    .putInt(0);
+        } else {
+            TrajectoryReader.validateHeader(channel, inputCount);
+
+            // Drop partially written record, if the last session did not finish cleanly
+            final long size = channel.size();
+            final long validSize = size - (size - TrajectoryFormat.HEADER_SIZE) % TrajectoryFormat.RECORD_SIZE;
+            channel.truncate(validSize);
+            channel.position(validSize);
+        }
+    }
+    // endregion
+
+    // region Implementation
+    /**
+     * Opens the file set in {@link #RECORDING_PROPERTY}.
+     *
+     * @param inputCount Number of game state inputs stored in state bits.
+     * @return Returns writer or null if recording is not configured or the file can not be opened.
+     */
+    public static TrajectoryWriter openConfigured(final int inputCount) {
+        final String file = System.getProperty(RECORDING_PROPERTY);
+        if (file == null) {
+            return null;
+        }
+
+        try {
+            LOG.info("Recording games to '{}'", file);
+            return new TrajectoryWriter(Paths.get(file), inputCount);
+        } catch (final IOException e) {
+            LOG.error("Failed to open recording file: '{}'", e.getMessage(), e);
+            return null;
+        }
+    }
+
+    /**
+     * Marks the start of a new episode.
+     *
+     * @param seed Seed the episode is played with.
+     * @param foodCell Cell on which the first food is placed.
+     */
+    public void startEpisode(final long seed, final int foodCell) {
+        ensureCapacity();
+        buffer.put(TrajectoryFormat.EPISODE_START)
+                .put((byte) 0)
+                .putShort((short) foodCell)
+                .putInt(0)
+                .putLong(seed);
+    }
+
+    /**
+     * Records one step of the current episode.
+     *
+     * @param stateBits Packed bits of the state in which action was taken.
+     * @param action Index of the taken action.
+     * @param reward Reward received for the action.
+     * @param nextStateBits Packed bits of the state reached by the action.
+     * @param terminal True if the game was over after the action.
+     * @param foodEaten True if food was eaten and placed on a new cell.
+     * @param foodCell Cell on which food is placed after the action.
+     */
+    public void recordStep(final int stateBits,
+                           final int action,
+                           final double reward,
+                           final int nextStateBits,
+                           final boolean terminal,
+                           final boolean foodEaten,
+                           final int foodCell) {
+        ensureCapacity();
+
+        int flags = action & TrajectoryFormat.ACTION_MASK;
+        if (terminal) {
+            flags |= TrajectoryFormat.TERMINAL_FLAG;
+        }
+        if (foodEaten) {
+            flags |= TrajectoryFormat.FOOD_EATEN_FLAG;
+        }
+
+        buffer.put(TrajectoryFormat.STEP)
+                .put((byte) flags)
+                .putShort((short) foodCell)
+                .putInt(stateBits)
+                .putInt(nextStateBits)
+                .putFloat((float) reward);
+    }
+
+    /**
+     * Writes all buffered records to the file.
+     */
+    public void flush() {
+        buffer.flip();
+        try {
+            while (buffer.hasRemaining() && !failed) {
+                channel.write(buffer);
+            }
+        } catch (final IOException e) {
+            // Recording must never stop the game, so it is only turned off
+            LOG.error("Failed to write recording, recording is turned off: '{}'", e.getMessage(), e);
+            failed = true;
+        }
+        buffer.clear();
+    }
+
+    @Override
+    public void close() {
+        flush();
+        try {
+            channel.close();
+        } catch (final IOException e) {
+            LOG.error("Failed to close recording: '{}'", e.getMessage(), e);
+        }
+    }
+    // endregion
+
+    // region Helper
+    private void ensureCapacity() {
+        if (buffer.remaining() < TrajectoryFormat.RECORD_SIZE) {
+            flush();
+        }
+    }
+    // endregion
+}
@@ -0,0 +1,254 @@
+package com.liliumbosniacum.snakedl4j.network.util;
+
+import com.liliumbosniacum.snakedl4j.game.helper.Direction;
+import com.liliumbosniacum.snakedl4j.game.helper.GameUtils;
+import com.liliumbosniacum.snakedl4j.game.helper.Position;
+
+import java.util.Arrays;
+
+/**
+ * Per game context holding everything that network inputs and rewards are derived from. Snake body occupancy is kept
+ * in a grid which is updated incrementally on every head move, while rays and food flags are computed once per step
+ * and then shared by game state and score calculation.
+ *
+ * @author mirza
+ */
+public final class FeatureContext {
+    // region Member
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    // Number of cells the snake can see in each direction
+    private final int viewDistance;
+
+    // Number of snake body parts placed on each cell of the game world
+    private final byte[] occupancy = new byte[GameUtils.GRID_CELLS * GameUtils.GRID_CELLS];
+
+    // Ray for each direction (indexed by direction ordinal), bit i is set if cell i + 1 steps away is inside the bounds
+    private final int[] rays = new int[DIRECTIONS.length];
+
+    // Bit i is set if food can be eaten with the next move in direction with ordinal i
+    private int eatFlags;
+
+    // Bit i is set if the cell next to the head in direction with ordinal i is occupied by the body
+    private int bodyFlags;
+
+    // Food flags in the same order as they are used in game state (up, right, down, left, up right, up left...)
+    private int foodFlags;
+    // endregion
+
+    // region Constructor
+    public FeatureContext() {
+        this(GameStateHelper.VIEW_DISTANCE);
+    }
+
+    /**
+     * @param viewDistance Number of cells the snake can see in each direction.
+     */
+    public FeatureContext(final int viewDistance) {
+        if (viewDistance < 1 || viewDistance > GameStateHelper.MAX_VIEW_DISTANCE) {
+            throw new IllegalArgumentException("View distance must be between 1 and "
+                    + GameStateHelper.MAX_VIEW_DISTANCE + " but was " + viewDistance);
+        }
+
+        this.viewDistance = viewDistance;
+    }
+    // endregion
+
+    // region Implementation
+    /**
+     * Clears the occupancy grid and places the snake on it.
+     *
+     * @param snakePosition Positions of all snake parts.
+     * @param snakeLength Current snake length.
+     */
+    public void reset(final Position[] snakePosition, final int snakeLength) {
+        Arrays.fill(occupancy, (byte) 0);
+
+        for (int i = 0; i < snakeLength; i++) {
+            onHeadMoved(snakePosition[i]);
+        }
+    }
+
+    /**
+     * Marks the cell where the head moved to as occupied.
+     *
+     * @param headPosition New head position.
+     */
+    public void onHeadMoved(final Position headPosition) {
+        final int cell = GameUtils.getCellIndex(headPosition.getX(), headPosition.getY());
+        if (cell >= 0) {
+            occupancy[cell]++;
+        }
+    }
+
+    /**
+     * Marks the cell which was left by the tail as free.
+     *
+     * @param tailPosition Previous tail position.
+     */
+    public void onTailVacated(final Position tailPosition) {
+        final int cell = GameUtils.getCellIndex(tailPosition.getX(), tailPosition.getY());
+        if (cell >= 0 && occupancy[cell] > 0) {
+            occupancy[cell]--;
+        }
+    }
+
+    /**
+     * Checks if the head shares its cell with another body part. Needs to be called once the head has moved and before
+     * the tail has moved on, since moving onto the tail which is just moving away ends the game as well.
+     *
+     * @param headPosition New head position.
+     * @return Returns true if the cell of the head was already occupied before the head moved there.
+     */
+    public boolean isHeadColliding(final Position headPosition) {
+        final int cell = GameUtils.getCellIndex(headPosition.getX(), headPosition.getY());
+        return cell >= 0 && occupancy[cell] > 1;
+    }
+
+    /**
+     * Computes rays and food flags for the current step. Needs to be called once the head has moved and the food has
+     * been placed.
+     *
+     * @param headPosition Current head position.
+     * @param foodPosition Current food position.
+     */
+    public void update(final Position headPosition, final Position foodPosition) {
+        final int headX = headPosition.getX();
+        final int headY = headPosition.getY();
+        final int foodX = foodPosition.getX();
+        final int foodY = foodPosition.getY();
+
+        eatFlags = 0;
+        bodyFlags = 0;
+        for (final Direction direction : DIRECTIONS) {
+            final int stepX = getStepX(direction);
+            final int stepY = getStepY(direction);
+
+            int ray = 0;
+            for (int i = 1; i <= viewDistance; i++) {
+                if (isInside(headX + stepX * i, headY + stepY * i)) {
+                    ray |= 1 << (i - 1);
+                }
+            }
+            rays[direction.ordinal()] = ray;
+
+            if (headX + stepX == foodX && headY + stepY == foodY) {
+                eatFlags |= 1 << direction.ordinal();
+            } else if (isOccupied(headX + stepX, headY + stepY)) {
+                // Eating the food is never a collision, so the body only counts on cells without food
+                bodyFlags |= 1 << direction.ordinal();
+            }
+        }
+
+        final boolean isFoodUp = foodY < headY;
+        final boolean isFoodRight = foodX > headX;
+        final boolean isFoodDown = foodY > headY;
+        final boolean isFoodLeft = foodX < headX;
+
+        foodFlags = toBit(isFoodUp, 0)
+                | toBit(isFoodRight, 1)
+                | toBit(isFoodDown, 2)
+                | toBit(isFoodLeft, 3)
+                | toBit(isFoodUp && isFoodRight, 4)
+                | toBit(isFoodUp && isFoodLeft, 5)
+                | toBit(isFoodDown && isFoodRight, 6)
+                | toBit(isFoodDown && isFoodLeft, 7);
+    }
+
+    /**
+     * Get view distance.
+     *
+     * @return Returns number of cells the snake can see in each direction.
+     */
+    public int getViewDistance() {
+        return viewDistance;
+    }
+
+    /**
+     * Get ray for the given direction.
+     *
+     * @param direction Direction of the ray.
+     * @return Returns ray bits, bit i is set if cell i + 1 steps away from the head is inside the bounds.
+     */
+    public int getRay(final Direction direction) {
+        return rays[direction.ordinal()];
+    }
+
+    /**
+     * Get food flags.
+     *
+     * @return Returns food flags where bit i corresponds to food state i.
+     */
+    public int getFoodFlags() {
+        return foodFlags;
+    }
+
+    /**
+     * Writes occupancy of all cells, 1 for cells occupied by the snake and 0 for free ones.
+     *
+     * @param destination Array to write into, cells are written row by row.
+     * @param offset Index at which the first cell is written.
+     */
+    public void copyOccupancy(final float[] destination, final int offset) {
+        for (int cell = 0; cell < occupancy.length; cell++) {
+            destination[offset + cell] = occupancy[cell] > 0 ? 1 : 0;
+        }
+    }
+
+    /**
+     * Checks if food will be eaten by moving in the given direction.
+     *
+     * @param direction Direction to check.
+     * @return Returns true if food is right next to the head in the given direction.
+     */
+    public boolean canEatFood(final Direction direction) {
+        return (eatFlags & (1 << direction.ordinal())) != 0;
+    }
+
+    /**
+     * Checks if moving in the given direction runs into the body. Every body part counts, including the tail which
+     * is just moving away, since the game ends in that case as well.
+     *
+     * @param direction Direction to check.
+     * @return Returns true if the cell next to the head in the given direction is occupied and holds no food.
+     */
+    public boolean isBodyAhead(final Direction direction) {
+        return (bodyFlags & (1 << direction.ordinal())) != 0;
+    }
+    // endregion
+
+    // region Helper
+    /**
+     * Cell counts as positive if it is inside the bounds. Snake body is not checked, the trained network was trained
+     * on inputs which only see the walls.
+     */
+    private static boolean isInside(final int x, final int y) {
+        return GameUtils.getCellIndex(x, y) >= 0;
+    }
+
+    private boolean isOccupied(final int x, final int y) {
+        final int cell = GameUtils.getCellIndex(x, y);
+        return cell >= 0 && occupancy[cell] > 0;
+    }
+
+    private static int getStepX(final Direction direction) {
+        if (direction == Direction.RIGHT) {
+            return GameUtils.PLAYER_SIZE;
+        }
+
+        return direction == Direction.LEFT ? -GameUtils.PLAYER_SIZE : 0;
+    }
+
+    private static int getStepY(final Direction direction) {
+        if (direction == Direction.DOWN) {
+            return GameUtils.PLAYER_SIZE;
+        }
+
+        return direction == Direction.UP ? -GameUtils.PLAYER_SIZE : 0;
+    }
+
+    private static int toBit(final boolean value, final int index) {
+        return value ? 1 << index : 0;
+    }
+    // endregion
+}
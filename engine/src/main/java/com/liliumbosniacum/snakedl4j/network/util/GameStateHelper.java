@@ -0,0 +1,169 @@
+package com.liliumbosniacum.snakedl4j.network.util;
+
+import com.liliumbosniacum.snakedl4j.game.helper.Direction;
+import com.liliumbosniacum.snakedl4j.network.Action;
+import com.liliumbosniacum.snakedl4j.network.GameState;
+
+/**
+ * Helper class used to ease out creation of game states.
+ *
+ * @author mirza
+ */
+public final class GameStateHelper {
+    // region Member
+    /**
+     * Dictates how far can the snake see. Number of network inputs depends on it.
+     */
+    static final int VIEW_DISTANCE = 3;
+    /**
+     * Largest view distance for which a game state still fits into the bits of an int.
+     */
+    public static final int MAX_VIEW_DISTANCE = 5;
+    /**
+     * Action mask in which every action is allowed, bit i is the action with index i.
+     */
+    public static final int ALL_ACTIONS_MASK = 0b1111;
+
+    private static final int FOOD_STATE_COUNT = 8;
+    private static final int FOOD_EATEN_REWARD = 100;
+    private static final int MOVE_REWARD = -1;
+    private static final double FOOD_STATE_REWARD = 0.5;
+    // Food flags rewarded when moving in each direction, indexed by direction ordinal
+    private static final int[] FOOD_FLAG_MASKS = {
+            1 | 1 << 4 | 1 << 5,        // Up: food up, up right, up left
+            1 << 1 | 1 << 4 | 1 << 6,   // Right: food right, up right, down right
+            1 << 2 | 1 << 6 | 1 << 7,   // Down: food down, down right, down left
+            1 << 3 | 1 << 5 | 1 << 7    // Left: food left, up left, down left
+    };
+    private static final Direction[] DIRECTIONS = Direction.values();
+    // endregion
+
+    // region Constructor
+    private GameStateHelper() {}
+    // endregion
+
+    // region Implementation
+    /**
+     * Public create game state.
+     *
+     * @param context Feature context of the current step.
+     * @param currentDirection Current direction.
+     * @return Returns created game state object.
+     */
+    public static GameState createGameState(final FeatureContext context, final Direction currentDirection) {
+        final int viewDistance = context.getViewDistance();
+        final Boolean[] states = new Boolean[getNumberOfPossibleStates(viewDistance)];
+
+        int index = 0;
+        for (final Direction direction : DIRECTIONS) {
+            // Snake can not move backwards so the ray pointing behind the head is always negative
+            final int ray = direction == currentDirection.getOpposite() ? 0 : context.getRay(direction);
+            for (int i = 0; i < viewDistance; i++) {
+                states[index++] = (ray & (1 << i)) != 0;
+            }
+        }
+
+        final int foodFlags = context.getFoodFlags();
+        for (int i = 0; i < FOOD_STATE_COUNT; i++) {
+            states[index++] = (foodFlags & (1 << i)) != 0;
+        }
+
+        return new GameState(states, getActionMask(context, currentDirection));
+    }
+
+    public static double getScoreForAction(final Action action, final FeatureContext context) {
+        final Direction direction = DIRECTIONS[action.getActionIndex()];
+
+        return getScoreForMove(direction.ordinal(), context.getFoodFlags(), context.canEatFood(direction));
+    }
+
+    /**
+     * Get score for moving in a direction, calculated from features of the step before the move.
+     *
+     * @param directionIndex Ordinal of the direction (same as the action index).
+     * @param foodFlags Food flags where bit i corresponds to food state i.
+     * @param eatsFood Whether the food is right next to the head in that direction.
+     * @return Returns score of the move.
+     */
+    public static double getScoreForMove(final int directionIndex, final int foodFlags, final boolean eatsFood) {
+        double score = MOVE_REWARD;
+        score += FOOD_STATE_REWARD * Integer.bitCount(foodFlags & FOOD_FLAG_MASKS[directionIndex]);
+        score += eatsFood ? FOOD_EATEN_REWARD : 0;
+
+        return score;
+    }
+
+    /**
+     * Get mask of safe actions, bit i is set if moving in the direction with ordinal i does not end the game right
+     * away. Moving backwards into the neck, into a wall or into the body is not safe. Body is taken from the occupancy
+     * of the feature context, since rays only see the walls.
+     *
+     * @param context Feature context of the current step.
+     * @param currentDirection Current direction.
+     * @return Returns mask of safe actions, it is 0 when every move ends the game.
+     */
+    public static int getActionMask(final FeatureContext context, final Direction currentDirection) {
+        int mask = 0;
+        for (final Direction direction : DIRECTIONS) {
+            if (direction != currentDirection.getOpposite()
+                    && (context.getRay(direction) & 1) != 0
+                    && !context.isBodyAhead(direction)) {
+                mask |= 1 << direction.ordinal();
+            }
+        }
+
+        return mask;
+    }
+
+    /**
+     * Get mask of safe actions from game state bits. First bit of each ray tells whether the cell next to the head is
+     * inside the bounds and the ray pointing behind the head is always negative, so the mask excludes moving into the
+     * neck or into a wall. State bits do not hold the body, so unlike {@link #getActionMask(FeatureContext, Direction)}
+     * moving into the body is allowed. Used only where nothing but the state bits is stored, like next states of
+     * replayed transitions and states served to other games.
+     *
+     * @param stateBits Game state packed into bits, see {@link GameState#getStateBits()}.
+     * @param viewDistance How far can the snake see.
+     * @return Returns mask of safe actions, it is 0 when every move ends the game.
+     */
+    public static int getActionMask(final int stateBits, final int viewDistance) {
+        int mask = 0;
+        for (int direction = 0; direction < DIRECTIONS.length; direction++) {
+            mask |= ((stateBits >>> (direction * viewDistance)) & 1) << direction;
+        }
+
+        return mask;
+    }
+
+    /**
+     * Get view distance from the number of network inputs, inverse of {@link #getNumberOfPossibleStates(int)}.
+     *
+     * @param inputCount Number of network inputs.
+     * @return Returns how far can the snake see.
+     */
+    public static int getViewDistance(final int inputCount) {
+        return (inputCount - FOOD_STATE_COUNT) / DIRECTIONS.length;
+    }
+
+    /**
+     * Get number of possible states. There are 4 directions in which snake can see. Number of inputs is equal to
+     * those 4 directions times how far it can see plus 8 food states.
+     *
+     * @return Returns number of possible states.
+     */
+    public static int getNumberOfPossibleStates() {
+        return getNumberOfPossibleStates(VIEW_DISTANCE);
+    }
+
+    /**
+     * Get number of possible states for the given view distance.
+     *
+     * @param viewDistance How far can the snake see.
+     * @return Returns number of possible states.
+     */
+    public static int getNumberOfPossibleStates(final int viewDistance) {
+        // View distance must always be at least 1
+        return (4 * (viewDistance != 0 ? viewDistance : 1)) + FOOD_STATE_COUNT;
+    }
+    // endregion
+}
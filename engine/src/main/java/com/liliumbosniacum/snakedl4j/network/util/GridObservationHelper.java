@@ -0,0 +1,65 @@
+package com.liliumbosniacum.snakedl4j.network.util;
+
+import com.liliumbosniacum.snakedl4j.game.Game;
+import com.liliumbosniacum.snakedl4j.game.helper.GameUtils;
+
+import java.util.Arrays;
+
+/**
+ * Helper class used to encode the whole game world as network input, instead of the few features of the game state.
+ * Every cell of the world is an input in each of the three channels (snake body, snake head and food), channels are
+ * laid out one after another and cells row by row, which is the channels, height, width order of convolutional layers.
+ *
+ * @author mirza
+ */
+public final class GridObservationHelper {
+    // region Member
+    public static final int BODY_CHANNEL = 0;
+    public static final int HEAD_CHANNEL = 1;
+    public static final int FOOD_CHANNEL = 2;
+    public static final int CHANNELS = 3;
+
+    /**
+     * Height and width of the observation.
+     */
+    public static final int SIZE = GameUtils.GRID_CELLS;
+    /**
+     * Number of inputs of a single observation.
+     */
+    public static final int INPUT_COUNT = CHANNELS * SIZE * SIZE;
+
+    private static final int CHANNEL_SIZE = SIZE * SIZE;
+    // endregion
+
+    // region Constructor
+    private GridObservationHelper() {}
+    // endregion
+
+    // region Implementation
+    /**
+     * Encodes current game world. Nothing is allocated, so it can be called on every step.
+     *
+     * @param game Game to encode.
+     * @param destination Array to write into.
+     * @param offset Index at which the observation starts.
+     */
+    public static void encode(final Game game, final float[] destination, final int offset) {
+        game.getFeatureContext().copyOccupancy(destination, offset + BODY_CHANNEL * CHANNEL_SIZE);
+
+        // Head and food take one cell each, both channels are cleared and the cells set
+        final int headOffset = offset + HEAD_CHANNEL * CHANNEL_SIZE;
+        Arrays.fill(destination, headOffset, headOffset + 2 * CHANNEL_SIZE, 0);
+        set(destination, headOffset, GameUtils.getCellIndex(game.getSnakePosition()[0]));
+        set(destination, offset + FOOD_CHANNEL * CHANNEL_SIZE, GameUtils.getCellIndex(game.getFoodPosition()));
+    }
+    // endregion
+
+    // region Helper
+    private static void set(final float[] destination, final int channelOffset, final int cell) {
+        // Head is outside the world once the snake hits the wall
+        if (cell >= 0) {
+            destination[channelOffset + cell] = 1;
+        }
+    }
+    // endregion
+}
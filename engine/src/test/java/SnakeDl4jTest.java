@@ -0,0 +1,306 @@
+import com.liliumbosniacum.snakedl4j.game.BulkSimulator;
+import com.liliumbosniacum.snakedl4j.game.Game;
+import com.liliumbosniacum.snakedl4j.game.helper.Direction;
+import com.liliumbosniacum.snakedl4j.game.helper.GameUtils;
+import com.liliumbosniacum.snakedl4j.game.helper.Position;
+import com.liliumbosniacum.snakedl4j.network.Action;
+import com.liliumbosniacum.snakedl4j.network.GameState;
+import com.liliumbosniacum.snakedl4j.network.recording.TrajectoryReader;
+import com.liliumbosniacum.snakedl4j.network.recording.TrajectoryWriter;
+import com.liliumbosniacum.snakedl4j.network.util.FeatureContext;
+import com.liliumbosniacum.snakedl4j.network.util.GameStateHelper;
+import com.liliumbosniacum.snakedl4j.network.util.GridObservationHelper;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Class containing different tests from different classes.
+ *
+ * @author mirza
+ */
+public class SnakeDl4jTest {
+
+    @Test
+    public void testActionIndex() {
+        assertThat(Action.MOVE_UP.getActionIndex()).isEqualTo(0);
+        assertThat(Action.MOVE_RIGHT.getActionIndex()).isEqualTo(1);
+        assertThat(Action.MOVE_DOWN.getActionIndex()).isEqualTo(2);
+        assertThat(Action.MOVE_LEFT.getActionIndex()).isEqualTo(3);
+    }
+
+    @Test
+    public void testGetGameStateString() {
+        final GameState state = new GameState(new Boolean[]{
+                false,
+                true,
+                true,
+                false,
+                true
+        });
+
+        assertThat(state.getGameStateString()).isEqualTo("01101");
+    }
+
+    @Test
+    public void testFeatureContext() {
+        final Position[] snake = new Position[]{
+                new Position(50, 50),
+                new Position(40, 50),
+                new Position(30, 50)
+        };
+
+        final FeatureContext context = new FeatureContext();
+        context.reset(snake, snake.length);
+        context.update(snake[0], new Position(60, 50));
+
+        assertThat(context.getRay(Direction.RIGHT)).isEqualTo(0b111);
+        // Rays only see the walls, not the body
+        assertThat(context.getRay(Direction.LEFT)).isEqualTo(0b111);
+        assertThat(context.canEatFood(Direction.RIGHT)).isTrue();
+        assertThat(context.getFoodFlags()).isEqualTo(0b10);
+
+        // Move head up and free the tail
+        context.onHeadMoved(new Position(50, 40));
+        assertThat(context.isHeadColliding(new Position(50, 40))).isFalse();
+        context.onTailVacated(new Position(30, 50));
+        context.update(new Position(50, 40), new Position(60, 50));
+
+        assertThat(context.getRay(Direction.DOWN)).isEqualTo(0b111);
+        assertThat(context.canEatFood(Direction.RIGHT)).isFalse();
+        assertThat(GameStateHelper.getScoreForAction(Action.MOVE_RIGHT, context)).isEqualTo(0.0);
+        assertThat(GameStateHelper.createGameState(context, Direction.UP).getGameStateString())
+                .isEqualTo("11111100011101100010");
+
+        // Head on the cell of the tail ends the game, even though the tail is just moving away
+        context.onHeadMoved(new Position(40, 50));
+        assertThat(context.isHeadColliding(new Position(40, 50))).isTrue();
+    }
+
+    @Test
+    public void testActionMask() {
+        final Position[] snake = new Position[]{
+                new Position(50, 50),
+                new Position(40, 50),
+                new Position(30, 50)
+        };
+
+        final FeatureContext context = new FeatureContext();
+        context.reset(snake, snake.length);
+        context.update(snake[0], new Position(60, 50));
+
+        // Moving left would reverse into the neck
+        assertThat(GameStateHelper.getActionMask(context, Direction.RIGHT)).isEqualTo(0b0111);
+        // Moving down would reverse as well and the body is on the left
+        assertThat(GameStateHelper.getActionMask(context, Direction.UP)).isEqualTo(0b0011);
+
+        final GameState state = GameStateHelper.createGameState(context, Direction.RIGHT);
+        assertThat(state.getActionMask()).isEqualTo(0b0111);
+        assertThat(GameStateHelper.getActionMask(state.getStateBits(), 3)).isEqualTo(0b0111);
+
+        // Head in the top left corner, walls are up and left
+        final Position[] cornered = new Position[]{new Position(0, 0), new Position(10, 0)};
+        context.reset(cornered, cornered.length);
+        context.update(cornered[0], new Position(100, 100));
+        assertThat(GameStateHelper.getActionMask(context, Direction.LEFT)).isEqualTo(0b0100);
+
+        // Snake coiled up, moving left with its body right above the head
+        final Position[] coiled = new Position[]{
+                new Position(50, 50),
+                new Position(60, 50),
+                new Position(60, 40),
+                new Position(50, 40),
+                new Position(40, 40)
+        };
+        context.reset(coiled, coiled.length);
+        context.update(coiled[0], new Position(200, 200));
+        assertThat(GameStateHelper.getActionMask(context, Direction.LEFT)).isEqualTo(0b1100);
+        final GameState coiledState = GameStateHelper.createGameState(context, Direction.LEFT);
+        assertThat(coiledState.getActionMask()).isEqualTo(0b1100);
+        // State bits do not hold the body
+        assertThat(GameStateHelper.getActionMask(coiledState.getStateBits(), 3)).isEqualTo(0b1101);
+
+        // Even the tail which is just moving away ends the game
+        context.reset(coiled, 4);
+        context.update(coiled[0], new Position(200, 200));
+        assertThat(GameStateHelper.getActionMask(context, Direction.LEFT)).isEqualTo(0b1100);
+
+        // Food placed on the body is eaten without a collision
+        context.update(coiled[0], new Position(50, 40));
+        assertThat(GameStateHelper.getActionMask(context, Direction.LEFT)).isEqualTo(0b1101);
+
+        final SplittableRandom random = new SplittableRandom(7);
+        for (int i = 0; i < 1000; i++) {
+            assertThat(Action.getRandomAction(random, 0b1010).getActionIndex() % 2).isEqualTo(1);
+            assertThat(Action.getRandomAction(random, 0b0100)).isEqualTo(Action.MOVE_DOWN);
+        }
+    }
+
+    @Test
+    public void testTrajectoryRecording() throws IOException {
+        final File file = File.createTempFile("trajectory", ".bin");
+        file.deleteOnExit();
+        file.delete();
+
+        final TrajectoryWriter writer = new TrajectoryWriter(file.toPath(), 20);
+        writer.startEpisode(42, 123);
+        writer.recordStep(0b1011, 2, -1, 0b1100, false, true, 456);
+        writer.recordStep(0b1100, 3, -100, 0, true, false, 456);
+        writer.close();
+
+        // Appending to an existing file keeps what was already recorded
+        final TrajectoryWriter appendingWriter = new TrajectoryWriter(file.toPath(), 20);
+        appendingWriter.startEpisode(43, 7);
+        appendingWriter.close();
+
+        try (TrajectoryReader reader = new TrajectoryReader(file.toPath())) {
+            assertThat(reader.getRecordCount()).isEqualTo(4L);
+            assertThat(reader.getInputCount()).isEqualTo(20);
+
+            assertThat(reader.next()).isTrue();
+            assertThat(reader.isEpisodeStart()).isTrue();
+            assertThat(reader.getSeed()).isEqualTo(42L);
+            assertThat(reader.getFoodCell()).isEqualTo(123);
+
+            assertThat(reader.next()).isTrue();
+            assertThat(reader.isEpisodeStart()).isFalse();
+            assertThat(reader.getStateBits()).isEqualTo(0b1011);
+            assertThat(reader.getAction()).isEqualTo(2);
+            assertThat(reader.getReward()).isEqualTo(-1f);
+            assertThat(reader.getNextStateBits()).isEqualTo(0b1100);
+            assertThat(reader.isTerminal()).isFalse();
+            assertThat(reader.isFoodEaten()).isTrue();
+            assertThat(reader.getFoodCell()).isEqualTo(456);
+
+            reader.moveTo(3);
+            assertThat(reader.getSeed()).isEqualTo(43L);
+            assertThat(reader.next()).isFalse();
+        }
+    }
+
+    @Test
+    public void testSeededGame() {
+        final Game game = new Game(new SplittableRandom(1));
+        final Game replayedGame = new Game(new SplittableRandom(2));
+
+        // Same episode seed and same actions result in the same game, no matter which generator the game owns
+        game.initializeGame(42);
+        replayedGame.initializeGame(game.getEpisodeSeed());
+
+        final SplittableRandom agentRandom = new SplittableRandom(3);
+        while (game.isOngoing()) {
+            final Action action = Action.getRandomAction(agentRandom);
+            game.changeDirection(action);
+            replayedGame.changeDirection(action);
+            game.move();
+            replayedGame.move();
+
+            assertThat(replayedGame.isOngoing()).isEqualTo(game.isOngoing());
+            assertThat(replayedGame.getFoodPosition()).isEqualTo(game.getFoodPosition());
+            assertThat(replayedGame.getSnakeLength()).isEqualTo(game.getSnakeLength());
+            assertThat(replayedGame.getGameState().getStateBits()).isEqualTo(game.getGameState().getStateBits());
+        }
+    }
+
+    @Test
+    public void testGridObservation() {
+        final Game game = new Game(new SplittableRandom(1));
+        game.initializeGame(7);
+        game.changeDirection(Action.MOVE_DOWN);
+        game.move();
+
+        // Garbage left from a previous observation is overwritten
+        final float[] observation = new float[GridObservationHelper.INPUT_COUNT + 1];
+        Arrays.fill(observation, 5);
+        GridObservationHelper.encode(game, observation, 1);
+        assertThat(observation[0]).isEqualTo(5f);
+
+        final int channelSize = GridObservationHelper.SIZE * GridObservationHelper.SIZE;
+        final int headCell = GameUtils.getCellIndex(game.getSnakePosition()[0]);
+        final int foodCell = GameUtils.getCellIndex(game.getFoodPosition());
+
+        float body = 0;
+        float head = 0;
+        float food = 0;
+        for (int cell = 0; cell < channelSize; cell++) {
+            body += observation[1 + GridObservationHelper.BODY_CHANNEL * channelSize + cell];
+            head += observation[1 + GridObservationHelper.HEAD_CHANNEL * channelSize + cell];
+            food += observation[1 + GridObservationHelper.FOOD_CHANNEL * channelSize + cell];
+        }
+        assertThat(body).isEqualTo((float) game.getSnakeLength());
+        assertThat(head).isEqualTo(1f);
+        assertThat(food).isEqualTo(1f);
+        assertThat(observation[1 + GridObservationHelper.HEAD_CHANNEL * channelSize + headCell]).isEqualTo(1f);
+        assertThat(observation[1 + GridObservationHelper.BODY_CHANNEL * channelSize + headCell]).isEqualTo(1f);
+        assertThat(observation[1 + GridObservationHelper.FOOD_CHANNEL * channelSize + foodCell]).isEqualTo(1f);
+    }
+
+    @Test
+    public void testBulkSimulator() {
+        final int gameCount = 16;
+        final BulkSimulator simulator = new BulkSimulator(gameCount, 3, new SplittableRandom(1));
+        final Game[] games = new Game[gameCount];
+        for (int i = 0; i < gameCount; i++) {
+            games[i] = new Game(new SplittableRandom(i));
+            games[i].initializeGame(simulator.getEpisodeSeed(i));
+        }
+
+        // Every game is played with the same actions in both, and reset with the same seeds once it is over
+        final SplittableRandom agentRandom = new SplittableRandom(2);
+        final int[] actions = new int[gameCount];
+        final double[] scores = new double[gameCount];
+        for (int step = 0; step < 20_000; step++) {
+            for (int i = 0; i < gameCount; i++) {
+                actions[i] = getGreedyAction(simulator.getStateBits()[i], agentRandom);
+
+                final Action action = Action.getActionByIndex(actions[i]);
+                scores[i] = GameStateHelper.getScoreForAction(action, games[i].getFeatureContext());
+                games[i].changeDirection(action);
+                games[i].move();
+            }
+
+            simulator.step(actions);
+
+            for (int i = 0; i < gameCount; i++) {
+                assertThat(simulator.getRewards()[i]).isEqualTo(scores[i]);
+                assertThat(simulator.isOngoing(i)).isEqualTo(games[i].isOngoing());
+                assertThat(simulator.getSnakeLength(i)).isEqualTo(games[i].getSnakeLength());
+                assertThat(simulator.getFoodCell(i)).isEqualTo(GameUtils.getCellIndex(games[i].getFoodPosition()));
+                assertThat(simulator.getStateBits()[i]).isEqualTo(games[i].getGameState().getStateBits());
+                assertThat(simulator.getActionMasks()[i]).isEqualTo(games[i].getActionMask());
+            }
+
+            for (int i = 0; i < gameCount; i++) {
+                if (!simulator.isOngoing(i)) {
+                    simulator.reset(i);
+                    games[i].initializeGame(simulator.getEpisodeSeed(i));
+                }
+            }
+        }
+    }
+
+    // Goes towards the food if the next cell is free, otherwise to any free cell, so that snakes grow long
+    private static int getGreedyAction(final int stateBits, final SplittableRandom random) {
+        final int foodFlags = stateBits >>> 12;
+        for (int direction = 0; direction < 4; direction++) {
+            if ((foodFlags & 1 << direction) != 0 && (stateBits & 1 << (direction * 3)) != 0) {
+                return direction;
+            }
+        }
+
+        final int first = random.nextInt(4);
+        for (int i = 0; i < 4; i++) {
+            final int direction = (first + i) & 3;
+            if ((stateBits & 1 << (direction * 3)) != 0) {
+                return direction;
+            }
+        }
+
+        return first;
+    }
+}
@@ -0,0 +1,124 @@
+package com.liliumbosniacum.snakedl4j;
+
+import com.liliumbosniacum.snakedl4j.game.Game;
+import com.liliumbosniacum.snakedl4j.game.GamePanel;
+import com.liliumbosniacum.snakedl4j.game.helper.RandomUtils;
+import com.liliumbosniacum.snakedl4j.game.playback.PlaybackControl;
+import com.liliumbosniacum.snakedl4j.game.playback.PlaybackMode;
+import com.liliumbosniacum.snakedl4j.game.playback.PlaybackPanel;
+import com.liliumbosniacum.snakedl4j.network.GameMode;
+import com.liliumbosniacum.snakedl4j.network.util.DistributedTrainingHelper;
+import com.liliumbosniacum.snakedl4j.network.util.EvolutionTrainingHelper;
+import com.liliumbosniacum.snakedl4j.network.util.GridTrainingHelper;
+import com.liliumbosniacum.snakedl4j.network.util.HyperParameterSweepHelper;
+import com.liliumbosniacum.snakedl4j.network.util.InferenceServerHelper;
+import com.liliumbosniacum.snakedl4j.network.util.NetworkEvaluationHelper;
+import com.liliumbosniacum.snakedl4j.network.util.NetworkTrainingHelper;
+import com.liliumbosniacum.snakedl4j.network.util.OfflineTrainingHelper;
+import com.liliumbosniacum.snakedl4j.network.util.PipelinedTrainingHelper;
+
+import javax.swing.JFrame;
+import javax.swing.WindowConstants;
+import java.awt.BorderLayout;
+import java.awt.EventQueue;
+import java.util.SplittableRandom;
+
+public class SnakeDl4j extends JFrame {
+
+    private SnakeDl4j(final GameMode mode) {
+        // Game and agent get their own random number generators split from the master one
+        final SplittableRandom random = RandomUtils.createMasterRandom();
+        final Game game = new Game(random.split());
+        add(new GamePanel(game), BorderLayout.CENTER);
+
+        final PlaybackControl playbackControl = new PlaybackControl(PlaybackMode.REAL_TIME);
+        if (mode == GameMode.EVALUATE) {
+            add(new PlaybackPanel(playbackControl), BorderLayout.SOUTH);
+        }
+
+        setResizable(false);
+        pack();
+
+        setTitle(SnakeDl4j.class.getSimpleName() + " - " + mode);
+        setLocationRelativeTo(null);
+        setDefaultCloseOperation(WindowConstants.EXIT_ON_CLOSE);
+
+        if (mode == GameMode.TRAIN) {
+            NetworkTrainingHelper.startTraining(game, random.split());
+            return;
+        }
+
+        if (mode == GameMode.TRAIN_REPLAY) {
+            NetworkTrainingHelper.startReplayTraining(game, random.split());
+            return;
+        }
+
+        if (mode == GameMode.TRAIN_DOUBLE_DQN) {
+            NetworkTrainingHelper.startDoubleDqnTraining(game, random.split());
+            return;
+        }
+
+        if (mode == GameMode.TRAIN_PIPELINED) {
+            PipelinedTrainingHelper.startPipelinedTraining(game, random.split());
+            return;
+        }
+
+        if(mode == GameMode.EVALUATE) {
+            NetworkEvaluationHelper.startEvaluating(game, playbackControl);
+        }
+    }
+
+    public static void main(String[] args) {
+        // Game mode to execute. Start the application with available game modes provided in the program arguments
+        final GameMode mode = GameMode.create(args[0]);
+
+        // Headless modes are started right away, without creating any window
+        if (mode.isHeadless()) {
+            startHeadless(mode);
+            return;
+        }
+
+        EventQueue.invokeLater(() -> {
+            JFrame ex = new SnakeDl4j(mode);
+            ex.setVisible(true);
+        });
+    }
+
+    private static void startHeadless(final GameMode mode) {
+        final SplittableRandom random = RandomUtils.createMasterRandom();
+
+        if (mode == GameMode.TRAIN_OFFLINE) {
+            OfflineTrainingHelper.startOfflineTraining(random.split());
+            return;
+        }
+
+        if (mode == GameMode.TRAIN_GRID) {
+            GridTrainingHelper.startGridTraining(random.split());
+            return;
+        }
+
+        if (mode == GameMode.TRAIN_EVOLUTION) {
+            EvolutionTrainingHelper.startEvolutionTraining(random.split());
+            return;
+        }
+
+        if (mode == GameMode.SWEEP) {
+            HyperParameterSweepHelper.startSweep(random.split());
+            return;
+        }
+
+        if (mode == GameMode.SERVE) {
+            InferenceServerHelper.startServing();
+            return;
+        }
+
+        if (mode == GameMode.PARAMETER_SERVER) {
+            DistributedTrainingHelper.startParameterServer();
+            return;
+        }
+
+        if (mode == GameMode.TRAIN_WORKER) {
+            DistributedTrainingHelper.startWorker(random.split());
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package com.liliumbosniacum.snakedl4j.game;
+
+import com.liliumbosniacum.snakedl4j.game.helper.GameUtils;
+import com.liliumbosniacum.snakedl4j.game.helper.Position;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+
+/**
+ * Panel rendering the game. Rendering is decoupled from the simulation, panel checks for a new snapshot of the game
+ * at a capped frame rate and repaints only if there is one, so simulation never has to wait for rendering.
+ * Game is drawn into an offscreen back buffer cell by cell, only cells which changed since the last frame (usually
+ * new head, old tail and food) are redrawn and repainted.
+ *
+ * @author mirza
+ */
+public class GamePanel extends JPanel {
+    // region Member
+    private static final int FRAMES_PER_SECOND = 60;
+
+    // If more cells than this changed (e.g. new game or skipped frames) the whole panel is repainted at once
+    private static final int MAX_DIRTY_CELLS = 16;
+
+    private static final byte EMPTY = 0;
+    private static final byte FOOD = 1;
+    private static final byte HEAD = 2;
+    private static final byte TAIL = 3;
+
+    private final transient Game game;
+
+    // Sprites indexed by cell content, converted to the format of the screen so that drawing them is accelerated
+    private transient Image[] sprites;
+    private transient BufferedImage backBuffer;
+
+    // Content of every cell as it is drawn in the back buffer and as it should be drawn for the latest snapshot
+    private final byte[] drawnCells = new byte[GameUtils.GRID_CELLS * GameUtils.GRID_CELLS];
+    private final byte[] snapshotCells = new byte[GameUtils.GRID_CELLS * GameUtils.GRID_CELLS];
+    private final int[] dirtyCells = new int[MAX_DIRTY_CELLS];
+
+    // Snapshot which was drawn last
+    private transient GameSnapshot drawnSnapshot;
+    // endregion
+
+    // region Setup
+    public GamePanel(final Game game) {
+        this.game = game;
+
+        setBackground(Color.WHITE);
+        setOpaque(true);
+        setFocusable(true);
+        setPreferredSize(new Dimension(GameUtils.GAME_DIMENSIONS, GameUtils.GAME_DIMENSIONS));
+
+        game.setSnapshotsEnabled(true);
+
+        // Swing timer runs on the event dispatch thread, which is where painting happens anyway
+        new Timer(1000 / FRAMES_PER_SECOND, e -> drawIfChanged()).start();
+    }
+    // endregion
+
+    // region Implementation
+    @Override
+    protected void paintComponent(final Graphics graphics) {
+        if (backBuffer == null) {
+            createBuffers();
+        }
+
+        // Only the clipped part of the back buffer is copied, which is a single cell for incremental repaints
+        final Rectangle clip = graphics.getClipBounds();
+        if (clip == null) {
+            graphics.drawImage(backBuffer, 0, 0, this);
+        } else {
+            graphics.drawImage(backBuffer,
+                    clip.x, clip.y, clip.x + clip.width, clip.y + clip.height,
+                    clip.x, clip.y, clip.x + clip.width, clip.y + clip.height,
+                    this
+            );
+        }
+    }
+    // endregion
+
+    // region Helper
+    private void drawIfChanged() {
+        final GameSnapshot snapshot = game.getSnapshot();
+        if (snapshot == null || snapshot == drawnSnapshot || !isShowing()) {
+            return;
+        }
+        drawnSnapshot = snapshot;
+
+        if (backBuffer == null) {
+            createBuffers();
+        }
+
+        fillCells(snapshot);
+
+        final Graphics2D graphics = backBuffer.createGraphics();
+        int dirtyCount = 0;
+        try {
+            for (int cell = 0; cell < snapshotCells.length; cell++) {
+                if (snapshotCells[cell] == drawnCells[cell]) {
+                    continue;
+                }
+
+                drawCell(graphics, cell, snapshotCells[cell]);
+                drawnCells[cell] = snapshotCells[cell];
+
+                if (dirtyCount < MAX_DIRTY_CELLS) {
+                    dirtyCells[dirtyCount] = cell;
+                }
+                dirtyCount++;
+            }
+        } finally {
+            graphics.dispose();
+        }
+
+        if (dirtyCount > MAX_DIRTY_CELLS) {
+            paintImmediately(0, 0, getWidth(), getHeight());
+        } else {
+            for (int i = 0; i < dirtyCount; i++) {
+                paintImmediately(getCellX(dirtyCells[i]), getCellY(dirtyCells[i]),
+                        GameUtils.PLAYER_SIZE,
+                        GameUtils.PLAYER_SIZE
+                );
+            }
+        }
+
+        // Synchronize graphics state once per frame
+        Toolkit.getDefaultToolkit().sync();
+    }
+
+    private void fillCells(final GameSnapshot snapshot) {
+        Arrays.fill(snapshotCells, EMPTY);
+
+        setCell(snapshot.getFoodPosition(), FOOD);
+
+        // Parts are set from the tail, so that the head wins if it lies on top of another part
+        final Position[] snakePosition = snapshot.getSnakePosition();
+        for (int i = snakePosition.length - 1; i >= 0; i--) {
+            setCell(snakePosition[i], i == 0 ? HEAD : TAIL);
+        }
+    }
+
+    private void setCell(final Position position, final byte content) {
+        final int cell = GameUtils.getCellIndex(position);
+        if (cell >= 0) {
+            snapshotCells[cell] = content;
+        }
+    }
+
+    private void drawCell(final Graphics2D graphics, final int cell, final byte content) {
+        final int x = getCellX(cell);
+        final int y = getCellY(cell);
+
+        if (content == EMPTY) {
+            graphics.setColor(getBackground());
+            graphics.fillRect(x, y, GameUtils.PLAYER_SIZE, GameUtils.PLAYER_SIZE);
+        } else {
+            graphics.drawImage(sprites[content], x, y, null);
+        }
+    }
+
+    private void createBuffers() {
+        final int size = GameUtils.GRID_CELLS * GameUtils.PLAYER_SIZE;
+        final GraphicsConfiguration configuration = getGraphicsConfiguration();
+
+        sprites = new Image[]{
+                null,
+                toCompatibleImage(configuration, loadImage("/images/food.png")),
+                toCompatibleImage(configuration, loadImage("/images/head.png")),
+                toCompatibleImage(configuration, loadImage("/images/tail.png"))
+        };
+
+        backBuffer = createImage(configuration, size, size);
+        final Graphics2D graphics = backBuffer.createGraphics();
+        graphics.setColor(getBackground());
+        graphics.fillRect(0, 0, size, size);
+        graphics.dispose();
+
+        Arrays.fill(drawnCells, EMPTY);
+    }
+
+    /**
+     * Copies the image into one which has the same layout as the screen, so that drawing it does not need any
+     * conversion and can be accelerated.
+     */
+    private static Image toCompatibleImage(final GraphicsConfiguration configuration, final Image image) {
+        final BufferedImage compatibleImage = createImage(configuration, GameUtils.PLAYER_SIZE, GameUtils.PLAYER_SIZE);
+
+        final Graphics2D graphics = compatibleImage.createGraphics();
+        graphics.drawImage(image, 0, 0, null);
+        graphics.dispose();
+
+        return compatibleImage;
+    }
+
+    private static BufferedImage createImage(final GraphicsConfiguration configuration,
+                                             final int width,
+                                             final int height) {
+        if (configuration == null) { // Not yet shown or running headless
+            return new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        }
+
+        return configuration.createCompatibleImage(width, height, Transparency.OPAQUE);
+    }
+
+    // Images are loaded from the classpath, so that they are found no matter where the application is started from
+    private static Image loadImage(final String resource) {
+        return new ImageIcon(GamePanel.class.getResource(resource)).getImage();
+    }
+
+    private static int getCellX(final int cell) {
+        return (cell % GameUtils.GRID_CELLS) * GameUtils.PLAYER_SIZE;
+    }
+
+    private static int getCellY(final int cell) {
+        return (cell / GameUtils.GRID_CELLS) * GameUtils.PLAYER_SIZE;
+    }
+    // endregion
+}
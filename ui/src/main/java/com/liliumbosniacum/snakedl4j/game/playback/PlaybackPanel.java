@@ -0,0 +1,25 @@
+package com.liliumbosniacum.snakedl4j.game.playback;
+
+import javax.swing.*;
+import java.awt.*;
+
+/**
+ * Panel used to switch playback mode while the game is running.
+ *
+ * @author mirza
+ */
+public class PlaybackPanel extends JPanel {
+    // region Setup
+    public PlaybackPanel(final PlaybackControl playbackControl) {
+        super(new FlowLayout(FlowLayout.LEFT));
+
+        final JComboBox<PlaybackMode> modes = new JComboBox<>(PlaybackMode.values());
+        modes.setSelectedItem(playbackControl.getMode());
+        modes.setFocusable(false);
+        modes.addActionListener(e -> playbackControl.setMode((PlaybackMode) modes.getSelectedItem()));
+
+        add(new JLabel("Playback:"));
+        add(modes);
+    }
+    // endregion
+}
@@ -0,0 +1,76 @@
+package com.liliumbosniacum.snakedl4j.network;
+
+public enum GameMode {
+    /**
+     * Indicates that training should be started.
+     */
+    TRAIN,
+    /**
+     * Indicates that training with prioritized experience replay should be started.
+     */
+    TRAIN_REPLAY,
+    /**
+     * Indicates that training with prioritized experience replay, a target network and Double DQN targets should be
+     * started.
+     */
+    TRAIN_DOUBLE_DQN,
+    /**
+     * Indicates that training with simulation and network fitting running on separate threads should be started.
+     */
+    TRAIN_PIPELINED,
+    /**
+     * Indicates that training from recorded games should be started.
+     */
+    TRAIN_OFFLINE,
+    /**
+     * Indicates that training of the convolutional network which sees the whole game world should be started.
+     */
+    TRAIN_GRID,
+    /**
+     * Indicates that training with evolution strategies on all cores should be started.
+     */
+    TRAIN_EVOLUTION,
+    /**
+     * Indicates that a hyperparameter sweep over many concurrent training sessions should be started.
+     */
+    SWEEP,
+    /**
+     * Indicates that trained network should be served to games running in other JVMs.
+     */
+    SERVE,
+    /**
+     * Indicates that parameter server shared by training workers in other JVMs should be started.
+     */
+    PARAMETER_SERVER,
+    /**
+     * Indicates that training worker synchronizing its network with the parameter server should be started.
+     */
+    TRAIN_WORKER,
+    /**
+     * Indicates that evaluation of existing network should be started.
+     */
+    EVALUATE;
+
+    /**
+     * Checks if the mode runs without showing the game. Headless modes do not create any window.
+     *
+     * @return Returns true if nothing is drawn in this mode.
+     */
+    public boolean isHeadless() {
+        return this == TRAIN_OFFLINE
+                || this == TRAIN_GRID
+                || this == TRAIN_EVOLUTION
+                || this == SWEEP
+                || this == SERVE
+                || this == PARAMETER_SERVER
+                || this == TRAIN_WORKER;
+    }
+
+    public static GameMode create(final String mode) {
+        try {
+            return GameMode.valueOf(mode);
+        } catch (final Exception e) {
+            return GameMode.EVALUATE;
+        }
+    }
+}